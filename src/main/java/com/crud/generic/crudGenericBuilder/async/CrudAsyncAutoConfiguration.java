@@ -0,0 +1,24 @@
+package com.crud.generic.crudGenericBuilder.async;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration of the executor used by the asynchronous services and endpoints.
+ * Virtual threads are used on Java 21 and later unless crud.generic.async.virtual-threads is false,
+ * in which case crud.generic.async.pool-size platform threads are used, and at most
+ * crud.generic.async.queue-capacity operations wait for them.
+ */
+@AutoConfiguration
+public class CrudAsyncAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CrudAsyncExecutor crudAsyncExecutor(@Value("${crud.generic.async.virtual-threads:true}") boolean virtualThreads,
+                                               @Value("${crud.generic.async.pool-size:64}") int poolSize,
+                                               @Value("${crud.generic.async.queue-capacity:1000}") int queueCapacity) {
+        return CrudAsyncExecutor.create(virtualThreads, poolSize, queueCapacity);
+    }
+}
@@ -0,0 +1,144 @@
+package com.crud.generic.crudGenericBuilder.async;
+
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking CRUD operations of the asynchronous services and endpoints off the request threads.
+ * On Java 21 and later it can run each operation on its own virtual thread, so thousands of in-flight operations
+ * need no platform threads while they wait for the database. Concurrency against the database itself remains
+ * bounded by the connection pool. On earlier Java versions a fixed pool of platform threads is used,
+ * with a bounded queue of waiting operations. Operations submitted to a full queue are rejected,
+ * and their future fails with a RejectedExecutionException.
+ * Operations run as the tenant of the thread that submitted them.
+ * This class deliberately does not implement Executor, so declaring it as a bean does not replace
+ * the application's default task executor.
+ */
+public class CrudAsyncExecutor implements DisposableBean {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final ExecutorService executorService;
+    private final boolean virtualThreads;
+
+    /**
+     * Constructor that wraps an existing executor service.
+     *
+     * @param executorService the executor service to run the operations on
+     */
+    public CrudAsyncExecutor(ExecutorService executorService) {
+        this(executorService, false);
+    }
+
+    private CrudAsyncExecutor(ExecutorService executorService, boolean virtualThreads) {
+        this.executorService = executorService;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Creates an executor that uses virtual threads when they are requested and available,
+     * and otherwise a fixed pool of daemon platform threads with a queue of 1000 operations.
+     *
+     * @param virtualThreads true to use virtual threads when the JVM supports them
+     * @param poolSize the number of platform threads when virtual threads are not used
+     * @return the executor
+     */
+    public static CrudAsyncExecutor create(boolean virtualThreads, int poolSize) {
+        return create(virtualThreads, poolSize, 1000);
+    }
+
+    /**
+     * Creates an executor that uses virtual threads when they are requested and available,
+     * and otherwise a fixed pool of daemon platform threads.
+     *
+     * @param virtualThreads true to use virtual threads when the JVM supports them
+     * @param poolSize the number of platform threads when virtual threads are not used
+     * @param queueCapacity the number of operations that may wait for a platform thread before new ones are rejected
+     * @return the executor
+     */
+    public static CrudAsyncExecutor create(boolean virtualThreads, int poolSize, int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualThreadExecutor != null) {
+                return new CrudAsyncExecutor(virtualThreadExecutor, true);
+            }
+        }
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "crud-async-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new CrudAsyncExecutor(pool);
+    }
+
+    /**
+     * Returns the executor shared by the services and controllers that were not given one.
+     *
+     * @return the shared executor
+     */
+    public static CrudAsyncExecutor shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Returns whether this executor runs operations on virtual threads.
+     *
+     * @return true for virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public <R> CompletableFuture<R> supply(Supplier<R> operation) {
+        try {
+            return CompletableFuture.supplyAsync(TenantContext.propagate(operation), executorService);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<Void> run(Runnable operation) {
+        try {
+            return CompletableFuture.runAsync(TenantContext.propagate(operation), executorService);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdown();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            // Looked up reflectively so the library still compiles and runs on Java 17
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    private static final class SharedHolder {
+
+        private static final CrudAsyncExecutor INSTANCE = create(true, 64);
+    }
+}
@@ -0,0 +1,30 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables the read-through entity cache of a GenericServiceImpl subclass.
+ * findById is served from a {@link CaffeineEntityCache}, and entries are invalidated by the service's write operations.
+ * Writes made outside the service are only picked up once the entry expires.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheEntities {
+
+    /**
+     * The maximum number of cached entities.
+     */
+    long maximumSize() default 10_000;
+
+    /**
+     * How many seconds an entity stays cached after it was loaded.
+     */
+    long expireAfterWriteSeconds() default 300;
+}
@@ -0,0 +1,110 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Entity cache backed by Caffeine.
+ * The cache is bounded by size using Caffeine's W-TinyLFU eviction policy, and entries expire a fixed time after they were loaded.
+ * Bulk loads run outside of Caffeine's per-entry locks, so an entity invalidated while its bulk load was running
+ * is returned but not cached. Invalidations are counted in a fixed number of stripes, so an invalidation of
+ * another id of the same stripe may also keep a loaded entity out of the cache.
+ * Requires the com.github.ben-manes.caffeine:caffeine dependency.
+ *
+ * @param <ID> The type of the entity's ID
+ * @param <T> The entity type
+ */
+public class CaffeineEntityCache<ID extends Serializable, T> implements EntityCache<ID, T> {
+
+    private static final int INVALIDATION_STRIPES = 64;
+
+    private final Cache<ID, T> cache;
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    /**
+     * Constructor that takes the cache bounds.
+     *
+     * @param maximumSize the maximum number of cached entities
+     * @param expireAfterWrite how long an entity stays cached after it was loaded
+     */
+    public CaffeineEntityCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public T get(ID id, Function<? super ID, ? extends T> loader) {
+        return cache.get(id, loader);
+    }
+
+    @Override
+    public Map<ID, T> getAll(Collection<ID> ids, Function<Set<ID>, Map<ID, T>> loader) {
+        Map<ID, T> present = cache.getAllPresent(ids);
+        Set<ID> missingIds = new LinkedHashSet<>(ids);
+        missingIds.removeAll(present.keySet());
+        if (missingIds.isEmpty()) {
+            return present;
+        }
+        long[] generations = new long[INVALIDATION_STRIPES];
+        for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++) {
+            generations[stripe] = invalidations.get(stripe);
+        }
+        Map<ID, T> loaded = loader.apply(missingIds);
+        loaded.forEach((id, entity) -> cache.asMap().compute(id, (key, current) -> {
+            int stripe = stripe(key);
+            return invalidations.get(stripe) == generations[stripe] ? entity : current;
+        }));
+        Map<ID, T> result = new LinkedHashMap<>();
+        for (ID id : ids) {
+            T entity = present.containsKey(id) ? present.get(id) : loaded.get(id);
+            if (entity != null) {
+                result.put(id, entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the invalidation under the entry's lock, so a bulk load of the id either completes before it or sees it.
+     */
+    @Override
+    public void invalidate(ID id) {
+        cache.asMap().compute(id, (key, current) -> {
+            invalidations.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++) {
+            invalidations.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(Object id) {
+        return Math.floorMod(id.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    @Override
+    public EntityCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new EntityCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,25 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collapses concurrent findById loads of the same id in a GenericServiceImpl subclass into one select, see {@link SingleFlight}.
+ * Callers that share a load receive the same entity instance, which should therefore be treated as read-only.
+ * Calls made inside a read-write transaction always load on their own, so they see the transaction's own writes.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CollapseLoads {
+
+    /**
+     * How many milliseconds a caller waits for the load of another caller before it fails.
+     */
+    long timeoutMillis() default 5000;
+}
@@ -0,0 +1,33 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+/**
+ * Entity cache used when caching is not enabled for a service.
+ */
+final class DisabledEntityCache implements EntityCache<Serializable, Object> {
+
+    static final DisabledEntityCache INSTANCE = new DisabledEntityCache();
+
+    private DisabledEntityCache() {
+    }
+
+    @Override
+    public Object get(Serializable id, Function<? super Serializable, ?> loader) {
+        return loader.apply(id);
+    }
+
+    @Override
+    public void invalidate(Serializable id) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+
+    @Override
+    public EntityCacheStats stats() {
+        return EntityCacheStats.EMPTY;
+    }
+}
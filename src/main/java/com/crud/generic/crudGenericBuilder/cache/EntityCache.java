@@ -0,0 +1,56 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of entities by id used by GenericServiceImpl.
+ * Cached entities are shared between callers and should be treated as read-only.
+ *
+ * @param <ID> The type of the entity's ID
+ * @param <T> The entity type
+ */
+public interface EntityCache<ID extends Serializable, T> {
+
+    /**
+     * Returns the cached entity, loading and caching it on a miss.
+     * Concurrent misses for the same id share a single load.
+     *
+     * @param id the id of the entity
+     * @param loader the function that loads the entity, returning null when it does not exist
+     * @return the entity, or null when it does not exist
+     */
+    T get(ID id, Function<? super ID, ? extends T> loader);
+
+    /**
+     * Returns the cached entities of the given ids, loading the missing ones with one call to the loader and caching them.
+     * This default implementation caches nothing and loads every id.
+     *
+     * @param ids the ids of the entities
+     * @param loader the function that loads the entities of the ids it is given, omitting those that do not exist
+     * @return the entities keyed by id, without the ids that do not exist
+     */
+    default Map<ID, T> getAll(Collection<ID> ids, Function<Set<ID>, Map<ID, T>> loader) {
+        return loader.apply(new LinkedHashSet<>(ids));
+    }
+
+    void invalidate(ID id);
+
+    void invalidateAll();
+
+    EntityCacheStats stats();
+
+    /**
+     * Returns a cache that caches nothing and always calls the loader.
+     *
+     * @return the disabled cache
+     */
+    @SuppressWarnings("unchecked")
+    static <ID extends Serializable, T> EntityCache<ID, T> disabled() {
+        return (EntityCache<ID, T>) DisabledEntityCache.INSTANCE;
+    }
+}
@@ -0,0 +1,47 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+/**
+ * Snapshot of the statistics of an entity cache.
+ */
+public class EntityCacheStats {
+
+    static final EntityCacheStats EMPTY = new EntityCacheStats(0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+
+    public EntityCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the ratio of lookups served from the cache, or 1.0 when there were no lookups.
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+}
@@ -0,0 +1,115 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight load between the concurrent callers that request the same key.
+ * The first caller runs the load on its own thread, and callers arriving before it completes wait for its result
+ * or exception instead of loading again. Nothing is kept once the load completes, so later callers load anew.
+ *
+ * @param <K> The type of the key
+ * @param <V> The type of the loaded value
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder collapsedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * Constructor that takes how long callers wait for a load started by another caller.
+     *
+     * @param timeout the maximum wait for a shared load
+     */
+    public SingleFlight(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Returns the value of the key, running the loader unless a load of the same key is already in flight.
+     *
+     * @param key the key of the value
+     * @param loader the load to run when no load of the key is in flight
+     * @return the loaded value, possibly null
+     * @throws QueryTimeoutException if the load of another caller does not complete within the timeout
+     */
+    public V load(K key, Supplier<? extends V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            collapsedCount.increment();
+            return await(key, existing);
+        }
+        loadCount.increment();
+        try {
+            V value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> load) {
+        try {
+            return load.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeoutCount.increment();
+            throw new QueryTimeoutException("Timed out waiting for the in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            // Rethrow the loader's own exception, which is always unchecked
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the in-flight load of " + key, e);
+        }
+    }
+
+    /**
+     * Returns how many loads were run.
+     *
+     * @return the number of loads
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Returns how many calls shared the load of another call instead of loading.
+     *
+     * @return the number of collapsed calls
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.sum();
+    }
+
+    /**
+     * Returns how many calls gave up waiting for the load of another call.
+     *
+     * @return the number of timed out calls
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+}
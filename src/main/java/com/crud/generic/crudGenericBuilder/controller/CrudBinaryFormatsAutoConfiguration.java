@@ -0,0 +1,55 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Auto-configuration of the binary encodings of the GenericController endpoints.
+ * When jackson-dataformat-cbor or jackson-dataformat-smile is on the classpath, a message converter for
+ * application/cbor or application/x-jackson-smile is registered, so requests select the encoding of the response
+ * with the Accept header and of the request body with the Content-Type header. The converters use the application's
+ * Jackson configuration, so entities are encoded with the same properties and modules as JSON.
+ * Set crud.generic.binary-formats.enabled to false to keep JSON only.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = HttpMessageConvertersAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(Jackson2ObjectMapperBuilder.class)
+@ConditionalOnBean(Jackson2ObjectMapperBuilder.class)
+@ConditionalOnProperty(name = "crud.generic.binary-formats.enabled", havingValue = "true", matchIfMissing = true)
+public class CrudBinaryFormatsAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(CBORFactory.class)
+    static class CborConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(SmileFactory.class)
+    static class SmileConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+        }
+    }
+}
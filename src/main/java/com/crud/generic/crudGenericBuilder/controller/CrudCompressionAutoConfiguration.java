@@ -0,0 +1,44 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Auto-configuration of the response compression of the GenericController endpoints,
+ * enabled with crud.generic.compression.enabled. Responses larger than crud.generic.compression.min-response-size bytes
+ * of one of the crud.generic.compression.mime-types are compressed for clients that accept gzip or deflate.
+ * Only requests matching crud.generic.compression.url-patterns are filtered, every request by default.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "crud.generic.compression.enabled", havingValue = "true")
+public class CrudCompressionAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(name = "crudCompressionFilter")
+    public FilterRegistrationBean<CrudCompressionFilter> crudCompressionFilter(
+            @Value("${crud.generic.compression.min-response-size:2048}") int minResponseSize,
+            @Value("${crud.generic.compression.mime-types:application/json,application/x-ndjson,application/cbor,application/x-jackson-smile}") String[] mimeTypes,
+            @Value("${crud.generic.compression.level:-1}") int level,
+            @Value("${crud.generic.compression.pool-size:32}") int poolSize,
+            @Value("${crud.generic.compression.url-patterns:/*}") String[] urlPatterns) {
+        CrudCompressionFilter filter = new CrudCompressionFilter(minResponseSize,
+                Arrays.stream(mimeTypes).map(MediaType::parseMediaType).collect(Collectors.toList()), level, poolSize);
+        FilterRegistrationBean<CrudCompressionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(urlPatterns);
+        registration.setAsyncSupported(true);
+        // Runs outside the other filters, so those that read the body, such as the ETag filter, see it uncompressed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
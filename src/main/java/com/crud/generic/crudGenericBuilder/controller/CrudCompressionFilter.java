@@ -0,0 +1,446 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses responses with gzip or deflate while they are written, for clients that accept it.
+ * The first min-response-size bytes of a response are held back. Smaller responses are sent unchanged,
+ * and larger ones of a compressible content type are compressed from then on, without buffering the rest of the body.
+ * Streaming responses, such as those of {@link GenericController#streamAll(boolean)}, therefore stay streaming.
+ * A response switched to non-blocking writes is sent unchanged when compression has not started yet, and otherwise
+ * keeps being compressed and is finished when its output stream is closed.
+ * The deflaters and their buffers are pooled, since each one holds native memory that is costly to allocate per response.
+ */
+public class CrudCompressionFilter extends OncePerRequestFilter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int level;
+    private final BlockingQueue<Compressor> gzipCompressors;
+    private final BlockingQueue<Compressor> deflateCompressors;
+
+    /**
+     * Constructor that takes when and how to compress.
+     *
+     * @param minResponseSize the smallest response body in bytes that is compressed
+     * @param mimeTypes the compressible content types
+     * @param level the compression level from 1 to 9, or -1 for the default level
+     * @param poolSize the maximum number of idle deflaters kept for reuse per encoding
+     */
+    public CrudCompressionFilter(int minResponseSize, Collection<MediaType> mimeTypes, int level, int poolSize) {
+        if (minResponseSize < 0) {
+            throw new IllegalArgumentException("Min response size must not be negative");
+        }
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = List.copyOf(mimeTypes);
+        this.level = level;
+        this.gzipCompressors = new ArrayBlockingQueue<>(poolSize);
+        this.deflateCompressors = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && WebUtils.getNativeResponse(response, CompressingResponseWrapper.class) == null) {
+            String encoding = acceptedEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding != null) {
+                responseToUse = new CompressingResponseWrapper(response, encoding);
+            }
+        }
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            // An asynchronous response, such as a streamed one, is finished by its async dispatch
+            if (!request.isAsyncStarted()) {
+                CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse, CompressingResponseWrapper.class);
+                if (wrapper != null) {
+                    wrapper.finish();
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Returns the preferred encoding the client accepts, gzip before deflate, ignoring those with q=0.
+     */
+    static String acceptedEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (rejected) {
+                continue;
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return "gzip";
+            }
+            deflate |= coding.equals("deflate");
+        }
+        return deflate ? "deflate" : null;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(mediaType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Compressor borrow(boolean gzip) {
+        Compressor compressor = (gzip ? gzipCompressors : deflateCompressors).poll();
+        return compressor != null ? compressor : new Compressor(new Deflater(level, gzip));
+    }
+
+    private void release(Compressor compressor, boolean gzip) {
+        compressor.deflater.reset();
+        if (!(gzip ? gzipCompressors : deflateCompressors).offer(compressor)) {
+            compressor.deflater.end();
+        }
+    }
+
+    /**
+     * A pooled deflater together with its output buffer.
+     */
+    private static final class Compressor {
+
+        final Deflater deflater;
+        final byte[] buffer = new byte[BUFFER_SIZE];
+
+        Compressor(Deflater deflater) {
+            this.deflater = deflater;
+        }
+    }
+
+    /**
+     * Response whose body is held back until it reaches the minimum size, and then written compressed or unchanged.
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final String encoding;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        CompressingResponseWrapper(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        private CompressingOutputStream stream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        // The length is only passed on if the body is sent unchanged
+
+        @Override
+        public void setContentLength(int length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = value == null ? -1 : Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (outputStream != null) {
+                outputStream.resetBuffer();
+            }
+            super.resetBuffer();
+        }
+
+        boolean shouldCompress() {
+            int status = getStatus();
+            return !isCommitted()
+                    && status != HttpServletResponse.SC_NO_CONTENT && status != HttpServletResponse.SC_NOT_MODIFIED
+                    && status != HttpServletResponse.SC_PARTIAL_CONTENT
+                    && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && isCompressible(getContentType());
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            } else if (contentLength >= 0) {
+                getResponse().setContentLengthLong(contentLength);
+            }
+        }
+    }
+
+    /**
+     * Output stream that holds back the first bytes of the body and then writes through a pooled deflater
+     * in the gzip or zlib (deflate) format, or unchanged.
+     */
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final CompressingResponseWrapper response;
+        private final boolean gzip;
+        private byte[] pending;
+        private int pendingCount;
+        private ServletOutputStream target;
+        private Compressor compressor;
+        private CRC32 crc;
+        private boolean finished;
+
+        CompressingOutputStream(CompressingResponseWrapper response) {
+            this.response = response;
+            this.gzip = response.encoding.equals("gzip");
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IOException("The response has already been finished");
+            }
+            if (target == null) {
+                if (pendingCount + length <= minResponseSize) {
+                    if (pending == null) {
+                        pending = new byte[Math.max(minResponseSize, 1)];
+                    }
+                    System.arraycopy(bytes, offset, pending, pendingCount, length);
+                    pendingCount += length;
+                    return;
+                }
+                start(response.shouldCompress());
+            }
+            writeThrough(bytes, offset, length);
+        }
+
+        private void start(boolean compress) throws IOException {
+            HttpServletResponse original = (HttpServletResponse) response.getResponse();
+            if (compress) {
+                original.setHeader(HttpHeaders.CONTENT_ENCODING, response.encoding);
+                original.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                compressor = borrow(gzip);
+                target = original.getOutputStream();
+                if (gzip) {
+                    crc = new CRC32();
+                    // Header: magic number, deflate method, no flags, no modification time, no extra flags, unknown OS
+                    target.write(new byte[] {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff});
+                }
+            } else {
+                if (response.contentLength >= 0) {
+                    original.setContentLengthLong(response.contentLength);
+                }
+                target = original.getOutputStream();
+            }
+            if (pendingCount > 0) {
+                writeThrough(pending, 0, pendingCount);
+            }
+            pending = null;
+            pendingCount = 0;
+        }
+
+        private void writeThrough(byte[] bytes, int offset, int length) throws IOException {
+            if (compressor == null) {
+                target.write(bytes, offset, length);
+                return;
+            }
+            if (crc != null) {
+                crc.update(bytes, offset, length);
+            }
+            Deflater deflater = compressor.deflater;
+            deflater.setInput(bytes, offset, length);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        private void deflate() throws IOException {
+            int count = compressor.deflater.deflate(compressor.buffer, 0, compressor.buffer.length);
+            if (count > 0) {
+                target.write(compressor.buffer, 0, count);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Held back bytes stay held back, so a flush does not decide about compression too early
+            if (target != null) {
+                if (compressor != null) {
+                    Deflater deflater = compressor.deflater;
+                    int count;
+                    while ((count = deflater.deflate(compressor.buffer, 0, compressor.buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+                        target.write(compressor.buffer, 0, count);
+                    }
+                }
+                target.flush();
+            }
+        }
+
+        void resetBuffer() {
+            pending = null;
+            pendingCount = 0;
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                // The whole body fits below the minimum size
+                HttpServletResponse original = (HttpServletResponse) response.getResponse();
+                original.setContentLength(pendingCount);
+                if (pendingCount > 0) {
+                    original.getOutputStream().write(pending, 0, pendingCount);
+                }
+                pending = null;
+                return;
+            }
+            if (compressor != null) {
+                try {
+                    Deflater deflater = compressor.deflater;
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        deflate();
+                    }
+                    if (crc != null) {
+                        writeIntLittleEndian((int) crc.getValue());
+                        writeIntLittleEndian((int) deflater.getBytesRead());
+                    }
+                } finally {
+                    release(compressor, gzip);
+                    compressor = null;
+                }
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        private void writeIntLittleEndian(int value) throws IOException {
+            target.write(new byte[] {(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+        }
+
+        @Override
+        public boolean isReady() {
+            return target == null || target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target == null) {
+                // The held back bytes were written blocking, and the rest is passed through as written
+                try {
+                    start(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            target.setWriteListener(writeListener);
+        }
+    }
+}
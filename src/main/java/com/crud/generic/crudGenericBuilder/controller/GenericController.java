@@ -1,14 +1,59 @@
 package com.crud.generic.crudGenericBuilder.controller;
 
+import com.crud.generic.crudGenericBuilder.async.CrudAsyncExecutor;
+import com.crud.generic.crudGenericBuilder.limit.EndpointLimit;
+import com.crud.generic.crudGenericBuilder.limit.EndpointLimiter;
+import com.crud.generic.crudGenericBuilder.limit.LimitExceededException;
+import com.crud.generic.crudGenericBuilder.metrics.CrudMetrics;
+import com.crud.generic.crudGenericBuilder.metrics.CrudMetricsFactory;
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
 import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.MultiGetResult;
+import com.crud.generic.crudGenericBuilder.model.Timestamped;
+import com.crud.generic.crudGenericBuilder.model.Versioned;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.query.FilterOperator;
 import com.crud.generic.crudGenericBuilder.service.GenericService;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Generic controller for CRUD operations.
@@ -20,46 +65,642 @@ import java.util.Optional;
  */
 public abstract class GenericController<T extends BaseEntity<ID>, ID extends Serializable> {
 
+    private static final int DEFAULT_QUERY_LIMIT = 20;
+
     protected final GenericService<T, ID> service;
 
+    protected ObjectMapper objectMapper = new ObjectMapper();
+
+    protected CrudMetrics metrics = CrudMetrics.noop();
+
+    protected CrudAsyncExecutor asyncExecutor = CrudAsyncExecutor.shared();
+
+    protected EndpointLimiter limiter;
+
     public GenericController(GenericService<T, ID> service) {
         this.service = service;
+        // The entity class only names the limit properties, which are applied once the environment is set
+        this.limiter = new EndpointLimiter(getClass(), null, null);
+    }
+
+    /**
+     * Sets the object mapper used by the endpoints that write the response body themselves.
+     * Defaults to a plain ObjectMapper when no mapper is available in the context.
+     *
+     * @param objectMapper the application's object mapper
+     */
+    @Autowired(required = false)
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Instruments the endpoints with the metrics created by the given factory.
+     * Called automatically when a CrudMetricsFactory bean exists.
+     *
+     * @param metricsFactory the factory of the controller metrics
+     */
+    @Autowired(required = false)
+    public void setMetricsFactory(CrudMetricsFactory metricsFactory) {
+        this.metrics = metricsFactory.create("controller", getEntityClass());
+    }
+
+    /**
+     * Applies the limits set with the crud.generic.limits properties of the entity on top of the
+     * {@link EndpointLimit} annotations of the controller, see {@link EndpointLimiter}.
+     * A controller whose entity class cannot be resolved, such as a generic intermediate controller,
+     * keeps the limits of its annotations.
+     *
+     * @param environment the environment holding the limit properties
+     */
+    @Autowired(required = false)
+    public void setEnvironment(Environment environment) {
+        Class<T> entityClass;
+        try {
+            entityClass = getEntityClass();
+        } catch (IllegalStateException e) {
+            return;
+        }
+        this.limiter = new EndpointLimiter(getClass(), entityClass.getSimpleName(), environment);
+    }
+
+    /**
+     * Sets the executor of the asynchronous endpoints.
+     * Defaults to the shared executor when none is available in the context.
+     *
+     * @param asyncExecutor the executor of the asynchronous endpoints
+     */
+    @Autowired(required = false)
+    public void setAsyncExecutor(CrudAsyncExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
     }
 
     public ResponseEntity<?> create(T entity) {
-        T savedEntity = service.save(entity);
-        return new ResponseEntity<>(savedEntity, HttpStatus.CREATED);
+        return limited(CrudOperation.SAVE, () -> {
+            T savedEntity = service.save(entity);
+            return new ResponseEntity<>(savedEntity, HttpStatus.CREATED);
+        });
+    }
+
+    public ResponseEntity<?> saveAll(List<T> entities) {
+        return limited(CrudOperation.SAVE_ALL, () -> {
+            List<T> savedEntities = service.saveAll(entities);
+            return new ResponseEntity<>(savedEntities, HttpStatus.CREATED);
+        });
     }
 
     public ResponseEntity<?> findById(ID id) {
-        Optional<T> entity = service.findById(id);
-        if (entity.isPresent()) {
+        return limited(CrudOperation.FIND_BY_ID, () -> {
+            Optional<T> entity = service.findById(id);
+            if (entity.isPresent()) {
+                return new ResponseEntity<>(entity.get(), HttpStatus.OK);
+            }
+            return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        });
+    }
+
+    /**
+     * Returns the entities of the given ids in the order of the ids, together with the ids that do not exist.
+     * The ids can be passed as a request parameter, for example {@code ?ids=3,1,2}, or as a JSON array in the body.
+     *
+     * @param ids the ids of the entities
+     * @return a {@link MultiGetResult}, or 400 if an id is missing or there are too many ids
+     */
+    public ResponseEntity<?> findAllById(List<ID> ids) {
+        return limited(CrudOperation.FIND_ALL_BY_ID, () -> {
+            try {
+                List<T> entities = service.findAllById(ids);
+                Set<ID> foundIds = entities.stream().map(BaseEntity::getId).collect(Collectors.toSet());
+                List<ID> missingIds = ids.stream().distinct().filter(id -> !foundIds.contains(id)).collect(Collectors.toList());
+                return new ResponseEntity<>(new MultiGetResult<>(entities, missingIds), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    public ResponseEntity<?> findAll() {
+        return limited(CrudOperation.FIND_ALL, () -> {
+            List<T> entities = service.findAll();
+            return new ResponseEntity<>(entities, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Returns only the requested fields of an entity, or the whole entity when no fields are requested.
+     *
+     * @param id the id of the entity
+     * @param fields the names of the fields to return, or null
+     * @return the entity or its requested fields
+     */
+    public ResponseEntity<?> findById(ID id, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return findById(id);
+        }
+        return limited(CrudOperation.FIND_BY_ID, () -> {
+            try {
+                return service.findById(id, fields)
+                        .<ResponseEntity<?>>map(values -> new ResponseEntity<>(values, HttpStatus.OK))
+                        .orElseGet(() -> new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND));
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * Returns only the requested fields of every entity, or the whole entities when no fields are requested.
+     *
+     * @param fields the names of the fields to return, or null
+     * @return the entities or their requested fields
+     */
+    public ResponseEntity<?> findAll(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return findAll();
+        }
+        return limited(CrudOperation.FIND_ALL, () -> {
+            try {
+                return new ResponseEntity<>(service.findAll(fields), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * Conditional variant of {@link #findById(Serializable)}.
+     * The response carries the entity's version as ETag when it implements Versioned, and its modification time
+     * as Last-Modified when it implements Timestamped. When the request's If-None-Match or If-Modified-Since
+     * header shows that the client already has this state, the response is 304 Not Modified without a body.
+     *
+     * @param id the id of the entity
+     * @param request the current request
+     * @return the entity, or 304 if it has not changed
+     */
+    public ResponseEntity<?> findById(ID id, WebRequest request) {
+        return limited(CrudOperation.FIND_BY_ID, () -> {
+            Optional<T> entity = service.findById(id);
+            if (entity.isEmpty()) {
+                return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+            }
+            if (request.checkNotModified(eTag(entity.get()), lastModified(entity.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             return new ResponseEntity<>(entity.get(), HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Returns the requested fields of an entity, or the whole entity with conditional request support
+     * when no fields are requested, see {@link #findById(Serializable, WebRequest)}.
+     *
+     * @param id the id of the entity
+     * @param fields the names of the fields to return, or null
+     * @param request the current request
+     * @return the entity or its requested fields
+     */
+    public ResponseEntity<?> findById(ID id, List<String> fields, WebRequest request) {
+        if (fields == null || fields.isEmpty()) {
+            return findById(id, request);
         }
-        return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        return findById(id, fields);
     }
 
-    public ResponseEntity<?> findAll() {
-        List<T> entities = service.findAll();
-        return new ResponseEntity<>(entities, HttpStatus.OK);
+    /**
+     * Conditional variant of {@link #findAll()}.
+     * The ETag is derived from one aggregate query over the table, see {@link GenericService#findAllVersion()}.
+     * When it matches the request's If-None-Match header, the response is 304 Not Modified and the entities are not read.
+     * Deleting an entity does not change the latest modification time, so no Last-Modified header is sent.
+     *
+     * @param request the current request
+     * @return the entities, or 304 if they have not changed
+     */
+    public ResponseEntity<?> findAll(WebRequest request) {
+        return limited(CrudOperation.FIND_ALL, () -> {
+            Optional<CollectionVersion> version = service.findAllVersion();
+            if (version.isPresent() && request.checkNotModified(version.get().toETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            return new ResponseEntity<>(service.findAll(), HttpStatus.OK);
+        });
     }
 
-    public ResponseEntity<?> deleteById(ID id) {
-        Optional<T> entity = service.findById(id);
-        if (entity.isPresent()) {
-            service.deleteById(id);
-            return new ResponseEntity<>("Entity with id " + id + " deleted successfully", HttpStatus.OK);
+    /**
+     * Returns the requested fields of every entity, or the whole entities with conditional request support
+     * when no fields are requested, see {@link #findAll(WebRequest)}.
+     *
+     * @param fields the names of the fields to return, or null
+     * @param request the current request
+     * @return the entities or their requested fields
+     */
+    public ResponseEntity<?> findAll(List<String> fields, WebRequest request) {
+        if (fields == null || fields.isEmpty()) {
+            return findAll(request);
+        }
+        return findAll(fields);
+    }
+
+    /**
+     * Returns one page of entities using offset pagination.
+     *
+     * @param page the zero-based page index
+     * @param size the requested page size, capped by the service
+     * @return the page of entities
+     */
+    public ResponseEntity<?> findPage(int page, int size) {
+        return limited(CrudOperation.FIND_PAGE, () -> {
+            if (page < 0 || size < 1) {
+                return new ResponseEntity<>("Page must not be negative and size must be at least 1", HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(service.findAll(PageRequest.of(page, size)), HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Returns the entities following the given cursor using keyset pagination.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the requested page size, capped by the service
+     * @return the page of entities and the cursor of the next page
+     */
+    public ResponseEntity<?> findAllAfter(ID after, int limit) {
+        return limited(CrudOperation.FIND_ALL_AFTER, () -> {
+            if (limit < 1) {
+                return new ResponseEntity<>("Limit must be at least 1", HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(service.findAllAfter(after, limit), HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Returns the entities matching the filters given as request parameters, for example
+     * {@code ?name.eq=x&createdAt.ge=2024-01-01&sort=-id&limit=50}. Each other parameter is a filter named
+     * attribute.operator, see {@link FilterOperator}. "sort" lists the sort attributes separated by commas,
+     * each prefixed with "-" for descending order, and "limit" caps the number of entities, 20 by default.
+     * With "page", the zero-based page number, a page of "limit" entities is returned together with its total.
+     *
+     * @param parameters the request parameters
+     * @return the matching entities or page, or 400 if a parameter is invalid
+     */
+    public ResponseEntity<?> query(MultiValueMap<String, String> parameters) {
+        return limited(CrudOperation.FIND_FILTERED, () -> {
+            try {
+                List<Filter> filters = new ArrayList<>();
+                Sort sort = Sort.unsorted();
+                int limit = DEFAULT_QUERY_LIMIT;
+                Integer page = null;
+                for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+                    for (String value : parameter.getValue()) {
+                        switch (parameter.getKey()) {
+                            case "sort":
+                                sort = sort.and(parseSort(value));
+                                break;
+                            case "limit":
+                                limit = Integer.parseInt(value);
+                                break;
+                            case "page":
+                                page = Integer.parseInt(value);
+                                break;
+                            default:
+                                filters.add(Filter.parse(parameter.getKey(), value));
+                        }
+                    }
+                }
+                if (limit < 1) {
+                    return new ResponseEntity<>("Limit must be at least 1", HttpStatus.BAD_REQUEST);
+                }
+                if (page != null) {
+                    if (page < 0) {
+                        return new ResponseEntity<>("Page must not be negative", HttpStatus.BAD_REQUEST);
+                    }
+                    return new ResponseEntity<>(service.findAll(filters, PageRequest.of(page, limit, sort)), HttpStatus.OK);
+                }
+                return new ResponseEntity<>(service.findAll(filters, sort, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * Counts the entities matching the filters given as request parameters, named attribute.operator
+     * as for {@link #query(MultiValueMap)}. Without filters the count follows the service's count strategy
+     * and may be approximate.
+     *
+     * @param parameters the request parameters
+     * @return the number of matching entities, or 400 if a parameter is invalid
+     */
+    public ResponseEntity<?> count(MultiValueMap<String, String> parameters) {
+        return limited(CrudOperation.COUNT, () -> {
+            try {
+                List<Filter> filters = new ArrayList<>();
+                for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+                    for (String value : parameter.getValue()) {
+                        filters.add(Filter.parse(parameter.getKey(), value));
+                    }
+                }
+                return new ResponseEntity<>(service.count(filters), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    private static Sort parseSort(String value) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String property : value.split(",")) {
+            String name = property.trim();
+            if (name.startsWith("-")) {
+                orders.add(Sort.Order.desc(name.substring(1)));
+            } else if (!name.isEmpty()) {
+                orders.add(Sort.Order.asc(name.startsWith("+") ? name.substring(1) : name));
+            }
         }
-        return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        return Sort.by(orders);
     }
 
+    /**
+     * Streams every entity to the response as it is read from the database,
+     * either as a single JSON array or as newline-delimited JSON (NDJSON).
+     * Memory use stays constant however large the table is.
+     * A concurrency limit of streamAll holds its permit until the response is written.
+     *
+     * @param ndjson true to write one JSON document per line instead of a JSON array
+     * @return the streaming response, or 429 if a limit rejected the call
+     */
+    public ResponseEntity<StreamingResponseBody> streamAll(boolean ndjson) {
+        try {
+            limiter.acquire(CrudOperation.STREAM_ALL);
+        } catch (LimitExceededException e) {
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return rejected(e).contentType(MediaType.TEXT_PLAIN).body(outputStream -> outputStream.write(message));
+        }
+        // The body is written on an MVC async thread, which does not carry the tenant of the request
+        String tenantId = TenantContext.getTenantId();
+        StreamingResponseBody body = outputStream -> {
+            try {
+                TenantContext.callAs(tenantId, () -> {
+                    metrics.record(CrudOperation.STREAM_ALL, () -> writeAll(outputStream, ndjson));
+                    return null;
+                });
+            } finally {
+                limiter.release(CrudOperation.STREAM_ALL);
+            }
+        };
+        MediaType contentType = ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private void writeAll(OutputStream outputStream, boolean ndjson) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            service.streamAll(entity -> {
+                try {
+                    generator.writeObject(entity);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ResponseEntity<?> deleteById(ID id) {
+        return limited(CrudOperation.DELETE_BY_ID, () -> {
+            if (service.deleteIfExists(id)) {
+                return new ResponseEntity<>("Entity with id " + id + " deleted successfully", HttpStatus.OK);
+            }
+            return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        });
+    }
+
+    /**
+     * Updates an existing entity. A versioned entity is only updated if the version it carries is still current,
+     * otherwise the response is 409 Conflict.
+     *
+     * @param id the id of the entity
+     * @param entity the new state of the entity
+     * @return the updated entity
+     */
     public ResponseEntity<?> update(ID id, T entity) {
-        Optional<T> existingEntity = service.findById(id);
-        if (existingEntity.isPresent()) {
-            entity.setId(id);
-            T updatedEntity = service.save(entity);
-            return new ResponseEntity<>(updatedEntity, HttpStatus.OK);
+        return limited(CrudOperation.UPDATE, () -> {
+            Optional<T> updatedEntity;
+            try {
+                updatedEntity = service.updateIfExists(id, entity);
+            } catch (OptimisticLockException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+            }
+            if (updatedEntity.isPresent()) {
+                return new ResponseEntity<>(updatedEntity.get(), HttpStatus.OK);
+            }
+            return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        });
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to an entity without reading it first.
+     * Only the members present in the patch are written. Members of embedded objects are merged one by one,
+     * and null clears an attribute, or all attributes of an embedded object. The values are read into an entity instance with the object mapper,
+     * so they get the same types as in a full update. A version member makes the update conditional, see {@link #update(Serializable, BaseEntity)}.
+     *
+     * @param id the id of the entity
+     * @param patch the members to write
+     * @return 204 if the entity was updated, 404 if it does not exist, 409 if its version changed, 400 if the patch is invalid
+     */
+    public ResponseEntity<?> patch(ID id, Map<String, Object> patch) {
+        return limited(CrudOperation.PATCH, () -> {
+            try {
+                BeanWrapper values = PropertyAccessorFactory.forBeanPropertyAccess(objectMapper.convertValue(patch, getEntityClass()));
+                Map<String, Object> changes = new LinkedHashMap<>();
+                collectChanges(patch, "", values, changes);
+                if (service.patch(id, changes)) {
+                    return ResponseEntity.noContent().build();
+                }
+                return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+            } catch (IllegalArgumentException | BeansException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            } catch (OptimisticLockException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+            }
+        });
+    }
+
+    private static void collectChanges(Map<?, ?> patch, String prefix, BeanWrapper values, Map<String, Object> changes) {
+        for (Map.Entry<?, ?> member : patch.entrySet()) {
+            String path = prefix + member.getKey();
+            Class<?> type = values.getPropertyType(path);
+            if (type == null) {
+                // The object mapper may ignore unknown members, so they are rejected here
+                throw new IllegalArgumentException("Unknown attribute '" + path + "'");
+            }
+            if (member.getValue() instanceof Map && !Map.class.isAssignableFrom(type)) {
+                collectChanges((Map<?, ?>) member.getValue(), path + ".", values, changes);
+            } else {
+                changes.put(path, values.getPropertyValue(path));
+            }
+        }
+    }
+
+    public ResponseEntity<?> updateAll(List<T> entities) {
+        return limited(CrudOperation.UPDATE_ALL, () -> {
+            try {
+                List<T> updatedEntities = service.updateAll(entities);
+                return new ResponseEntity<>(updatedEntities, HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            } catch (EntityNotFoundException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+            } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+            }
+        });
+    }
+
+    public ResponseEntity<?> deleteAllById(List<ID> ids) {
+        return limited(CrudOperation.DELETE_ALL_BY_ID, () -> {
+            service.deleteAllById(ids);
+            // The batch delete does not report how many of the ids existed
+            return new ResponseEntity<>("Entities with the " + ids.size() + " given ids deleted, missing ids were ignored", HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #create(BaseEntity)}.
+     * The servlet thread is released while the operation runs on the async executor, and the response is written when the future completes.
+     * When the executor has no room for the operation, the response is 503 Service Unavailable with a Retry-After header.
+     *
+     * @param entity the entity to create
+     * @return the future response
+     */
+    public CompletableFuture<ResponseEntity<?>> createAsync(T entity) {
+        return async(CrudOperation.SAVE, () -> create(entity));
+    }
+
+    /**
+     * Asynchronous variant of {@link #findById(Serializable)}.
+     *
+     * @param id the id of the entity
+     * @return the future response
+     */
+    public CompletableFuture<ResponseEntity<?>> findByIdAsync(ID id) {
+        return async(CrudOperation.FIND_BY_ID, () -> findById(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #findAll()}.
+     *
+     * @return the future response
+     */
+    public CompletableFuture<ResponseEntity<?>> findAllAsync() {
+        return async(CrudOperation.FIND_ALL, this::findAll);
+    }
+
+    /**
+     * Asynchronous variant of {@link #update(Serializable, BaseEntity)}.
+     *
+     * @param id the id of the entity
+     * @param entity the new state of the entity
+     * @return the future response
+     */
+    public CompletableFuture<ResponseEntity<?>> updateAsync(ID id, T entity) {
+        return async(CrudOperation.UPDATE, () -> update(id, entity));
+    }
+
+    /**
+     * Asynchronous variant of {@link #deleteById(Serializable)}.
+     *
+     * @param id the id of the entity
+     * @return the future response
+     */
+    public CompletableFuture<ResponseEntity<?>> deleteByIdAsync(ID id) {
+        return async(CrudOperation.DELETE_BY_ID, () -> deleteById(id));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> async(CrudOperation operation, Supplier<ResponseEntity<?>> call) {
+        return asyncExecutor.supply(call).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (!(cause instanceof RejectedExecutionException)) {
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            }
+            metrics.recordRejected(operation, "queue");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body("The server is busy, retry later");
+        });
+    }
+
+    /**
+     * Runs an operation within its limits and records it, or rejects it with 429 Too Many Requests
+     * when it has reached a limit, see {@link EndpointLimit}.
+     */
+    private ResponseEntity<?> limited(CrudOperation operation, Supplier<ResponseEntity<?>> call) {
+        try {
+            limiter.acquire(operation);
+        } catch (LimitExceededException e) {
+            return rejected(e).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+        try {
+            return metrics.record(operation, call);
+        } finally {
+            limiter.release(operation);
+        }
+    }
+
+    private ResponseEntity.BodyBuilder rejected(LimitExceededException e) {
+        metrics.recordRejected(e.getOperation(), e.getLimit());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
+
+    /**
+     * Returns the weak ETag of an entity, built from its version.
+     *
+     * @param entity the entity
+     * @return the ETag header value, or null if the entity is not versioned
+     */
+    protected String eTag(T entity) {
+        if (entity instanceof Versioned && ((Versioned) entity).getVersion() != null) {
+            return "W/\"" + ((Versioned) entity).getVersion() + "\"";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the last modification time of an entity in milliseconds.
+     *
+     * @param entity the entity
+     * @return the modification time, or -1 if the entity is not timestamped
+     */
+    protected long lastModified(T entity) {
+        if (entity instanceof Timestamped && ((Timestamped) entity).getLastModified() != null) {
+            return ((Timestamped) entity).getLastModified().toEpochMilli();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the entity class, resolved from the type arguments of the subclass.
+     *
+     * @return the entity class
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<T> getEntityClass() {
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), GenericController.class);
+        if (typeArguments == null || typeArguments[0] == null) {
+            throw new IllegalStateException("Unable to resolve the entity type of " + getClass().getName());
         }
-        return new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND);
+        return (Class<T>) typeArguments[0];
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.service.ReactiveGenericService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Generic WebFlux controller for CRUD operations on a ReactiveGenericService.
+ * Subclasses add the request mappings, like subclasses of GenericController do.
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public abstract class ReactiveGenericController<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    protected final ReactiveGenericService<T, ID> service;
+
+    public ReactiveGenericController(ReactiveGenericService<T, ID> service) {
+        this.service = service;
+    }
+
+    public Mono<ResponseEntity<?>> create(T entity) {
+        return service.save(entity).map(savedEntity -> new ResponseEntity<>(savedEntity, HttpStatus.CREATED));
+    }
+
+    public Mono<ResponseEntity<?>> saveAll(List<T> entities) {
+        return service.saveAll(entities).collectList()
+                .map(savedEntities -> new ResponseEntity<>(savedEntities, HttpStatus.CREATED));
+    }
+
+    public Mono<ResponseEntity<?>> findById(ID id) {
+        return service.findById(id)
+                .<ResponseEntity<?>>map(entity -> new ResponseEntity<>(entity, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Streams every entity in id order. Requested as application/x-ndjson, each entity is written
+     * as soon as it is read, and the database is only read as fast as the client consumes the response.
+     *
+     * @return the entities
+     */
+    public Flux<T> findAll() {
+        return service.findAll();
+    }
+
+    /**
+     * Returns the entities following the given cursor using keyset pagination.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the requested page size, capped by the service
+     * @return the page of entities and the cursor of the next page
+     */
+    public Mono<ResponseEntity<?>> findAllAfter(ID after, int limit) {
+        if (limit < 1) {
+            return Mono.just(new ResponseEntity<>("Limit must be at least 1", HttpStatus.BAD_REQUEST));
+        }
+        return service.findAllAfter(after, limit).map(page -> new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    public Mono<ResponseEntity<?>> deleteById(ID id) {
+        return service.deleteIfExists(id).map(deleted -> deleted
+                ? new ResponseEntity<>("Entity with id " + id + " deleted successfully", HttpStatus.OK)
+                : new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND));
+    }
+
+    public Mono<ResponseEntity<?>> update(ID id, T entity) {
+        return service.updateIfExists(id, entity)
+                .<ResponseEntity<?>>map(updatedEntity -> new ResponseEntity<>(updatedEntity, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>("Entity with id " + id + " not found", HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,82 @@
+package com.crud.generic.crudGenericBuilder.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Auto-configuration of the read replicas, enabled with crud.generic.replicas.urls.
+ * The primary is the spring.datasource one, a Hikari pool configured by spring.datasource.hikari like Spring Boot's.
+ * The replicas are Hikari pools for the JDBC urls of crud.generic.replicas.urls, with crud.generic.replicas.username
+ * and crud.generic.replicas.password, the primary's by default. Their pools are configured by crud.generic.replicas.hikari,
+ * and each replica's by crud.generic.replicas.replica-&lt;index&gt;.hikari, which takes precedence.
+ * Reads of the same request or session stay on the primary for crud.generic.replicas.read-your-writes-ms
+ * after a read-write transaction commits.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(name = "crud.generic.replicas.urls")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class CrudReadReplicaAutoConfiguration {
+
+    private static final String REPLICAS_PREFIX = "crud.generic.replicas.";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource crudPrimaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            primary.setPoolName(properties.getName());
+        }
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource crudRoutingDataSource(HikariDataSource crudPrimaryDataSource,
+            DataSourceProperties properties, Environment environment,
+            @Value("${crud.generic.replicas.urls}") String[] urls,
+            @Value("${crud.generic.replicas.username:#{null}}") String username,
+            @Value("${crud.generic.replicas.password:#{null}}") String password,
+            @Value("${crud.generic.replicas.read-your-writes-ms:0}") long readYourWritesMillis) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> replicas = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls[i])
+                    .username(username != null ? username : properties.determineUsername())
+                    .password(password != null ? password : properties.determinePassword())
+                    .build();
+            replica.setPoolName(ReadWriteRoutingDataSource.REPLICA + i);
+            binder.bind(REPLICAS_PREFIX + "hikari", Bindable.ofInstance(replica));
+            binder.bind(REPLICAS_PREFIX + ReadWriteRoutingDataSource.REPLICA + i + ".hikari", Bindable.ofInstance(replica));
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(crudPrimaryDataSource, replicas, Duration.ofMillis(readYourWritesMillis));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource crudRoutingDataSource) {
+        // Connections are fetched on the first statement, once the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(crudRoutingDataSource);
+    }
+}
@@ -0,0 +1,131 @@
+package com.crud.generic.crudGenericBuilder.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends the connections of read-only transactions to the read replicas, in turn,
+ * and every other connection to the primary.
+ * <p>
+ * The transaction is only known to be read-only after it began, so this DataSource must be used
+ * through a {@link LazyConnectionDataSourceProxy}, which fetches the connection on the first statement.
+ * Replicas lag behind the primary. With a read-your-writes duration, the reads of the same HTTP session,
+ * or of the same request when it has no session, run on the primary for that long after one of its read-write
+ * transactions commits, so clients read back what they just saved. Other clients, later requests without a session
+ * and work outside of requests keep reading from the replicas and may not see the write until it has replicated.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica-";
+
+    private static final String PRIMARY_UNTIL = ReadWriteRoutingDataSource.class.getName() + ".PRIMARY_UNTIL";
+
+    private final List<DataSource> targets = new ArrayList<>();
+    private final int replicaCount;
+    private final long readYourWritesMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Constructor that takes the primary and the read replicas.
+     *
+     * @param primary the DataSource of the primary
+     * @param replicas the DataSources of the read replicas; read-only transactions use the primary when empty
+     * @param readYourWrites how long the reads of a session or request stay on the primary after one of its read-write transactions commits, or zero
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWrites) {
+        if (readYourWrites.isNegative()) {
+            throw new IllegalArgumentException("Read-your-writes duration must not be negative");
+        }
+        Map<Object, Object> dataSources = new HashMap<>();
+        dataSources.put(PRIMARY, primary);
+        targets.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            dataSources.put(REPLICA + i, replicas.get(i));
+            targets.add(replicas.get(i));
+        }
+        this.replicaCount = replicas.size();
+        this.readYourWritesMillis = readYourWrites.toMillis();
+        setTargetDataSources(dataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            stickToPrimaryAfterCommit();
+            return PRIMARY;
+        }
+        if (replicaCount == 0 || isStuckToPrimary()) {
+            return PRIMARY;
+        }
+        return REPLICA + Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+
+    private boolean isStuckToPrimary() {
+        if (readYourWritesMillis == 0) {
+            return false;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object until = attributes.getAttribute(PRIMARY_UNTIL, scope(attributes));
+        return until != null && System.currentTimeMillis() < (Long) until;
+    }
+
+    private void stickToPrimaryAfterCommit() {
+        if (readYourWritesMillis == 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Wall clock time, since a session may be shared by several instances of the application
+                attributes.setAttribute(PRIMARY_UNTIL, System.currentTimeMillis() + readYourWritesMillis, scope(attributes));
+            }
+        });
+    }
+
+    /**
+     * Keeps the read-your-writes deadline in the HTTP session if the request has one, and otherwise in the request,
+     * without creating a session.
+     */
+    private static int scope(RequestAttributes attributes) {
+        if (attributes instanceof ServletRequestAttributes
+                && ((ServletRequestAttributes) attributes).getRequest().getSession(false) != null) {
+            return RequestAttributes.SCOPE_SESSION;
+        }
+        return RequestAttributes.SCOPE_REQUEST;
+    }
+
+    /**
+     * Closes the primary and the replicas that can be closed, such as connection pools.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : targets) {
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+}
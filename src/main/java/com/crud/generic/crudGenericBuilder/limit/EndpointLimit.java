@@ -0,0 +1,48 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the calls of operations of a GenericController subclass. Calls over a limit are rejected
+ * with 429 Too Many Requests at once, before they reach the service or take a database connection.
+ * Each operation gets its own limits, they are not shared between the listed operations.
+ * <p>
+ * The limits can be set or overridden with properties, see {@link EndpointLimiter}.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(EndpointLimits.class)
+public @interface EndpointLimit {
+
+    /**
+     * The limited operations, every operation when empty. An annotation listing an operation
+     * takes precedence over one without operations.
+     */
+    CrudOperation[] operations() default {};
+
+    /**
+     * The sustained rate of calls per second, unlimited when 0.
+     */
+    double permitsPerSecond() default 0;
+
+    /**
+     * How many calls can be made at once after a quiet period, the rate rounded up when 0.
+     */
+    int burst() default 0;
+
+    /**
+     * The maximum number of calls running at the same time, unlimited when 0.
+     * Meant for the operations that hold a connection for long, such as findAll and streamAll.
+     */
+    int maxConcurrentCalls() default 0;
+}
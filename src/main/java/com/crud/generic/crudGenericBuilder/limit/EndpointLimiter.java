@@ -0,0 +1,116 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rate limits and concurrency bulkheads of the operations of one controller.
+ * <p>
+ * The limits come from the {@link EndpointLimit} annotations of the controller class, and are overridden by the properties
+ * crud.generic.limits.&lt;Entity&gt;.&lt;operation&gt;.permits-per-second, burst and max-concurrent-calls, where Entity is
+ * the simple name of the entity class and operation the operation tag, such as findAll. A value of 0 removes a limit.
+ * <p>
+ * The limiters are held in arrays indexed by operation, so an unlimited operation costs one array read.
+ * Rejections never wait: a call over a limit fails at once with {@link LimitExceededException}.
+ */
+public class EndpointLimiter {
+
+    private static final String RATE = "rate";
+    private static final String CONCURRENCY = "concurrency";
+
+    private final TokenBucket[] buckets = new TokenBucket[CrudOperation.values().length];
+    private final Semaphore[] bulkheads = new Semaphore[CrudOperation.values().length];
+
+    /**
+     * Constructor that resolves the limits of a controller.
+     *
+     * @param controllerClass the controller class, whose {@link EndpointLimit} annotations are read
+     * @param entityName the simple name of the entity class, which names the properties, or null without an environment
+     * @param environment the environment holding the properties, or null to use the annotations only
+     */
+    public EndpointLimiter(Class<?> controllerClass, String entityName, Environment environment) {
+        Set<EndpointLimit> annotations = AnnotatedElementUtils.findMergedRepeatableAnnotations(controllerClass, EndpointLimit.class);
+        for (CrudOperation operation : CrudOperation.values()) {
+            EndpointLimit annotation = findAnnotation(annotations, operation);
+            String prefix = "crud.generic.limits." + entityName + "." + operation.getTagValue() + ".";
+            double permitsPerSecond = property(environment, prefix + "permits-per-second", Double.class,
+                    annotation == null ? 0 : annotation.permitsPerSecond());
+            int burst = property(environment, prefix + "burst", Integer.class, annotation == null ? 0 : annotation.burst());
+            int maxConcurrentCalls = property(environment, prefix + "max-concurrent-calls", Integer.class,
+                    annotation == null ? 0 : annotation.maxConcurrentCalls());
+            if (permitsPerSecond > 0) {
+                buckets[operation.ordinal()] = new TokenBucket(permitsPerSecond, burst > 0 ? burst : (int) Math.ceil(permitsPerSecond));
+            }
+            if (maxConcurrentCalls > 0) {
+                bulkheads[operation.ordinal()] = new Semaphore(maxConcurrentCalls);
+            }
+        }
+    }
+
+    private static EndpointLimit findAnnotation(Set<EndpointLimit> annotations, CrudOperation operation) {
+        EndpointLimit everyOperation = null;
+        for (EndpointLimit annotation : annotations) {
+            if (annotation.operations().length == 0) {
+                everyOperation = annotation;
+            }
+            for (CrudOperation limited : annotation.operations()) {
+                if (limited == operation) {
+                    return annotation;
+                }
+            }
+        }
+        return everyOperation;
+    }
+
+    private static <V> V property(Environment environment, String key, Class<V> type, V defaultValue) {
+        return environment == null ? defaultValue : environment.getProperty(key, type, defaultValue);
+    }
+
+    /**
+     * Takes a permit of the operation, which must be released with {@link #release(CrudOperation)} when the call completes.
+     *
+     * @param operation the called operation
+     * @throws LimitExceededException if the operation has reached its concurrency or rate limit
+     */
+    public void acquire(CrudOperation operation) {
+        Semaphore bulkhead = bulkheads[operation.ordinal()];
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            throw new LimitExceededException(operation, CONCURRENCY, 1);
+        }
+        TokenBucket bucket = buckets[operation.ordinal()];
+        if (bucket != null && !bucket.tryAcquire()) {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            long retryAfterSeconds = (bucket.nanosUntilNextPermit() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            throw new LimitExceededException(operation, RATE, Math.max(1, retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Releases the permit taken by {@link #acquire(CrudOperation)}.
+     *
+     * @param operation the completed operation
+     */
+    public void release(CrudOperation operation) {
+        Semaphore bulkhead = bulkheads[operation.ordinal()];
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Checks whether an operation has a rate limit or a concurrency limit.
+     *
+     * @param operation the operation
+     * @return true if calls of the operation can be rejected
+     */
+    public boolean isLimited(CrudOperation operation) {
+        return buckets[operation.ordinal()] != null || bulkheads[operation.ordinal()] != null;
+    }
+}
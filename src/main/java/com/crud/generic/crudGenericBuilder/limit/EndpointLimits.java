@@ -0,0 +1,20 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container of the {@link EndpointLimit} annotations of a controller.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointLimits {
+
+    EndpointLimit[] value();
+}
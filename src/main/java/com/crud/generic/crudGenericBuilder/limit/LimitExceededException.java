@@ -0,0 +1,43 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+
+/**
+ * Thrown when a call is rejected by a limit of {@link EndpointLimiter}.
+ * It carries no stack trace, since rejections are frequent exactly when the service is overloaded.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private final CrudOperation operation;
+    private final String limit;
+    private final long retryAfterSeconds;
+
+    public LimitExceededException(CrudOperation operation, String limit, long retryAfterSeconds) {
+        super("Too many " + operation.getTagValue() + " calls, " + limit + " limit exceeded", null, false, false);
+        this.operation = operation;
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public CrudOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the limit that rejected the call.
+     *
+     * @return "rate" or "concurrency"
+     */
+    public String getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns how long the client should wait before retrying, for the Retry-After header.
+     *
+     * @return the wait in seconds, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
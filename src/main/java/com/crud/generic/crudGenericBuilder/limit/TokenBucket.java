@@ -0,0 +1,72 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket that refills at a fixed rate up to a burst capacity.
+ * <p>
+ * The bucket is kept as a single timestamp, the time at which it would be full again, which
+ * {@link #tryAcquire()} advances by one permit interval with a compare-and-set. A rejected call writes nothing,
+ * so callers hammering an exhausted bucket only read a shared field.
+ */
+public class TokenBucket {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final AtomicLong fullAt;
+
+    /**
+     * Constructor that takes the rate and the burst capacity. The bucket starts full.
+     *
+     * @param permitsPerSecond the rate at which permits are added
+     * @param burst the maximum number of permits that can be taken at once
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+        this.nanosPerPermit = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = Math.multiplyExact(nanosPerPermit, (long) burst);
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Takes a permit if one is available, without waiting.
+     *
+     * @return true if a permit was taken
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerPermit;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns how long until the next permit is available.
+     *
+     * @return the wait in nanoseconds, 0 if a permit is available now
+     */
+    public long nanosUntilNextPermit() {
+        long now = clock.getAsLong();
+        return Math.max(0, Math.max(fullAt.get(), now) + nanosPerPermit - now - burstNanos);
+    }
+}
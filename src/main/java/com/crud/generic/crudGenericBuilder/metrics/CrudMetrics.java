@@ -0,0 +1,74 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+
+import java.util.function.Supplier;
+
+/**
+ * Records the latency, errors and result sizes of the CRUD operations of one layer for one entity type.
+ * Instances are created by a {@link CrudMetricsFactory}; without one, {@link #noop()} is used.
+ */
+public interface CrudMetrics {
+
+    /**
+     * Runs the call, recording its duration and any exception it throws.
+     *
+     * @param operation the operation being performed
+     * @param call the call performing the operation
+     * @return the result of the call
+     */
+    <R> R record(CrudOperation operation, Supplier<R> call);
+
+    /**
+     * Runs the call, recording its duration and any exception it throws.
+     *
+     * @param operation the operation being performed
+     * @param call the call performing the operation
+     */
+    default void record(CrudOperation operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records how many entities an operation read or wrote.
+     *
+     * @param operation the operation that was performed
+     * @param rows the number of entities
+     */
+    void recordRows(CrudOperation operation, long rows);
+
+    /**
+     * Records a call that a limit rejected before it ran.
+     *
+     * @param operation the rejected operation
+     * @param limit the limit that rejected the call, such as "rate", "concurrency" or "queue"
+     */
+    void recordRejected(CrudOperation operation, String limit);
+
+    /**
+     * Publishes the statistics of the entity cache of the service.
+     *
+     * @param entityCache the entity cache to monitor
+     */
+    void monitor(EntityCache<?, ?> entityCache);
+
+    /**
+     * Publishes how many findById loads of the service were run, collapsed and timed out.
+     *
+     * @param singleFlight the single-flight loader to monitor
+     */
+    void monitor(SingleFlight<?, ?> singleFlight);
+
+    /**
+     * Returns metrics that record nothing.
+     *
+     * @return the no-op metrics
+     */
+    static CrudMetrics noop() {
+        return NoopCrudMetrics.INSTANCE;
+    }
+}
@@ -0,0 +1,24 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration that instruments the generic services and controllers
+ * when Micrometer is on the classpath and a MeterRegistry bean exists.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+public class CrudMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CrudMetricsFactory crudMetricsFactory(MeterRegistry registry) {
+        return new MicrometerCrudMetricsFactory(registry);
+    }
+}
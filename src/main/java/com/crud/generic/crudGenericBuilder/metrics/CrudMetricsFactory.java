@@ -0,0 +1,17 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+/**
+ * Creates the {@link CrudMetrics} of each generic service and controller.
+ * When a bean of this type exists, GenericServiceImpl and GenericController subclasses pick it up automatically.
+ */
+public interface CrudMetricsFactory {
+
+    /**
+     * Creates the metrics of one layer for one entity type.
+     *
+     * @param layer the layer, "service" or "controller"
+     * @param entityType the entity type
+     * @return the metrics
+     */
+    CrudMetrics create(String layer, Class<?> entityType);
+}
@@ -0,0 +1,43 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+/**
+ * The generic CRUD operations recorded by {@link CrudMetrics}.
+ */
+public enum CrudOperation {
+
+    SAVE("save"),
+    SAVE_ALL("saveAll"),
+    INSERT_ALL("insertAll"),
+    UPDATE("update"),
+    UPDATE_ALL("updateAll"),
+    PATCH("patch"),
+    FIND_BY_ID("findById"),
+    FIND_ALL_BY_ID("findAllById"),
+    FIND_ALL("findAll"),
+    FIND_ALL_VERSION("findAllVersion"),
+    FIND_PAGE("findPage"),
+    FIND_ALL_AFTER("findAllAfter"),
+    FIND_FILTERED("findFiltered"),
+    STREAM_ALL("streamAll"),
+    FIND_CHUNK_STARTS("findChunkStarts"),
+    DELETE("delete"),
+    DELETE_BY_ID("deleteById"),
+    DELETE_ALL_BY_ID("deleteAllById"),
+    COUNT("count"),
+    FLUSH("flush");
+
+    private final String tagValue;
+
+    CrudOperation(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /**
+     * Returns the value of the operation tag of the recorded metrics.
+     *
+     * @return the operation name
+     */
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,126 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * CrudMetrics backed by Micrometer. The meters are tagged with the entity type, layer and operation:
+ * <ul>
+ *     <li>crud.operation - timer of every call, with p50 and p99</li>
+ *     <li>crud.operation.errors - counter of the calls that threw an exception, also tagged with the exception</li>
+ *     <li>crud.operation.rejected - counter of the calls rejected by a rate or concurrency limit, also tagged with the limit</li>
+ *     <li>crud.operation.rows - distribution of the number of entities read or written, with p50 and p99</li>
+ *     <li>crud.cache.hits, crud.cache.misses, crud.cache.evictions and crud.cache.size - entity cache statistics</li>
+ *     <li>crud.singleflight.loads, crud.singleflight.collapsed and crud.singleflight.timeouts - collapsed findById loads</li>
+ * </ul>
+ * Meters are registered on first use and then held in arrays indexed by operation,
+ * so recording a call does not look up or allocate meters.
+ */
+class MicrometerCrudMetrics implements CrudMetrics {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(CrudOperation.values().length);
+    private final AtomicReferenceArray<DistributionSummary> rows = new AtomicReferenceArray<>(CrudOperation.values().length);
+
+    MicrometerCrudMetrics(MeterRegistry registry, String layer, String entity) {
+        this.registry = registry;
+        this.tags = Tags.of("entity", entity, "layer", layer);
+    }
+
+    @Override
+    public <R> R record(CrudOperation operation, Supplier<R> call) {
+        long start = registry.config().clock().monotonicTime();
+        try {
+            return call.get();
+        } catch (RuntimeException | Error e) {
+            Counter.builder("crud.operation.errors")
+                    .tags(tags)
+                    .tag("operation", operation.getTagValue())
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            timer(operation).record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void recordRows(CrudOperation operation, long rowCount) {
+        DistributionSummary summary = rows.get(operation.ordinal());
+        if (summary == null) {
+            // Registration is idempotent, so a racing thread registering the same meter gets the same instance
+            summary = DistributionSummary.builder("crud.operation.rows")
+                    .tags(tags)
+                    .tag("operation", operation.getTagValue())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            rows.set(operation.ordinal(), summary);
+        }
+        summary.record(rowCount);
+    }
+
+    @Override
+    public void recordRejected(CrudOperation operation, String limit) {
+        Counter.builder("crud.operation.rejected")
+                .tags(tags)
+                .tag("operation", operation.getTagValue())
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void monitor(EntityCache<?, ?> entityCache) {
+        FunctionCounter.builder("crud.cache.hits", entityCache, cache -> cache.stats().getHitCount())
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("crud.cache.misses", entityCache, cache -> cache.stats().getMissCount())
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("crud.cache.evictions", entityCache, cache -> cache.stats().getEvictionCount())
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("crud.cache.size", entityCache, cache -> cache.stats().getSize())
+                .tags(tags)
+                .register(registry);
+    }
+
+    @Override
+    public void monitor(SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("crud.singleflight.loads", singleFlight, SingleFlight::getLoadCount)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("crud.singleflight.collapsed", singleFlight, SingleFlight::getCollapsedCount)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("crud.singleflight.timeouts", singleFlight, SingleFlight::getTimeoutCount)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private Timer timer(CrudOperation operation) {
+        Timer timer = timers.get(operation.ordinal());
+        if (timer == null) {
+            timer = Timer.builder("crud.operation")
+                    .tags(tags)
+                    .tag("operation", operation.getTagValue())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            timers.set(operation.ordinal(), timer);
+        }
+        return timer;
+    }
+}
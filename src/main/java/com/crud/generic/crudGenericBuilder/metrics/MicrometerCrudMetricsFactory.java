@@ -0,0 +1,21 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates {@link CrudMetrics} that publish to a Micrometer registry.
+ * Requires the io.micrometer:micrometer-core dependency.
+ */
+public class MicrometerCrudMetricsFactory implements CrudMetricsFactory {
+
+    private final MeterRegistry registry;
+
+    public MicrometerCrudMetricsFactory(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public CrudMetrics create(String layer, Class<?> entityType) {
+        return new MicrometerCrudMetrics(registry, layer, entityType.getSimpleName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+
+import java.util.function.Supplier;
+
+/**
+ * Metrics used when no {@link CrudMetricsFactory} is available.
+ */
+final class NoopCrudMetrics implements CrudMetrics {
+
+    static final NoopCrudMetrics INSTANCE = new NoopCrudMetrics();
+
+    private NoopCrudMetrics() {
+    }
+
+    @Override
+    public <R> R record(CrudOperation operation, Supplier<R> call) {
+        return call.get();
+    }
+
+    @Override
+    public void recordRows(CrudOperation operation, long rows) {
+    }
+
+    @Override
+    public void recordRejected(CrudOperation operation, String limit) {
+    }
+
+    @Override
+    public void monitor(EntityCache<?, ?> entityCache) {
+    }
+
+    @Override
+    public void monitor(SingleFlight<?, ?> singleFlight) {
+    }
+}
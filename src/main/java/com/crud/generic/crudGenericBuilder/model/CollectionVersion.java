@@ -0,0 +1,64 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import java.time.Instant;
+
+/**
+ * A summary of the state of all entities of a type, read with one aggregate query.
+ * It changes whenever an entity is created, deleted, or updated with a new version or timestamp,
+ * which makes it suitable as the ETag of a collection. The ids are part of the summary, so deleting one entity
+ * and creating another with the same version changes it as well.
+ */
+public class CollectionVersion {
+
+    private final long count;
+    private final Object idAggregate;
+    private final Long versionSum;
+    private final Instant lastModified;
+
+    public CollectionVersion(long count, Object idAggregate, Long versionSum, Instant lastModified) {
+        this.count = count;
+        this.idAggregate = idAggregate;
+        this.versionSum = versionSum;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the ids of all entities, or the largest id when the ids are not numeric.
+     *
+     * @return the id aggregate, or null if the table is empty or it was not read
+     */
+    public Object getIdAggregate() {
+        return idAggregate;
+    }
+
+    /**
+     * Returns the sum of the versions of all entities, or null if the entity is not versioned or the table is empty.
+     *
+     * @return the sum of the versions
+     */
+    public Long getVersionSum() {
+        return versionSum;
+    }
+
+    /**
+     * Returns the latest modification time of all entities, or null if the entity is not timestamped or the table is empty.
+     *
+     * @return the latest modification time
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the weak ETag that represents this state.
+     *
+     * @return the ETag header value
+     */
+    public String toETag() {
+        return "W/\"" + count + "-" + idAggregate + "-" + versionSum + "-" + (lastModified == null ? null : lastModified.toEpochMilli()) + "\"";
+    }
+}
@@ -0,0 +1,35 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A bounded page of entities read with keyset (seek) pagination.
+ * The next cursor is the id of the last entity in the page and is passed back as the
+ * "after" argument to read the following page. It is null when there are no more entities.
+ *
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public class KeysetPage<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    private final List<T> content;
+    private final ID nextCursor;
+
+    public KeysetPage(List<T> content, ID nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public ID getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The entities read by a multi-get, in the order of the requested ids, and the requested ids that do not exist.
+ *
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public class MultiGetResult<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    private final List<T> content;
+    private final List<ID> missingIds;
+
+    public MultiGetResult(List<T> content, List<ID> missingIds) {
+        this.content = content;
+        this.missingIds = missingIds;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public List<ID> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+/**
+ * Optional interface for entities that share their table between tenants, with a tenant id column as discriminator.
+ * TenantGenericServiceImpl sets the tenant id of saved entities and restricts every read, update and delete
+ * to the rows of the current tenant. The attribute must be named tenantId, must not be updatable, and the entity
+ * must declare the Hibernate filter {@link #FILTER}, which {@link TenantEntity} does for its subclasses.
+ */
+public interface TenantAware {
+
+    /**
+     * The name of the Hibernate filter that restricts queries to one tenant.
+     */
+    String FILTER = "crudTenantFilter";
+
+    /**
+     * The name of the parameter of {@link #FILTER} that holds the tenant id.
+     */
+    String FILTER_PARAMETER = "tenantId";
+
+    String getTenantId();
+
+    void setTenantId(String tenantId);
+}
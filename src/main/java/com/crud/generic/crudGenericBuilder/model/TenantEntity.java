@@ -0,0 +1,36 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import java.io.Serializable;
+
+/**
+ * Base class of entities whose table is shared between tenants. It maps the tenant_id column
+ * and declares the Hibernate filter that restricts queries to the rows of one tenant.
+ * The column should lead an index with the columns the tenant filters and sorts on.
+ *
+ * @param <ID> The type of the entity's ID
+ */
+@MappedSuperclass
+@FilterDef(name = TenantAware.FILTER, parameters = @ParamDef(name = TenantAware.FILTER_PARAMETER, type = "string"),
+        defaultCondition = "tenant_id = :" + TenantAware.FILTER_PARAMETER)
+@Filter(name = TenantAware.FILTER)
+public abstract class TenantEntity<ID extends Serializable> implements BaseEntity<ID>, TenantAware {
+
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Override
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import java.time.Instant;
+
+/**
+ * Optional interface for entities that record when they were last modified.
+ * The timestamp must be mapped by an attribute named "lastModified", which the generic service
+ * sets to the current time whenever it updates the entity with a single statement.
+ */
+public interface Timestamped {
+
+    Instant getLastModified();
+}
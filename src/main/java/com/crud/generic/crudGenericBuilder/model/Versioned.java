@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+/**
+ * Optional interface for entities that carry a version, typically the attribute annotated with {@code @Version}.
+ * The version identifies the state of an entity, so the generic controller can use it as an ETag.
+ * The version attribute must use a wrapper type such as Long or Integer.
+ */
+public interface Versioned {
+
+    Number getVersion();
+}
@@ -0,0 +1,66 @@
+package com.crud.generic.crudGenericBuilder.query;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A condition on one attribute of an entity, evaluated by the database.
+ * The value is converted to the attribute type when the query is built, so it can be given as a string.
+ */
+public class Filter {
+
+    private final String attribute;
+    private final FilterOperator operator;
+    private final Object value;
+
+    public Filter(String attribute, FilterOperator operator, Object value) {
+        if (operator == FilterOperator.IN && !(value instanceof Collection)) {
+            throw new IllegalArgumentException("The in operator needs a collection of values");
+        }
+        this.attribute = attribute;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    /**
+     * Parses a filter from a query parameter, such as "name.eq" with the value "x".
+     * A parameter without an operator, such as "name", compares for equality.
+     * The value of the in operator is split at commas.
+     *
+     * @param parameter the parameter name, made of the attribute and optionally the operator
+     * @param value the parameter value
+     * @return the filter
+     * @throws IllegalArgumentException if the operator is unknown
+     */
+    public static Filter parse(String parameter, String value) {
+        int separator = parameter.lastIndexOf('.');
+        if (separator < 0) {
+            return new Filter(parameter, FilterOperator.EQ, value);
+        }
+        FilterOperator operator = FilterOperator.fromToken(parameter.substring(separator + 1));
+        Object operand = operator == FilterOperator.IN ? Arrays.asList(value.split(",")) : value;
+        return new Filter(parameter.substring(0, separator), operator, operand);
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public FilterOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * Returns the value to compare with, a collection for the in operator.
+     *
+     * @return the value
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return attribute + "." + operator.getToken() + "=" + value;
+    }
+}
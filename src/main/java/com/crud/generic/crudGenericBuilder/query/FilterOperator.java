@@ -0,0 +1,62 @@
+package com.crud.generic.crudGenericBuilder.query;
+
+/**
+ * The comparisons supported by {@link Filter}.
+ * Each operator translates to a predicate that can use an index on the filtered column.
+ * There is deliberately no "contains" operator, because a leading wildcard rules out index use.
+ */
+public enum FilterOperator {
+
+    EQ("eq"),
+    NE("ne"),
+    LT("lt"),
+    LE("le"),
+    GT("gt"),
+    GE("ge"),
+
+    /**
+     * Matches any of the comma-separated values.
+     */
+    IN("in"),
+
+    /**
+     * Matches strings starting with the value, using LIKE 'value%'.
+     */
+    PREFIX("prefix"),
+
+    /**
+     * Matches null values for "true", and non-null values for "false".
+     */
+    NULL("null");
+
+    private final String token;
+
+    FilterOperator(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the name of the operator in query parameters, such as "eq" in "name.eq=x".
+     *
+     * @return the operator token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Returns the operator with the given token.
+     *
+     * @param token the operator token
+     * @return the operator
+     * @throws IllegalArgumentException if no operator has the given token
+     */
+    public static FilterOperator fromToken(String token) {
+        for (FilterOperator operator : values()) {
+            if (operator.token.equals(token)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown filter operator '" + token + "'");
+    }
+}
@@ -0,0 +1,25 @@
+package com.crud.generic.crudGenericBuilder.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lists the attributes that the filter and sort query API of a GenericServiceImpl subclass accepts.
+ * The id is always accepted. Other attributes are rejected unless listed here, so clients cannot
+ * make the database filter or sort on columns that have no index.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Filterable {
+
+    /**
+     * The names of the basic attributes that can be filtered and sorted on.
+     */
+    String[] value();
+}
@@ -1,19 +1,115 @@
 package com.crud.generic.crudGenericBuilder.repository;
 
 import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.io.Serializable;
+import java.util.stream.Stream;
 
 /**
  * Generic repository interface that extends JpaRepository.
- * This provides basic CRUD operations for entities that implement BaseEntity.
+ * This provides basic CRUD operations for entities that implement BaseEntity,
+ * and Specification queries for the filter API.
+ * The derived queries below expect the entity's identifier property to be named "id".
  * 
  * @param <T> The entity type
  * @param <ID> The type of the entity's ID
  */
 @NoRepositoryBean
-public interface GenericRepository<T extends BaseEntity<ID>, ID extends Serializable> extends JpaRepository<T, ID> {
+public interface GenericRepository<T extends BaseEntity<ID>, ID extends Serializable> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
 
+    /**
+     * JDBC fetch size used when streaming entities, so rows are pulled from the database in bounded batches.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Reads a slice of entities without issuing a count query.
+     *
+     * @param pageable the page size and sort order
+     * @return the slice of entities
+     */
+    Slice<T> findAllBy(Pageable pageable);
+
+    /**
+     * Reads a slice of entities whose id is greater than the given id.
+     * Used for keyset pagination, where the database seeks directly to the cursor through the primary key index.
+     *
+     * @param id the id of the last entity of the previous page
+     * @param pageable the page size and sort order
+     * @return the slice of entities
+     */
+    Slice<T> findByIdGreaterThan(ID id, Pageable pageable);
+
+    /**
+     * Streams every entity in id order, fetching rows from the database in batches of {@link #STREAM_FETCH_SIZE}.
+     * The stream must be consumed and closed inside a transaction. Entities are loaded read-only,
+     * so Hibernate keeps no dirty-checking snapshots for them.
+     *
+     * @return the stream of entities
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select e from #{#entityName} e order by e.id")
+    Stream<T> streamAllBy();
+
+    /**
+     * Streams the entities whose id is at least the given id, in id order, like {@link #streamAllBy()}.
+     *
+     * @param from the smallest id to stream
+     * @return the stream of entities
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select e from #{#entityName} e where e.id >= :from order by e.id")
+    Stream<T> streamByIdFrom(@Param("from") ID from);
+
+    /**
+     * Streams the entities whose id is at least from and below to, in id order, like {@link #streamAllBy()}.
+     *
+     * @param from the smallest id to stream
+     * @param to the id above the largest id to stream
+     * @return the stream of entities
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select e from #{#entityName} e where e.id >= :from and e.id < :to order by e.id")
+    Stream<T> streamByIdRange(@Param("from") ID from, @Param("to") ID to);
+
+    /**
+     * Streams every id in order, without loading the entities. The stream must be consumed and closed inside a transaction.
+     *
+     * @return the stream of ids
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select e.id from #{#entityName} e order by e.id")
+    Stream<ID> streamIdsBy();
+
+    /**
+     * Deletes the entity with the given id with a single bulk statement, without loading it first.
+     * Cascades and entity lifecycle callbacks are not applied.
+     *
+     * @param id the id of the entity to delete
+     * @return the number of deleted rows, 0 when the entity does not exist
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from #{#entityName} e where e.id = :id")
+    int deleteByIdReturningCount(@Param("id") ID id);
 }
\ No newline at end of file
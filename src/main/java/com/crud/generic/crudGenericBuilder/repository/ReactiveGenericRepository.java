@@ -0,0 +1,48 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+
+/**
+ * Generic repository interface that extends R2dbcRepository.
+ * This is the non-blocking counterpart of GenericRepository for entities mapped with Spring Data Relational.
+ * The derived queries below expect the entity's identifier property to be named "id".
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+@NoRepositoryBean
+public interface ReactiveGenericRepository<T extends BaseEntity<ID>, ID extends Serializable> extends R2dbcRepository<T, ID> {
+
+    /**
+     * Reads a page of entities without issuing a count query.
+     *
+     * @param pageable the page size and sort order
+     * @return the entities of the page
+     */
+    Flux<T> findAllBy(Pageable pageable);
+
+    /**
+     * Reads a page of entities whose id is greater than the given id.
+     * Used for keyset pagination, where the database seeks directly to the cursor through the primary key index.
+     *
+     * @param id the id of the last entity of the previous page
+     * @param pageable the page size and sort order
+     * @return the entities of the page
+     */
+    Flux<T> findByIdGreaterThan(ID id, Pageable pageable);
+
+    /**
+     * Deletes the entity with the given id with a single statement, without loading it first.
+     *
+     * @param id the id of the entity to delete
+     * @return the number of deleted rows, 0 when the entity does not exist
+     */
+    Mono<Integer> removeById(ID id);
+}
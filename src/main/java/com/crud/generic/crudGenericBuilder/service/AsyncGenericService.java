@@ -0,0 +1,55 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous counterpart of GenericService.
+ * Each operation runs on a separate executor and completes the returned future with the result of the
+ * corresponding GenericService operation, so callers do not block while the database is accessed.
+ * The streaming operations call the consumer on the executor, and complete the future once every entity is consumed.
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public interface AsyncGenericService<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    CompletableFuture<T> save(T entity);
+    CompletableFuture<List<T>> saveAll(Collection<T> entities);
+    CompletableFuture<List<T>> insertAll(Collection<T> entities);
+    CompletableFuture<List<T>> updateAll(Collection<T> entities);
+    CompletableFuture<Optional<T>> updateIfExists(ID id, T entity);
+    CompletableFuture<Boolean> patch(ID id, Map<String, Object> changes);
+    CompletableFuture<Optional<T>> findById(ID id);
+    CompletableFuture<List<T>> findAllById(Collection<ID> ids);
+    CompletableFuture<List<T>> findAll();
+    CompletableFuture<Optional<Map<String, Object>>> findById(ID id, Collection<String> fields);
+    CompletableFuture<List<Map<String, Object>>> findAll(Collection<String> fields);
+    CompletableFuture<Optional<CollectionVersion>> findAllVersion();
+    CompletableFuture<Page<T>> findAll(Pageable pageable);
+    CompletableFuture<KeysetPage<T, ID>> findAllAfter(ID after, int limit);
+    CompletableFuture<List<T>> findAll(List<Filter> filters, Sort sort, int limit);
+    CompletableFuture<Page<T>> findAll(List<Filter> filters, Pageable pageable);
+    CompletableFuture<Void> streamAll(Consumer<? super T> consumer);
+    CompletableFuture<Void> streamAll(ID from, ID to, Consumer<? super T> consumer);
+    CompletableFuture<List<ID>> findChunkStarts(int chunkSize);
+    CompletableFuture<Void> deleteById(ID id);
+    CompletableFuture<Boolean> deleteIfExists(ID id);
+    CompletableFuture<Void> deleteAllById(Collection<ID> ids);
+    CompletableFuture<Void> delete(T entity);
+    CompletableFuture<Long> count();
+    CompletableFuture<Long> count(List<Filter> filters);
+}
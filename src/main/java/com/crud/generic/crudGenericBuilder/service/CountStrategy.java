@@ -0,0 +1,24 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+/**
+ * How GenericServiceImpl answers {@link GenericService#count()}, and the total of paginated reads.
+ */
+public enum CountStrategy {
+
+    /**
+     * Runs SELECT COUNT(*) on every call.
+     */
+    EXACT,
+
+    /**
+     * Runs SELECT COUNT(*) at most once per time-to-live, and adjusts the cached count when the service
+     * inserts or deletes entities. Writes made outside the service are only seen once the count expires.
+     */
+    CACHED,
+
+    /**
+     * Reads the row count estimated by the database statistics, without scanning the table.
+     * Falls back to an exact count on databases without supported statistics.
+     */
+    ESTIMATED
+}
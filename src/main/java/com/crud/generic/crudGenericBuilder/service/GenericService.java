@@ -1,10 +1,19 @@
 package com.crud.generic.crudGenericBuilder.service;
 
 import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Generic service interface for CRUD operations.
@@ -15,9 +24,210 @@ import java.util.Optional;
 public interface GenericService<T extends BaseEntity<ID>, ID extends Serializable> {
 
     T save(T entity);
+
+    /**
+     * Saves the given entities in a single transaction, flushing them to the database in JDBC batches.
+     *
+     * @param entities the entities to save
+     * @return the saved entities, in the same order
+     */
+    List<T> saveAll(Collection<T> entities);
+
+    /**
+     * Inserts the given new entities in a single transaction, flushing them to the database in JDBC batches.
+     * Unlike {@link #saveAll(Collection)}, entities with an id are not read first, so an id that already exists
+     * fails the insert. Entities whose ids are generated must not carry one.
+     *
+     * @param entities the entities to insert
+     * @return the inserted entities, in the same order
+     * @throws IllegalArgumentException if an entity carries an id although ids are generated, in which case nothing is inserted
+     */
+    List<T> insertAll(Collection<T> entities);
+
+    /**
+     * Updates the given existing entities in a single transaction, flushing them to the database in JDBC batches.
+     *
+     * @param entities the entities to update, each carrying its id
+     * @return the updated entities, in the same order
+     * @throws IllegalArgumentException if an entity has no id
+     * @throws javax.persistence.EntityNotFoundException if an entity does not exist, in which case nothing is updated
+     */
+    List<T> updateAll(Collection<T> entities);
+
+    /**
+     * Updates an existing entity with a single statement, without reading it first.
+     * If the entity has a {@code @Version} attribute and carries a version, it is only updated while its version in the
+     * database still matches. The returned entity carries the incremented version.
+     *
+     * @param id the id of the entity to update
+     * @param entity the new state of the entity
+     * @return the updated entity, or an empty Optional if no entity has the given id
+     * @throws javax.persistence.OptimisticLockException if the entity exists with a different version
+     */
+    Optional<T> updateIfExists(ID id, T entity);
+
+    /**
+     * Writes only the given attributes of an existing entity with a single statement, without reading it first.
+     * Keys are attribute paths, such as "name" or "address.city" for attributes of embedded objects, and a null value
+     * clears the attribute. Values are converted to the attribute types where needed. If the changes contain the
+     * version of a versioned entity, the entity is only updated while its version in the database still matches.
+     *
+     * @param id the id of the entity to update
+     * @param changes the new values keyed by attribute path
+     * @return true if the entity existed and was updated
+     * @throws IllegalArgumentException if there are no changes, or a key is not an updatable attribute
+     * @throws javax.persistence.OptimisticLockException if the entity exists with a different version
+     */
+    boolean patch(ID id, Map<String, Object> changes);
+
     Optional<T> findById(ID id);
+
+    /**
+     * Reads the entities of the given ids, in the order of the ids.
+     * Ids that do not exist are left out, and a repeated id yields its entity once.
+     *
+     * @param ids the ids of the entities
+     * @return the existing entities in the order of their ids
+     * @throws IllegalArgumentException if an id is null or there are more ids than the maximum page size
+     */
+    List<T> findAllById(Collection<ID> ids);
     List<T> findAll();
+
+    /**
+     * Reads only the given fields of an entity. The query selects just the matching columns,
+     * and the id is always included. The entity cache is not used.
+     *
+     * @param id the id of the entity
+     * @param fields the names of the basic attributes to read
+     * @return the field values keyed by field name, or an empty Optional if no entity has the given id
+     * @throws IllegalArgumentException if a field is not a basic attribute of the entity
+     */
+    Optional<Map<String, Object>> findById(ID id, Collection<String> fields);
+
+    /**
+     * Reads only the given fields of every entity, see {@link #findById(Serializable, Collection)}.
+     *
+     * @param fields the names of the basic attributes to read
+     * @return the field values of each entity keyed by field name
+     * @throws IllegalArgumentException if a field is not a basic attribute of the entity
+     */
+    List<Map<String, Object>> findAll(Collection<String> fields);
+
+    /**
+     * Summarises the state of all entities with one aggregate query, so callers can tell whether
+     * the result of {@link #findAll()} has changed without reading it.
+     *
+     * @return the summary, or an empty Optional if the entity implements neither Versioned nor Timestamped
+     */
+    Optional<CollectionVersion> findAllVersion();
+
+    /**
+     * Reads one page of entities using offset pagination.
+     * The page size is capped by the implementation, and unsorted requests are ordered by id.
+     *
+     * @param pageable the requested page
+     * @return the page of entities
+     */
+    Page<T> findAll(Pageable pageable);
+
+    /**
+     * Reads the entities following the given id in id order using keyset pagination.
+     * Unlike offset pagination, the cost of a page does not grow with its position in the table.
+     *
+     * @param after the cursor returned with the previous page, or null to read the first page
+     * @param limit the maximum number of entities to return, capped by the implementation
+     * @return the page of entities and the cursor of the next page
+     */
+    KeysetPage<T, ID> findAllAfter(ID after, int limit);
+
+    /**
+     * Reads the entities matching all the given filters. Filtering, ordering and limiting happen in the database.
+     * Only the id and the attributes the implementation declares filterable can be filtered and sorted on.
+     * Unsorted requests are ordered by id, and the id breaks ties between equal sort keys, so the order is stable.
+     *
+     * @param filters the conditions the entities must all meet
+     * @param sort the order of the entities
+     * @param limit the maximum number of entities to return, capped by the implementation
+     * @return the matching entities
+     * @throws IllegalArgumentException if an attribute is not filterable or a value cannot be converted to its type
+     */
+    List<T> findAll(List<Filter> filters, Sort sort, int limit);
+
+    /**
+     * Reads one page of the entities matching all the given filters, see {@link #findAll(List, Sort, int)}.
+     * The total is counted with {@link #count(List)}, and only when the page alone does not determine it.
+     *
+     * @param filters the conditions the entities must all meet
+     * @param pageable the requested page and its order
+     * @return the page of matching entities
+     * @throws IllegalArgumentException if an attribute is not filterable or a value cannot be converted to its type
+     */
+    Page<T> findAll(List<Filter> filters, Pageable pageable);
+
+    /**
+     * Passes every entity, in id order, to the given consumer without loading the whole table into memory.
+     * Rows are fetched from the database in batches, and each entity is detached from the persistence
+     * context once the consumer has processed it.
+     *
+     * @param consumer the consumer of the entities
+     */
+    void streamAll(Consumer<? super T> consumer);
+
+    /**
+     * Streams the entities whose id is at least from and below to, in id order, within one read-only transaction.
+     * Like {@link #streamAll(Consumer)}, each entity is detached once the consumer returns.
+     *
+     * @param from the smallest id to stream
+     * @param to the id above the largest id to stream, or null to stream to the end
+     * @param consumer the consumer of the entities
+     */
+    void streamAll(ID from, ID to, Consumer<? super T> consumer);
+
+    /**
+     * Returns the ids that split the entities, in id order, into consecutive chunks of chunkSize entities:
+     * the first id and every chunkSize-th id after it. Only the ids are read.
+     * A chunk runs from its start id up to the next start, so the chunks can be read with
+     * {@link #streamAll(Serializable, Serializable, Consumer)} in parallel.
+     *
+     * @param chunkSize the number of entities per chunk
+     * @return the start ids of the chunks, empty when there are no entities
+     */
+    List<ID> findChunkStarts(int chunkSize);
+
     void deleteById(ID id);
+
+    /**
+     * Deletes the entity with the given id with a single statement, without reading it first.
+     *
+     * @param id the id of the entity to delete
+     * @return true if the entity existed and was deleted
+     */
+    boolean deleteIfExists(ID id);
+
+    /**
+     * Deletes the entities with the given ids with one bulk statement per batch.
+     * Ids that do not exist are ignored.
+     *
+     * @param ids the ids of the entities to delete
+     */
+    void deleteAllById(Collection<ID> ids);
+
     void delete(T entity);
+
+    /**
+     * Counts the entities, exactly or approximately depending on the implementation's count strategy.
+     *
+     * @return the number of entities
+     */
     long count();
-}
\ No newline at end of file
+
+    /**
+     * Counts the entities matching all the given filters, see {@link #findAll(List, Sort, int)}.
+     * Without filters this is the same as {@link #count()}.
+     *
+     * @param filters the conditions the entities must all meet
+     * @return the number of matching entities
+     * @throws IllegalArgumentException if an attribute is not filterable or a value cannot be converted to its type
+     */
+    long count(List<Filter> filters);
+}
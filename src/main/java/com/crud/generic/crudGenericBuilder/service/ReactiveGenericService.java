@@ -0,0 +1,64 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of GenericService backed by R2DBC.
+ * No operation blocks the calling thread, and nothing is read or written until the returned publisher is subscribed to.
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public interface ReactiveGenericService<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    Mono<T> save(T entity);
+    Flux<T> saveAll(Collection<T> entities);
+
+    /**
+     * Updates an existing entity with a single statement, without reading it first.
+     *
+     * @param id the id of the entity to update
+     * @param entity the new state of the entity
+     * @return the updated entity, or an empty Mono if no entity has the given id
+     */
+    Mono<T> updateIfExists(ID id, T entity);
+
+    Mono<T> findById(ID id);
+
+    /**
+     * Emits every entity in id order as rows arrive from the database.
+     * Rows are requested from the driver as the subscriber requests them, so a slow consumer applies backpressure
+     * instead of having the whole table buffered in memory.
+     *
+     * @return the entities
+     */
+    Flux<T> findAll();
+
+    /**
+     * Reads the entities following the given id in id order using keyset pagination.
+     *
+     * @param after the cursor returned with the previous page, or null to read the first page
+     * @param limit the maximum number of entities to return, capped by the implementation
+     * @return the page of entities and the cursor of the next page
+     */
+    Mono<KeysetPage<T, ID>> findAllAfter(ID after, int limit);
+
+    Mono<Void> deleteById(ID id);
+
+    /**
+     * Deletes the entity with the given id with a single statement, without reading it first.
+     *
+     * @param id the id of the entity to delete
+     * @return true if the entity existed and was deleted
+     */
+    Mono<Boolean> deleteIfExists(ID id);
+
+    Mono<Void> delete(T entity);
+    Mono<Long> count();
+}
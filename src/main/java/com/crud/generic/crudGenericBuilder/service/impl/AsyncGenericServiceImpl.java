@@ -0,0 +1,169 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.async.CrudAsyncExecutor;
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.service.AsyncGenericService;
+import com.crud.generic.crudGenericBuilder.service.GenericService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of AsyncGenericService that runs the operations of a GenericService on a CrudAsyncExecutor.
+ * The transactions, caching and metrics of the wrapped service apply unchanged.
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public class AsyncGenericServiceImpl<T extends BaseEntity<ID>, ID extends Serializable> implements AsyncGenericService<T, ID> {
+
+    protected final GenericService<T, ID> service;
+    protected final CrudAsyncExecutor executor;
+
+    /**
+     * Constructor that takes the service to wrap and the executor to run it on.
+     *
+     * @param service the synchronous service
+     * @param executor the executor of the operations
+     */
+    public AsyncGenericServiceImpl(GenericService<T, ID> service, CrudAsyncExecutor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<T> save(T entity) {
+        return executor.supply(() -> service.save(entity));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> saveAll(Collection<T> entities) {
+        return executor.supply(() -> service.saveAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> insertAll(Collection<T> entities) {
+        return executor.supply(() -> service.insertAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> updateAll(Collection<T> entities) {
+        return executor.supply(() -> service.updateAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> updateIfExists(ID id, T entity) {
+        return executor.supply(() -> service.updateIfExists(id, entity));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> patch(ID id, Map<String, Object> changes) {
+        return executor.supply(() -> service.patch(id, changes));
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> findById(ID id) {
+        return executor.supply(() -> service.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findAllById(Collection<ID> ids) {
+        return executor.supply(() -> service.findAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findAll() {
+        return executor.supply(service::findAll);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Map<String, Object>>> findById(ID id, Collection<String> fields) {
+        return executor.supply(() -> service.findById(id, fields));
+    }
+
+    @Override
+    public CompletableFuture<List<Map<String, Object>>> findAll(Collection<String> fields) {
+        return executor.supply(() -> service.findAll(fields));
+    }
+
+    @Override
+    public CompletableFuture<Optional<CollectionVersion>> findAllVersion() {
+        return executor.supply(service::findAllVersion);
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> findAll(Pageable pageable) {
+        return executor.supply(() -> service.findAll(pageable));
+    }
+
+    @Override
+    public CompletableFuture<KeysetPage<T, ID>> findAllAfter(ID after, int limit) {
+        return executor.supply(() -> service.findAllAfter(after, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findAll(List<Filter> filters, Sort sort, int limit) {
+        return executor.supply(() -> service.findAll(filters, sort, limit));
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> findAll(List<Filter> filters, Pageable pageable) {
+        return executor.supply(() -> service.findAll(filters, pageable));
+    }
+
+    @Override
+    public CompletableFuture<Void> streamAll(Consumer<? super T> consumer) {
+        return executor.run(() -> service.streamAll(consumer));
+    }
+
+    @Override
+    public CompletableFuture<Void> streamAll(ID from, ID to, Consumer<? super T> consumer) {
+        return executor.run(() -> service.streamAll(from, to, consumer));
+    }
+
+    @Override
+    public CompletableFuture<List<ID>> findChunkStarts(int chunkSize) {
+        return executor.supply(() -> service.findChunkStarts(chunkSize));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(ID id) {
+        return executor.run(() -> service.deleteById(id));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteIfExists(ID id) {
+        return executor.supply(() -> service.deleteIfExists(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllById(Collection<ID> ids) {
+        return executor.run(() -> service.deleteAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(T entity) {
+        return executor.run(() -> service.delete(entity));
+    }
+
+    @Override
+    public CompletableFuture<Long> count() {
+        return executor.supply(service::count);
+    }
+
+    @Override
+    public CompletableFuture<Long> count(List<Filter> filters) {
+        return executor.supply(() -> service.count(filters));
+    }
+}
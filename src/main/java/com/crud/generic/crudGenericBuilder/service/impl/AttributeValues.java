@@ -0,0 +1,32 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+/**
+ * Converts values supplied by clients, such as query parameters or JSON numbers, to the types of entity attributes.
+ */
+final class AttributeValues {
+
+    private AttributeValues() {
+    }
+
+    /**
+     * Converts a value to the given attribute type with the default conversion service.
+     *
+     * @param value the value, may be null
+     * @param type the attribute type
+     * @return the converted value
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    static Object convert(Object value, Class<?> type) {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        try {
+            return DefaultConversionService.getSharedInstance().convert(value, type);
+        } catch (ConversionException e) {
+            throw new IllegalArgumentException("Cannot convert " + value + " to " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.Timestamped;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embeddable;
+import javax.persistence.EntityListeners;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EmbeddableType;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA metamodel information about an entity type, used to build bulk JPQL statements
+ * that write an entity with a single round trip, and projection queries that read only some of its columns.
+ * Built once per service and reused for every statement.
+ *
+ * @param <T> The entity type
+ */
+final class EntityMetadata<T> {
+
+    private static final List<Class<? extends Annotation>> UPDATE_CALLBACKS = List.of(PreUpdate.class, PostUpdate.class);
+    private static final List<Class<? extends Annotation>> REMOVE_CALLBACKS = List.of(PreRemove.class, PostRemove.class);
+    private static final List<Class<? extends Annotation>> COLLECTIONS = List.of(OneToMany.class, ManyToMany.class, ElementCollection.class);
+    private static final List<Class<? extends Annotation>> GENERATED_VALUES = List.of(Generated.class, Formula.class,
+            CreationTimestamp.class, UpdateTimestamp.class);
+
+    private final String entityName;
+    private final String idAttribute;
+    private final boolean generatedId;
+    private final String versionAttribute;
+    private final AttributeAccessor versionAccessor;
+    private final String lastModifiedAttribute;
+    private final AttributeAccessor lastModifiedAccessor;
+    private final Map<String, AttributeAccessor> updatableAttributes;
+    private final Set<String> selectableAttributes;
+    private final String updateAllStatement;
+    private final String versionCheckedUpdateAllStatement;
+    private final String collectionVersionStatement;
+
+    private EntityMetadata(EntityType<T> entityType) {
+        this.entityName = entityType.getName();
+        SingularAttribute<? super T, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+        this.idAttribute = id.getName();
+        this.generatedId = ((AnnotatedElement) id.getJavaMember()).isAnnotationPresent(GeneratedValue.class);
+        String version = null;
+        AttributeAccessor versionAccessor = null;
+        AttributeAccessor lastModifiedAccessor = null;
+        String lastModified = Timestamped.class.isAssignableFrom(entityType.getJavaType()) ? "lastModified" : null;
+        Map<String, AttributeAccessor> attributes = new LinkedHashMap<>();
+        Set<String> selectable = new LinkedHashSet<>();
+        for (SingularAttribute<? super T, ?> attribute : entityType.getSingularAttributes()) {
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                selectable.add(attribute.getName());
+            }
+            if (attribute.getName().equals(lastModified)) {
+                lastModifiedAccessor = new AttributeAccessor(null, attribute.getJavaMember());
+            }
+            if (attribute.isVersion()) {
+                version = attribute.getName();
+                versionAccessor = new AttributeAccessor(null, attribute.getJavaMember());
+            } else if (!attribute.isId() && !attribute.getName().equals(lastModified) && isUpdatable(attribute)) {
+                addAttribute(attributes, "", null, attribute);
+            }
+        }
+        this.versionAttribute = version;
+        this.versionAccessor = versionAccessor;
+        this.lastModifiedAttribute = lastModified;
+        this.lastModifiedAccessor = lastModifiedAccessor;
+        this.updatableAttributes = Collections.unmodifiableMap(attributes);
+        this.selectableAttributes = Collections.unmodifiableSet(selectable);
+        this.updateAllStatement = updateStatement(updatableAttributes.keySet(), false);
+        this.versionCheckedUpdateAllStatement = version == null ? null : updateStatement(updatableAttributes.keySet(), true);
+        this.collectionVersionStatement = collectionVersionStatement(Number.class.isAssignableFrom(entityType.getIdType().getJavaType()));
+    }
+
+    static <T> EntityMetadata<T> of(EntityManager entityManager, Class<T> entityClass) {
+        return new EntityMetadata<>(entityManager.getMetamodel().entity(entityClass));
+    }
+
+    String getEntityName() {
+        return entityName;
+    }
+
+    String getIdAttribute() {
+        return idAttribute;
+    }
+
+    /**
+     * Returns whether the ids of new entities are generated, so an id given to a new entity cannot be kept.
+     *
+     * @return true if the id attribute is annotated with GeneratedValue
+     */
+    boolean hasGeneratedId() {
+        return generatedId;
+    }
+
+    String getVersionAttribute() {
+        return versionAttribute;
+    }
+
+    /**
+     * Returns the name of the attribute holding the last modification time of timestamped entities.
+     *
+     * @return the attribute name, or null if the entity does not implement Timestamped
+     */
+    String getLastModifiedAttribute() {
+        return lastModifiedAttribute;
+    }
+
+    /**
+     * Returns the aggregate query that summarises the state of all entities: the entity count,
+     * the sum of the ids, or their maximum when they are not numeric, followed by the sum of the versions of versioned entities and the latest modification time of timestamped entities.
+     *
+     * @return the JPQL select statement, or null if the entity is neither versioned nor timestamped
+     */
+    String getCollectionVersionStatement() {
+        return collectionVersionStatement;
+    }
+
+    /**
+     * Returns the attributes that can be written by an update statement, keyed by their path.
+     * Attributes of embedded objects are listed individually, for example "address.city".
+     *
+     * @return the updatable attributes
+     */
+    Map<String, AttributeAccessor> getUpdatableAttributes() {
+        return updatableAttributes;
+    }
+
+    /**
+     * Returns the basic attributes that can be selected by a projection query, including the id and version.
+     *
+     * @return the names of the selectable attributes
+     */
+    Set<String> getSelectableAttributes() {
+        return selectableAttributes;
+    }
+
+    /**
+     * Resolves the fields requested for a projection to the attributes to select.
+     * The id is always selected first, blank and repeated fields are ignored.
+     *
+     * @param fields the requested fields
+     * @return the names of the attributes to select, in order
+     * @throws IllegalArgumentException if a field is not a selectable attribute
+     */
+    List<String> selection(Collection<String> fields) {
+        Set<String> selection = new LinkedHashSet<>();
+        selection.add(idAttribute);
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!selectableAttributes.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected one of " + selectableAttributes);
+            }
+            selection.add(name);
+        }
+        return new ArrayList<>(selection);
+    }
+
+    /**
+     * Builds a query that selects the given attributes of every entity, or of the entity bound to parameter 1.
+     * Each result row holds the attribute values in the given order.
+     *
+     * @param attributes the names of the attributes to select
+     * @param byId true to restrict the query to the entity with the id bound to parameter 1
+     * @return the JPQL select statement
+     */
+    String selectStatement(List<String> attributes, boolean byId) {
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < attributes.size(); i++) {
+            jpql.append(i > 0 ? ", " : "").append("e.").append(attributes.get(i));
+        }
+        jpql.append(" from ").append(entityName).append(" e");
+        if (byId) {
+            jpql.append(" where e.").append(idAttribute).append(" = ?1");
+        }
+        return jpql.toString();
+    }
+
+    /**
+     * Returns the statement that writes every updatable attribute of an entity, see {@link #updateStatement(Collection, boolean)}.
+     *
+     * @return the update statement
+     */
+    String getUpdateAllStatement() {
+        return updateAllStatement;
+    }
+
+    /**
+     * Returns the statement that writes every updatable attribute of an entity if its version matches,
+     * see {@link #updateStatement(Collection, boolean)}.
+     *
+     * @return the update statement, or null if the entity has no version attribute
+     */
+    String getVersionCheckedUpdateAllStatement() {
+        return versionCheckedUpdateAllStatement;
+    }
+
+    /**
+     * Returns the type of the version attribute.
+     *
+     * @return the version type, or null if the entity has no version attribute
+     */
+    Class<?> getVersionType() {
+        return versionAccessor == null ? null : versionAccessor.getType();
+    }
+
+    /**
+     * Returns the version of an entity.
+     *
+     * @param entity the entity
+     * @return the version, or null if the entity has no version attribute or no version yet
+     */
+    Object getVersion(Object entity) {
+        return versionAccessor == null ? null : versionAccessor.get(entity);
+    }
+
+    /**
+     * Sets the version of an entity, if it has a version attribute.
+     *
+     * @param entity the entity
+     * @param version the version
+     */
+    void setVersion(Object entity, Object version) {
+        if (versionAccessor != null) {
+            versionAccessor.set(entity, version);
+        }
+    }
+
+    /**
+     * Sets the last modification time of a timestamped entity to the current time, as the update statements do.
+     *
+     * @param entity the entity
+     */
+    void touch(Object entity) {
+        if (lastModifiedAccessor != null && lastModifiedAccessor.getType() == Instant.class) {
+            lastModifiedAccessor.set(entity, Instant.now());
+        }
+    }
+
+    /**
+     * Checks whether a bulk delete statement removes an entity of the class exactly like the persistence context would:
+     * the entity has no collections, no cascading or orphan-removing associations, no remove callbacks or entity listeners,
+     * and no custom delete SQL such as a soft delete.
+     *
+     * @param entityClass the entity class
+     * @return true if the entity can be deleted with a single statement
+     */
+    static boolean supportsSingleStatementDelete(Class<?> entityClass) {
+        return isPlainEntity(entityClass, REMOVE_CALLBACKS, SQLDelete.class, false);
+    }
+
+    /**
+     * Checks whether a bulk update statement writes an entity of the class exactly like the persistence context would,
+     * and leaves the database with the state of the written entity: in addition to the conditions of
+     * {@link #supportsSingleStatementDelete(Class)} for updates, no column is read-only or generated,
+     * and the entity is not Timestamped.
+     *
+     * @param entityClass the entity class
+     * @return true if the entity can be updated with a single statement
+     */
+    static boolean supportsSingleStatementUpdate(Class<?> entityClass) {
+        return !Timestamped.class.isAssignableFrom(entityClass) && isPlainEntity(entityClass, UPDATE_CALLBACKS, SQLUpdate.class, true);
+    }
+
+    private static boolean isPlainEntity(Class<?> entityClass, List<Class<? extends Annotation>> callbacks,
+                                         Class<? extends Annotation> customSql, boolean fullyWritten) {
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (type.isAnnotationPresent(EntityListeners.class) || type.isAnnotationPresent(customSql) || isAudited(type)) {
+                return false;
+            }
+            if (!arePlainAttributes(type, fullyWritten)) {
+                return false;
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (callbacks.stream().anyMatch(method::isAnnotationPresent)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean arePlainAttributes(Class<?> type, boolean fullyWritten) {
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !isPlainAttribute(field, fullyWritten)) {
+                return false;
+            }
+            if (field.getType().isAnnotationPresent(Embeddable.class) && field.getType() != type
+                    && !arePlainAttributes(field.getType(), fullyWritten)) {
+                return false;
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (!isPlainAttribute(method, fullyWritten)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainAttribute(AnnotatedElement attribute, boolean fullyWritten) {
+        if (COLLECTIONS.stream().anyMatch(attribute::isAnnotationPresent)) {
+            return false;
+        }
+        OneToOne oneToOne = attribute.getAnnotation(OneToOne.class);
+        if (oneToOne != null && (oneToOne.cascade().length > 0 || oneToOne.orphanRemoval())) {
+            return false;
+        }
+        ManyToOne manyToOne = attribute.getAnnotation(ManyToOne.class);
+        if (manyToOne != null && manyToOne.cascade().length > 0) {
+            return false;
+        }
+        if (!fullyWritten) {
+            return true;
+        }
+        Column column = attribute.getAnnotation(Column.class);
+        JoinColumn joinColumn = attribute.getAnnotation(JoinColumn.class);
+        return (column == null || column.updatable() && column.insertable())
+                && (joinColumn == null || joinColumn.updatable() && joinColumn.insertable())
+                && GENERATED_VALUES.stream().noneMatch(attribute::isAnnotationPresent);
+    }
+
+    private static boolean isAudited(Class<?> type) {
+        for (Annotation annotation : type.getAnnotations()) {
+            // Hibernate Envers is optional, so its annotation is matched by name
+            if (annotation.annotationType().getName().equals("org.hibernate.envers.Audited")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Increments the version attribute of an entity after it was written by a version-checked update statement,
+     * so the entity carries the version now stored in the database.
+     *
+     * @param entity the updated entity
+     */
+    void incrementVersion(Object entity) {
+        Object version = versionAccessor.get(entity);
+        if (version instanceof Long) {
+            versionAccessor.set(entity, (Long) version + 1);
+        } else if (version instanceof Integer) {
+            versionAccessor.set(entity, (Integer) version + 1);
+        } else if (version instanceof Short) {
+            versionAccessor.set(entity, (short) ((Short) version + 1));
+        }
+    }
+
+    /**
+     * Builds an update statement that writes the given attributes of the entity with a given id.
+     * The attributes are bound to the positional parameters 1 to n in iteration order, and the id to parameter n + 1.
+     * When the version is checked, the expected version is bound to parameter n + 2 and the statement only matches
+     * the entity if its version is still the expected one.
+     * The version of versioned entities is incremented, and the last modification time of timestamped entities is set to the current time.
+     *
+     * @param attributePaths the paths of the attributes to write
+     * @param checkVersion true to restrict the statement to the expected version
+     * @return the JPQL update statement
+     */
+    String updateStatement(Collection<String> attributePaths, boolean checkVersion) {
+        StringBuilder jpql = new StringBuilder("update ").append(entityName).append(" e set ");
+        int position = 0;
+        for (String path : attributePaths) {
+            if (position > 0) {
+                jpql.append(", ");
+            }
+            jpql.append("e.").append(path).append(" = ?").append(++position);
+        }
+        if (versionAttribute != null) {
+            jpql.append(position > 0 ? ", " : "").append("e.").append(versionAttribute).append(" = e.").append(versionAttribute).append(" + 1");
+        }
+        if (lastModifiedAttribute != null) {
+            jpql.append(position > 0 || versionAttribute != null ? ", " : "").append("e.").append(lastModifiedAttribute).append(" = current_timestamp");
+        }
+        jpql.append(" where e.").append(idAttribute).append(" = ?").append(position + 1);
+        if (checkVersion) {
+            jpql.append(" and e.").append(versionAttribute).append(" = ?").append(position + 2);
+        }
+        return jpql.toString();
+    }
+
+    private String collectionVersionStatement(boolean numericId) {
+        if (versionAttribute == null && lastModifiedAttribute == null) {
+            return null;
+        }
+        StringBuilder jpql = new StringBuilder("select count(e), ")
+                .append(numericId ? "sum" : "max").append("(e.").append(idAttribute).append(")");
+        if (versionAttribute != null) {
+            jpql.append(", sum(e.").append(versionAttribute).append(")");
+        }
+        if (lastModifiedAttribute != null) {
+            jpql.append(", max(e.").append(lastModifiedAttribute).append(")");
+        }
+        return jpql.append(" from ").append(entityName).append(" e").toString();
+    }
+
+    private static void addAttribute(Map<String, AttributeAccessor> attributes, String prefix, AttributeAccessor parent,
+                                     SingularAttribute<?, ?> attribute) {
+        AttributeAccessor accessor = new AttributeAccessor(parent, attribute.getJavaMember());
+        if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+            EmbeddableType<?> embeddableType = (EmbeddableType<?>) attribute.getType();
+            for (SingularAttribute<?, ?> nested : embeddableType.getSingularAttributes()) {
+                if (isUpdatable(nested)) {
+                    addAttribute(attributes, prefix + attribute.getName() + ".", accessor, nested);
+                }
+            }
+        } else {
+            attributes.put(prefix + attribute.getName(), accessor);
+        }
+    }
+
+    private static boolean isUpdatable(SingularAttribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        if (!(member instanceof AccessibleObject)) {
+            return false;
+        }
+        AccessibleObject annotated = (AccessibleObject) member;
+        Column column = annotated.getAnnotation(Column.class);
+        if (column != null && !column.updatable()) {
+            return false;
+        }
+        switch (attribute.getPersistentAttributeType()) {
+            case BASIC:
+            case MANY_TO_ONE:
+            case EMBEDDED:
+                return true;
+            case ONE_TO_ONE:
+                OneToOne oneToOne = annotated.getAnnotation(OneToOne.class);
+                return oneToOne == null || oneToOne.mappedBy().isEmpty();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads and writes the value of an attribute of an entity through its field or getter and setter.
+     */
+    static final class AttributeAccessor {
+
+        private final AttributeAccessor parent;
+        private final Member member;
+
+        private AttributeAccessor(AttributeAccessor parent, Member member) {
+            this.parent = parent;
+            this.member = member;
+            ((AccessibleObject) member).setAccessible(true);
+        }
+
+        /**
+         * Returns the Java type of the attribute.
+         *
+         * @return the attribute type
+         */
+        Class<?> getType() {
+            return member instanceof Field ? ((Field) member).getType() : ((Method) member).getReturnType();
+        }
+
+        Object get(Object entity) {
+            Object target = parent == null ? entity : parent.get(entity);
+            if (target == null) {
+                return null;
+            }
+            try {
+                if (member instanceof Field) {
+                    return ((Field) member).get(target);
+                }
+                return ((Method) member).invoke(target);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Unable to read attribute " + member.getName(), e);
+            }
+        }
+
+        /**
+         * Writes the value of the attribute. A missing embedded object is created when a value is written into it.
+         */
+        void set(Object entity, Object value) {
+            Object target = parent == null ? entity : parent.get(entity);
+            if (target == null) {
+                if (value == null) {
+                    return;
+                }
+                target = parent.instantiate();
+                parent.set(entity, target);
+            }
+            try {
+                if (member instanceof Field) {
+                    ((Field) member).set(target, value);
+                } else {
+                    Method getter = (Method) member;
+                    String property = getter.getName().substring(getter.getName().startsWith("is") ? 2 : 3);
+                    getter.getDeclaringClass().getMethod("set" + property, getter.getReturnType()).invoke(target, value);
+                }
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Unable to write attribute " + member.getName(), e);
+            }
+        }
+
+        private Object instantiate() {
+            try {
+                Constructor<?> constructor = getType().getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create embedded object " + member.getName(), e);
+            }
+        }
+    }
+}
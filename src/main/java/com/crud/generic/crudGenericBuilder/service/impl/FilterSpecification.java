@@ -0,0 +1,88 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Translates a list of filters into one conjunction of Criteria API predicates.
+ * Values are bound as parameters after conversion to the attribute types, so the database compares
+ * the column directly and can use its index.
+ *
+ * @param <T> The entity type
+ */
+final class FilterSpecification<T> implements Specification<T> {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final List<Filter> filters;
+
+    FilterSpecification(List<Filter> filters) {
+        this.filters = filters;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        List<Predicate> predicates = new ArrayList<>(filters.size());
+        for (Filter filter : filters) {
+            predicates.add(toPredicate(filter, root.get(filter.getAttribute()), criteriaBuilder));
+        }
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate toPredicate(Filter filter, Path<?> path, CriteriaBuilder criteriaBuilder) {
+        Class<?> type = path.getJavaType();
+        Expression<Comparable> comparable = (Expression<Comparable>) path;
+        switch (filter.getOperator()) {
+            case EQ:
+                return criteriaBuilder.equal(path, AttributeValues.convert(filter.getValue(), type));
+            case NE:
+                return criteriaBuilder.notEqual(path, AttributeValues.convert(filter.getValue(), type));
+            case LT:
+                return criteriaBuilder.lessThan(comparable, (Comparable) AttributeValues.convert(filter.getValue(), type));
+            case LE:
+                return criteriaBuilder.lessThanOrEqualTo(comparable, (Comparable) AttributeValues.convert(filter.getValue(), type));
+            case GT:
+                return criteriaBuilder.greaterThan(comparable, (Comparable) AttributeValues.convert(filter.getValue(), type));
+            case GE:
+                return criteriaBuilder.greaterThanOrEqualTo(comparable, (Comparable) AttributeValues.convert(filter.getValue(), type));
+            case IN:
+                List<Object> values = new ArrayList<>();
+                for (Object value : (Collection<?>) filter.getValue()) {
+                    values.add(AttributeValues.convert(value, type));
+                }
+                return path.in(values);
+            case PREFIX:
+                if (type != String.class) {
+                    throw new IllegalArgumentException("The prefix operator needs a string attribute, not '" + filter.getAttribute() + "'");
+                }
+                return criteriaBuilder.like((Expression<String>) path, escapeLike(String.valueOf(filter.getValue())) + "%", LIKE_ESCAPE);
+            case NULL:
+                boolean isNull = (Boolean) AttributeValues.convert(filter.getValue(), Boolean.class);
+                return isNull ? criteriaBuilder.isNull(path) : criteriaBuilder.isNotNull(path);
+            default:
+                throw new IllegalArgumentException("Unsupported filter operator " + filter.getOperator());
+        }
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
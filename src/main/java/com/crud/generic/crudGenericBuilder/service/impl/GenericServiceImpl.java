@@ -1,60 +1,1111 @@
 package com.crud.generic.crudGenericBuilder.service.impl;
 
+import com.crud.generic.crudGenericBuilder.cache.CacheEntities;
+import com.crud.generic.crudGenericBuilder.cache.CaffeineEntityCache;
+import com.crud.generic.crudGenericBuilder.cache.CollapseLoads;
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+import com.crud.generic.crudGenericBuilder.metrics.CrudMetrics;
+import com.crud.generic.crudGenericBuilder.metrics.CrudMetricsFactory;
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
 import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.query.Filterable;
 import com.crud.generic.crudGenericBuilder.repository.GenericRepository;
+import com.crud.generic.crudGenericBuilder.service.CountStrategy;
 import com.crud.generic.crudGenericBuilder.service.GenericService;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generic implementation of the GenericService interface.
  * This class provides the implementation for basic CRUD operations.
+ * <p>
+ * The read methods run in read-only transactions when no transaction is active. Hibernate then keeps
+ * no dirty-checking snapshots of the loaded entities and never flushes, and the connection can be taken
+ * from a read replica. Called inside a read-write transaction, they join it and load writable entities.
  * 
  * @param <T> The entity type
  * @param <ID> The type of the entity's ID
  */
 public abstract class GenericServiceImpl<T extends BaseEntity<ID>, ID extends Serializable> implements GenericService<T, ID> {
 
+    private static final Sort ID_ORDER = Sort.by("id");
+
     protected final GenericRepository<T, ID> repository;
 
+    protected final EntityCache<ID, T> entityCache;
+
+    private final SingleFlight<ID, T> singleFlight;
+
+    private final Set<String> filterableAttributes;
+
+    protected EntityManager entityManager;
+
+    protected CrudMetrics metrics = CrudMetrics.noop();
+
+    private volatile EntityMetadata<T> entityMetadata;
+
+    private volatile Boolean singleStatementUpdate;
+    private volatile Boolean singleStatementDelete;
+
+    private volatile JpaEntityInformation<T, ?> entityInformation;
+
+    private volatile RowCountEstimator rowCountEstimator;
+
+    private final AtomicLong cachedCount = new AtomicLong();
+    private volatile long cachedCountExpiresAt;
+
+    private int maxPageSize = 1000;
+    private int batchSize = 50;
+    private int inListSize = 500;
+    private CountStrategy countStrategy = CountStrategy.EXACT;
+    private long countCacheTtlMillis = 10_000;
+
     /**
      * Constructor that takes a repository.
+     * The entity cache is enabled when the subclass is annotated with {@link CacheEntities},
+     * and concurrent loads are collapsed when it is annotated with {@link CollapseLoads}.
      * 
      * @param repository the repository to use
      */
     public GenericServiceImpl(GenericRepository<T, ID> repository) {
         this.repository = repository;
+        this.entityCache = createEntityCache(AnnotatedElementUtils.findMergedAnnotation(getClass(), CacheEntities.class));
+        this.singleFlight = createSingleFlight(AnnotatedElementUtils.findMergedAnnotation(getClass(), CollapseLoads.class));
+        this.filterableAttributes = findFilterableAttributes();
+    }
+
+    /**
+     * Constructor that takes a repository and the cache used by findById.
+     *
+     * @param repository the repository to use
+     * @param entityCache the entity cache to use, or {@link EntityCache#disabled()}
+     */
+    public GenericServiceImpl(GenericRepository<T, ID> repository, EntityCache<ID, T> entityCache) {
+        this.repository = repository;
+        this.entityCache = entityCache;
+        this.singleFlight = createSingleFlight(AnnotatedElementUtils.findMergedAnnotation(getClass(), CollapseLoads.class));
+        this.filterableAttributes = findFilterableAttributes();
+    }
+
+    private Set<String> findFilterableAttributes() {
+        Filterable filterable = AnnotatedElementUtils.findMergedAnnotation(getClass(), Filterable.class);
+        return filterable == null ? Set.of() : Set.copyOf(Arrays.asList(filterable.value()));
+    }
+
+    /**
+     * Creates the entity cache described by a {@link CacheEntities} annotation.
+     *
+     * @param cacheEntities the annotation of the service, or null
+     * @return the entity cache, disabled without the annotation
+     */
+    protected static <ID extends Serializable, T> EntityCache<ID, T> createEntityCache(CacheEntities cacheEntities) {
+        if (cacheEntities == null) {
+            return EntityCache.disabled();
+        }
+        return new CaffeineEntityCache<>(cacheEntities.maximumSize(), Duration.ofSeconds(cacheEntities.expireAfterWriteSeconds()));
+    }
+
+    /**
+     * Creates the single-flight described by a {@link CollapseLoads} annotation.
+     *
+     * @param collapseLoads the annotation of the service, or null
+     * @return the single-flight, or null without the annotation
+     */
+    protected static <ID, T> SingleFlight<ID, T> createSingleFlight(CollapseLoads collapseLoads) {
+        return collapseLoads == null ? null : new SingleFlight<>(Duration.ofMillis(collapseLoads.timeoutMillis()));
+    }
+
+    /**
+     * Returns the cache used by findById, which is disabled unless caching was enabled for this service.
+     * The service looks the cache up on every operation, so a subclass can partition it, for example per tenant.
+     *
+     * @return the entity cache
+     */
+    public EntityCache<ID, T> getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Sets the entity manager used for operations that go beyond the repository, such as detaching streamed entities.
+     *
+     * @param entityManager the shared entity manager
+     */
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Instruments the service operations with the metrics created by the given factory.
+     * Called automatically when a CrudMetricsFactory bean exists.
+     *
+     * @param metricsFactory the factory of the service metrics
+     */
+    @Autowired(required = false)
+    public void setMetricsFactory(CrudMetricsFactory metricsFactory) {
+        this.metrics = metricsFactory.create("service", getEntityClass());
+        metrics.monitor(entityCache);
+        if (singleFlight != null) {
+            metrics.monitor(singleFlight);
+        }
+    }
+
+    /**
+     * Sets the largest page size served by the paginated reads.
+     *
+     * @param maxPageSize the maximum number of entities per page
+     */
+    @Value("${crud.generic.max-page-size:1000}")
+    public void setMaxPageSize(int maxPageSize) {
+        if (maxPageSize < 1) {
+            throw new IllegalArgumentException("Max page size must be at least 1");
+        }
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Sets how many entities the batch operations write before flushing and clearing the persistence context.
+     * This should match the hibernate.jdbc.batch_size setting so each flush is sent as one JDBC batch.
+     *
+     * @param batchSize the number of entities per batch
+     */
+    @Value("${crud.generic.batch-size:50}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets how many ids the multi-get sends in one IN list. Databases limit the length of IN lists
+     * or the number of bind parameters, for example Oracle to 1000 expressions and SQL Server to 2100 parameters.
+     *
+     * @param inListSize the maximum number of ids per IN list
+     */
+    @Value("${crud.generic.in-list-size:500}")
+    public void setInListSize(int inListSize) {
+        if (inListSize < 1) {
+            throw new IllegalArgumentException("IN list size must be at least 1");
+        }
+        this.inListSize = inListSize;
+    }
+
+    /**
+     * Sets how {@link #count()} and the totals of paginated reads are computed.
+     *
+     * @param countStrategy the count strategy
+     */
+    @Value("${crud.generic.count-strategy:EXACT}")
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+        invalidateCount();
+    }
+
+    /**
+     * Sets how long the count of the {@link CountStrategy#CACHED} strategy is reused before it is read again.
+     *
+     * @param countCacheTtlSeconds the time to live of the cached count in seconds
+     */
+    @Value("${crud.generic.count-cache-ttl-seconds:10}")
+    public void setCountCacheTtlSeconds(long countCacheTtlSeconds) {
+        if (countCacheTtlSeconds < 0) {
+            throw new IllegalArgumentException("Count cache TTL must not be negative");
+        }
+        this.countCacheTtlMillis = countCacheTtlSeconds * 1000;
+        invalidateCount();
     }
 
     @Override
     public T save(T entity) {
-        return repository.save(entity);
+        return metrics.record(CrudOperation.SAVE, () -> {
+            detachIfReadOnly(entity);
+            boolean isNew = isNewForCount(entity);
+            T savedEntity = repository.save(entity);
+            evict(savedEntity.getId());
+            if (isNew) {
+                adjustCount(1);
+            }
+            return savedEntity;
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<T> saveAll(Collection<T> entities) {
+        metrics.recordRows(CrudOperation.SAVE_ALL, entities.size());
+        return metrics.record(CrudOperation.SAVE_ALL, () -> {
+            List<T> saved = new ArrayList<>(entities.size());
+            forEachBatch(entities, batch -> {
+                int inserted = 0;
+                for (T entity : batch) {
+                    detachIfReadOnly(entity);
+                    if (isNewForCount(entity)) {
+                        inserted++;
+                    }
+                    T savedEntity = repository.save(entity);
+                    evict(savedEntity.getId());
+                    saved.add(savedEntity);
+                }
+                adjustCount(inserted);
+                flushAndClear();
+            });
+            return saved;
+        });
+    }
+
+    /**
+     * Persists the entities instead of merging them, so no entity is selected before its insert,
+     * and flushes and clears the persistence context after each batch.
+     */
+    @Override
+    @Transactional
+    public List<T> insertAll(Collection<T> entities) {
+        metrics.recordRows(CrudOperation.INSERT_ALL, entities.size());
+        return metrics.record(CrudOperation.INSERT_ALL, () -> {
+            if (getEntityMetadata().hasGeneratedId() && entities.stream().anyMatch(entity -> entity.getId() != null)) {
+                throw new IllegalArgumentException("The ids of " + getEntityClass().getSimpleName()
+                        + " are generated, entities to insert must not carry one");
+            }
+            List<T> inserted = new ArrayList<>(entities.size());
+            forEachBatch(entities, batch -> {
+                for (T entity : batch) {
+                    entityManager.persist(entity);
+                    inserted.add(entity);
+                }
+                flushAndClear();
+                batch.forEach(entity -> evict(entity.getId()));
+                adjustCount(batch.size());
+            });
+            return inserted;
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<T> updateAll(Collection<T> entities) {
+        metrics.recordRows(CrudOperation.UPDATE_ALL, entities.size());
+        return metrics.record(CrudOperation.UPDATE_ALL, () -> {
+            List<T> updated = new ArrayList<>(entities.size());
+            forEachBatch(entities, batch -> {
+                // Distinct, since the same id may be updated twice in a batch
+                List<ID> ids = batch.stream().map(BaseEntity::getId).distinct().collect(Collectors.toList());
+                if (ids.contains(null)) {
+                    throw new IllegalArgumentException("Every entity to update must have an id");
+                }
+                // Loading the batch with one IN query puts it in the persistence context, so the merges below need no selects
+                Set<ID> existingIds = repository.findAllById(ids).stream().map(BaseEntity::getId).collect(Collectors.toSet());
+                if (existingIds.size() < ids.size()) {
+                    List<ID> missingIds = ids.stream().filter(id -> !existingIds.contains(id)).collect(Collectors.toList());
+                    throw new EntityNotFoundException("Entities with ids " + missingIds + " not found");
+                }
+                for (T entity : batch) {
+                    detachIfReadOnly(entity);
+                    updated.add(repository.save(entity));
+                    evict(entity.getId());
+                }
+                flushAndClear();
+            });
+            return updated;
+        });
+    }
+
+    /**
+     * Writes every updatable attribute of a plain entity with one JPQL update statement, see
+     * {@link EntityMetadata#supportsSingleStatementUpdate(Class)}. Because the statement bypasses the persistence context,
+     * an instance of the entity already loaded in the current persistence context is not refreshed.
+     * Other entities are loaded and merged, so cascades, callbacks and generated values apply, and the merged state is returned.
+     * When the entity has a version attribute and carries a version, the update only matches that version.
+     * If it no longer matches, an existence check decides between an empty result and an OptimisticLockException.
+     * The returned entity carries the version now stored in the database.
+     */
+    @Override
+    @Transactional
+    public Optional<T> updateIfExists(ID id, T entity) {
+        return metrics.record(CrudOperation.UPDATE, () -> {
+            if (!isSingleStatementUpdate()) {
+                return mergeIfExists(id, entity);
+            }
+            EntityMetadata<T> metadata = getEntityMetadata();
+            Object expectedVersion = metadata.getVersion(entity);
+            boolean checkVersion = expectedVersion != null;
+            Query update = entityManager.createQuery(checkVersion
+                    ? metadata.getVersionCheckedUpdateAllStatement() : metadata.getUpdateAllStatement());
+            int position = 0;
+            for (EntityMetadata.AttributeAccessor attribute : metadata.getUpdatableAttributes().values()) {
+                update.setParameter(++position, attribute.get(entity));
+            }
+            update.setParameter(position + 1, id);
+            if (checkVersion) {
+                update.setParameter(position + 2, expectedVersion);
+            }
+            int updated = update.executeUpdate();
+            evict(id);
+            if (updated == 0) {
+                if (checkVersion && repository.existsById(id)) {
+                    throw new OptimisticLockException("Entity with id " + id + " was modified, expected version " + expectedVersion);
+                }
+                return Optional.empty();
+            }
+            entity.setId(id);
+            if (checkVersion) {
+                metadata.incrementVersion(entity);
+            } else if (metadata.getVersionAttribute() != null) {
+                // The statement incremented a version the caller did not send, so read it back
+                metadata.setVersion(entity, entityManager
+                        .createQuery(metadata.selectStatement(List.of(metadata.getVersionAttribute()), true))
+                        .setParameter(1, id)
+                        .getSingleResult());
+            }
+            return Optional.of(entity);
+        });
+    }
+
+    private Optional<T> mergeIfExists(ID id, T entity) {
+        EntityMetadata<T> metadata = getEntityMetadata();
+        T existing = entityManager.find(getEntityClass(), id);
+        evict(id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        Object expectedVersion = metadata.getVersion(entity);
+        Object currentVersion = metadata.getVersion(existing);
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new OptimisticLockException("Entity with id " + id + " was modified, expected version " + expectedVersion);
+        }
+        Session session = entityManager.unwrap(Session.class);
+        if (session.isReadOnly(existing)) {
+            session.setReadOnly(existing, false);
+        }
+        entity.setId(id);
+        metadata.setVersion(entity, currentVersion);
+        metadata.touch(entity);
+        T merged = entityManager.merge(entity);
+        entityManager.flush();
+        return Optional.of(merged);
+    }
+
+    /**
+     * Builds the update statement of a plain entity from the supplied attribute paths only, so unchanged columns are not written.
+     * Like {@link #updateIfExists(Serializable, BaseEntity)}, the statement bypasses the persistence context.
+     * Other entities are loaded and the supplied attributes are set on them, so callbacks, listeners and custom update SQL
+     * apply when dirty checking flushes the changed columns.
+     */
+    @Override
+    @Transactional
+    public boolean patch(ID id, Map<String, Object> changes) {
+        return metrics.record(CrudOperation.PATCH, () -> {
+            EntityMetadata<T> metadata = getEntityMetadata();
+            Map<String, Object> values = new LinkedHashMap<>();
+            Object expectedVersion = null;
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                String path = change.getKey();
+                EntityMetadata.AttributeAccessor attribute = metadata.getUpdatableAttributes().get(path);
+                if (path.equals(metadata.getVersionAttribute())) {
+                    expectedVersion = change.getValue();
+                } else if (attribute != null) {
+                    values.put(path, AttributeValues.convert(change.getValue(), attribute.getType()));
+                } else if (change.getValue() != null || !clearEmbedded(metadata, path, values)) {
+                    throw new IllegalArgumentException("Unknown or read-only attribute '" + path + "'");
+                }
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("No attributes to update");
+            }
+            if (!isSingleStatementUpdate()) {
+                return patchIfExists(id, values, expectedVersion);
+            }
+            boolean checkVersion = expectedVersion != null;
+            Query update = entityManager.createQuery(metadata.updateStatement(values.keySet(), checkVersion));
+            int position = 0;
+            for (Object value : values.values()) {
+                update.setParameter(++position, value);
+            }
+            update.setParameter(position + 1, id);
+            if (checkVersion) {
+                update.setParameter(position + 2, AttributeValues.convert(expectedVersion, metadata.getVersionType()));
+            }
+            int updated = update.executeUpdate();
+            evict(id);
+            if (updated == 0 && checkVersion && repository.existsById(id)) {
+                throw new OptimisticLockException("Entity with id " + id + " was modified, expected version " + expectedVersion);
+            }
+            return updated > 0;
+        });
+    }
+
+    private boolean patchIfExists(ID id, Map<String, Object> values, Object expectedVersion) {
+        EntityMetadata<T> metadata = getEntityMetadata();
+        T existing = entityManager.find(getEntityClass(), id);
+        evict(id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null
+                && !AttributeValues.convert(expectedVersion, metadata.getVersionType()).equals(metadata.getVersion(existing))) {
+            throw new OptimisticLockException("Entity with id " + id + " was modified, expected version " + expectedVersion);
+        }
+        Session session = entityManager.unwrap(Session.class);
+        if (session.isReadOnly(existing)) {
+            session.setReadOnly(existing, false);
+        }
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            metadata.getUpdatableAttributes().get(value.getKey()).set(existing, value.getValue());
+        }
+        metadata.touch(existing);
+        entityManager.flush();
+        return true;
+    }
+
+    /**
+     * Clears every attribute of an embedded object, which is how Hibernate stores a null embedded object.
+     *
+     * @return false if the path is not an embedded object with updatable attributes
+     */
+    private static boolean clearEmbedded(EntityMetadata<?> metadata, String path, Map<String, Object> values) {
+        boolean cleared = false;
+        for (String attribute : metadata.getUpdatableAttributes().keySet()) {
+            if (attribute.startsWith(path + ".")) {
+                values.put(attribute, null);
+                cleared = true;
+            }
+        }
+        return cleared;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<T> findById(ID id) {
-        return repository.findById(id);
+        return metrics.record(CrudOperation.FIND_BY_ID, () -> {
+            EntityCache<ID, T> cache = getEntityCache();
+            if (cache == EntityCache.<ID, T>disabled()) {
+                return Optional.ofNullable(loadById(id));
+            }
+            // The cached instance is shared with other threads, so it must not stay attached to this caller's persistence context
+            return Optional.ofNullable(cache.get(id, key -> detach(loadById(key))));
+        });
+    }
+
+    private T loadById(ID id) {
+        SingleFlight<ID, T> flight = getSingleFlight();
+        // Inside a read-write transaction the caller must see its own uncommitted writes, which a shared load may not
+        if (flight == null || TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return repository.findById(id).orElse(null);
+        }
+        // The result is shared with other threads, so it must not stay attached to this caller's persistence context
+        return flight.load(id, () -> detach(repository.findById(id).orElse(null)));
     }
 
+    private T detach(T entity) {
+        if (entity != null && entityManager != null && entityManager.contains(entity)) {
+            entityManager.detach(entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Returns the single-flight that collapses concurrent loads of the same id, looked up on every load like the entity cache.
+     *
+     * @return the single-flight, or null when loads are not collapsed
+     */
+    protected SingleFlight<ID, T> getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Entities in the entity cache are taken from it, and the others are read with IN queries
+     * of at most the configured IN list size and then cached.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public List<T> findAllById(Collection<ID> ids) {
+        Set<ID> uniqueIds = new LinkedHashSet<>(ids);
+        // Checked on the copy, since immutable collections reject contains(null)
+        if (uniqueIds.contains(null)) {
+            throw new IllegalArgumentException("Ids must not be null");
+        }
+        if (uniqueIds.size() > maxPageSize) {
+            throw new IllegalArgumentException("At most " + maxPageSize + " ids can be read at once");
+        }
+        List<T> entities = metrics.record(CrudOperation.FIND_ALL_BY_ID, () -> {
+            EntityCache<ID, T> cache = getEntityCache();
+            boolean cached = cache != EntityCache.<ID, T>disabled();
+            Map<ID, T> found = cache.getAll(uniqueIds, missingIds -> loadAllById(missingIds, cached));
+            List<T> ordered = new ArrayList<>(found.size());
+            for (ID id : uniqueIds) {
+                T entity = found.get(id);
+                if (entity != null) {
+                    ordered.add(entity);
+                }
+            }
+            return ordered;
+        });
+        metrics.recordRows(CrudOperation.FIND_ALL_BY_ID, entities.size());
+        return entities;
+    }
+
+    private Map<ID, T> loadAllById(Set<ID> ids, boolean detach) {
+        Map<ID, T> loaded = new HashMap<>(ids.size() * 2);
+        forEachBatch(ids, inListSize, chunk -> {
+            for (T entity : repository.findAllById(chunk)) {
+                loaded.put(entity.getId(), detach ? detach(entity) : entity);
+            }
+        });
+        return loaded;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<T> findAll() {
-        return repository.findAll();
+        List<T> entities = metrics.record(CrudOperation.FIND_ALL, () -> repository.findAll());
+        metrics.recordRows(CrudOperation.FIND_ALL, entities.size());
+        return entities;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(ID id, Collection<String> fields) {
+        return metrics.record(CrudOperation.FIND_BY_ID, () -> {
+            List<String> attributes = getEntityMetadata().selection(fields);
+            List<Tuple> rows = entityManager.createQuery(getEntityMetadata().selectStatement(attributes, true), Tuple.class)
+                    .setParameter(1, id)
+                    .getResultList();
+            return rows.stream().findFirst().map(row -> toMap(attributes, row));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Collection<String> fields) {
+        List<Map<String, Object>> projections = metrics.record(CrudOperation.FIND_ALL, () -> {
+            List<String> attributes = getEntityMetadata().selection(fields);
+            List<Tuple> rows = entityManager.createQuery(getEntityMetadata().selectStatement(attributes, false), Tuple.class)
+                    .getResultList();
+            List<Map<String, Object>> result = new ArrayList<>(rows.size());
+            for (Tuple row : rows) {
+                result.add(toMap(attributes, row));
+            }
+            return result;
+        });
+        metrics.recordRows(CrudOperation.FIND_ALL, projections.size());
+        return projections;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CollectionVersion> findAllVersion() {
+        return metrics.record(CrudOperation.FIND_ALL_VERSION, () -> {
+            EntityMetadata<T> metadata = getEntityMetadata();
+            String statement = metadata.getCollectionVersionStatement();
+            if (statement == null) {
+                return Optional.empty();
+            }
+            Object[] row = (Object[]) entityManager.createQuery(statement).getSingleResult();
+            int column = 2;
+            Long versionSum = null;
+            Instant lastModified = null;
+            if (metadata.getVersionAttribute() != null) {
+                Number sum = (Number) row[column++];
+                versionSum = sum == null ? null : sum.longValue();
+            }
+            if (metadata.getLastModifiedAttribute() != null) {
+                lastModified = (Instant) row[column];
+            }
+            return Optional.of(new CollectionVersion(((Number) row[0]).longValue(), row[1], versionSum, lastModified));
+        });
+    }
+
+    private static Map<String, Object> toMap(List<String> attributes, Tuple row) {
+        Map<String, Object> values = new LinkedHashMap<>(attributes.size() * 2);
+        for (int i = 0; i < attributes.size(); i++) {
+            values.put(attributes.get(i), row.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * The sort attributes must be filterable, and the id is added as the last sort attribute so the pages are stable.
+     * With the exact count strategy, the total is counted by the repository. Otherwise the page is read
+     * without a count query, and the total comes from {@link #count()} when the page alone does not determine it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<T> findAll(Pageable pageable) {
+        Page<T> page = metrics.record(CrudOperation.FIND_PAGE, () -> {
+            Pageable request = PageRequest.of(pageable.getPageNumber(), boundedLimit(pageable.getPageSize()), checkedSort(pageable.getSort()));
+            if (countStrategy == CountStrategy.EXACT) {
+                return repository.findAll(request);
+            }
+            return PageableExecutionUtils.getPage(repository.findAllBy(request).getContent(), request, this::count);
+        });
+        metrics.recordRows(CrudOperation.FIND_PAGE, page.getNumberOfElements());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<T, ID> findAllAfter(ID after, int limit) {
+        KeysetPage<T, ID> page = metrics.record(CrudOperation.FIND_ALL_AFTER, () -> {
+            Pageable pageable = PageRequest.of(0, boundedLimit(limit), ID_ORDER);
+            Slice<T> slice = after == null ? repository.findAllBy(pageable) : repository.findByIdGreaterThan(after, pageable);
+            List<T> content = slice.getContent();
+            ID nextCursor = slice.hasNext() ? content.get(content.size() - 1).getId() : null;
+            return new KeysetPage<>(content, nextCursor);
+        });
+        metrics.recordRows(CrudOperation.FIND_ALL_AFTER, page.getContent().size());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<T> findAll(List<Filter> filters, Sort sort, int limit) {
+        List<T> entities = metrics.record(CrudOperation.FIND_FILTERED, () -> {
+            return filteredQuery(filters, sort).setMaxResults(boundedLimit(limit)).getResultList();
+        });
+        metrics.recordRows(CrudOperation.FIND_FILTERED, entities.size());
+        return entities;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<T> findAll(List<Filter> filters, Pageable pageable) {
+        Page<T> page = metrics.record(CrudOperation.FIND_FILTERED, () -> {
+            Pageable request = PageRequest.of(pageable.getPageNumber(), boundedLimit(pageable.getPageSize()), pageable.getSort());
+            List<T> content = filteredQuery(filters, request.getSort())
+                    .setFirstResult((int) request.getOffset())
+                    .setMaxResults(request.getPageSize())
+                    .getResultList();
+            return PageableExecutionUtils.getPage(content, request, () -> count(filters));
+        });
+        metrics.recordRows(CrudOperation.FIND_FILTERED, page.getNumberOfElements());
+        return page;
+    }
+
+    private TypedQuery<T> filteredQuery(List<Filter> filters, Sort sort) {
+        for (Filter filter : filters) {
+            checkFilterable(filter.getAttribute());
+        }
+        Sort order = checkedSort(sort);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        query.select(root)
+                .where(new FilterSpecification<T>(filters).toPredicate(root, query, criteriaBuilder))
+                .orderBy(QueryUtils.toOrders(order, root, criteriaBuilder));
+        return readOnly(entityManager.createQuery(query));
+    }
+
+    /**
+     * Checks that the sort attributes are filterable and adds the id as tiebreaker, so rows with equal sort values
+     * keep their order from one page to the next.
+     */
+    private Sort checkedSort(Sort sort) {
+        sort.forEach(order -> checkFilterable(order.getProperty()));
+        return sort.getOrderFor("id") == null ? sort.and(ID_ORDER) : sort;
+    }
+
+    /**
+     * Adds the Hibernate read-only and manual flush hints to a query run in a read-only transaction.
+     * Hibernate's dialect already sets both on the session when it begins the transaction,
+     * the hints keep the query read-only when the transaction was begun some other way.
+     */
+    private static <Q extends Query> Q readOnly(Q query) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            query.setHint(QueryHints.HINT_READONLY, true);
+            query.setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        }
+        return query;
+    }
+
+    /**
+     * Rejects attributes that are neither the id nor listed by {@link Filterable}.
+     *
+     * @param attribute the attribute to filter or sort on
+     */
+    protected void checkFilterable(String attribute) {
+        if (!"id".equals(attribute) && !filterableAttributes.contains(attribute)) {
+            throw new IllegalArgumentException("Attribute '" + attribute + "' is not filterable");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<? super T> consumer) {
+        long streamed = metrics.record(CrudOperation.STREAM_ALL, () -> stream(repository.streamAllBy(), consumer));
+        metrics.recordRows(CrudOperation.STREAM_ALL, streamed);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(ID from, ID to, Consumer<? super T> consumer) {
+        long streamed = metrics.record(CrudOperation.STREAM_ALL, () -> stream(
+                to == null ? repository.streamByIdFrom(from) : repository.streamByIdRange(from, to), consumer));
+        metrics.recordRows(CrudOperation.STREAM_ALL, streamed);
+    }
+
+    private long stream(Stream<T> source, Consumer<? super T> consumer) {
+        long count = 0;
+        try (Stream<T> entities = source) {
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                consumer.accept(entity);
+                entityManager.detach(entity);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ID> findChunkStarts(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        return metrics.record(CrudOperation.FIND_CHUNK_STARTS, () -> {
+            List<ID> starts = new ArrayList<>();
+            long index = 0;
+            try (Stream<ID> ids = repository.streamIdsBy()) {
+                Iterator<ID> iterator = ids.iterator();
+                while (iterator.hasNext()) {
+                    ID id = iterator.next();
+                    if (index++ % chunkSize == 0) {
+                        starts.add(id);
+                    }
+                }
+            }
+            return starts;
+        });
     }
 
     @Override
     public void deleteById(ID id) {
-        repository.deleteById(id);
+        metrics.record(CrudOperation.DELETE_BY_ID, () -> {
+            repository.deleteById(id);
+            evict(id);
+            adjustCount(-1);
+        });
+    }
+
+    /**
+     * Deletes a plain entity with one statement, see {@link EntityMetadata#supportsSingleStatementDelete(Class)}.
+     * Other entities are loaded and removed, so cascades, orphan removal and callbacks apply.
+     */
+    @Override
+    @Transactional
+    public boolean deleteIfExists(ID id) {
+        return metrics.record(CrudOperation.DELETE_BY_ID, () -> {
+            int deleted = isSingleStatementDelete() ? repository.deleteByIdReturningCount(id) : removeIfExists(id);
+            evict(id);
+            adjustCount(-deleted);
+            return deleted > 0;
+        });
+    }
+
+    private int removeIfExists(ID id) {
+        T existing = entityManager.find(getEntityClass(), id);
+        if (existing == null) {
+            return 0;
+        }
+        entityManager.remove(existing);
+        entityManager.flush();
+        return 1;
+    }
+
+    /**
+     * Deletes plain entities with one statement per batch, see {@link EntityMetadata#supportsSingleStatementDelete(Class)}.
+     * Other entities are loaded with one query per batch and removed, so cascades, callbacks and custom delete SQL apply.
+     */
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<ID> ids) {
+        metrics.recordRows(CrudOperation.DELETE_ALL_BY_ID, ids.size());
+        metrics.record(CrudOperation.DELETE_ALL_BY_ID, () -> forEachBatch(ids, batch -> {
+            if (isSingleStatementDelete()) {
+                repository.deleteAllByIdInBatch(batch);
+                // The batch delete does not report how many of the ids existed
+                invalidateCount();
+            } else {
+                List<T> existing = repository.findAllById(batch);
+                existing.forEach(entityManager::remove);
+                flushAndClear();
+                adjustCount(-existing.size());
+            }
+            batch.forEach(this::evict);
+        }));
     }
 
     @Override
     public void delete(T entity) {
-        repository.delete(entity);
+        metrics.record(CrudOperation.DELETE, () -> {
+            repository.delete(entity);
+            evict(entity.getId());
+            adjustCount(-1);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long count() {
-        return repository.count();
+        return metrics.record(CrudOperation.COUNT, () -> {
+            switch (countStrategy) {
+                case CACHED:
+                    return cachedCount();
+                case ESTIMATED:
+                    Long estimate = getRowCountEstimator().estimate(entityManager);
+                    return estimate != null ? estimate : repository.count();
+                default:
+                    return repository.count();
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(List<Filter> filters) {
+        if (filters.isEmpty()) {
+            return count();
+        }
+        return metrics.record(CrudOperation.COUNT, () -> {
+            for (Filter filter : filters) {
+                checkFilterable(filter.getAttribute());
+            }
+            return repository.count(new FilterSpecification<>(filters));
+        });
+    }
+
+    private long cachedCount() {
+        if (System.currentTimeMillis() < cachedCountExpiresAt) {
+            return cachedCount.get();
+        }
+        long count = repository.count();
+        cachedCount.set(count);
+        cachedCountExpiresAt = System.currentTimeMillis() + countCacheTtlMillis;
+        return count;
+    }
+
+    /**
+     * Applies an insert or delete made by the service to the cached count.
+     * If the surrounding transaction rolls back, the cached count is discarded instead.
+     *
+     * @param delta the number of inserted rows, negative for deleted rows
+     */
+    protected void adjustCount(long delta) {
+        if (countStrategy != CountStrategy.CACHED || delta == 0) {
+            return;
+        }
+        cachedCount.addAndGet(delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        invalidateCount();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Discards the cached count, so the next call to {@link #count()} reads it from the database.
+     */
+    protected void invalidateCount() {
+        cachedCountExpiresAt = 0;
+    }
+
+    /**
+     * Detaches an entity that a read-only method loaded into a persistence context that is still open,
+     * for example with open-session-in-view. Hibernate does not dirty-check read-only entities, so saving
+     * the modified instance would otherwise write nothing. The save then merges its state into a fresh copy.
+     */
+    private void detachIfReadOnly(T entity) {
+        if (entityManager != null && entity.getId() != null && entityManager.contains(entity)
+                && entityManager.unwrap(Session.class).isReadOnly(entity)) {
+            entityManager.detach(entity);
+        }
+    }
+
+    private boolean isNewForCount(T entity) {
+        if (countStrategy != CountStrategy.CACHED) {
+            return false;
+        }
+        JpaEntityInformation<T, ?> information = entityInformation;
+        if (information == null) {
+            information = JpaEntityInformationSupport.getEntityInformation(getEntityClass(), entityManager);
+            entityInformation = information;
+        }
+        return information.isNew(entity);
+    }
+
+    private RowCountEstimator getRowCountEstimator() {
+        RowCountEstimator estimator = rowCountEstimator;
+        if (estimator == null) {
+            estimator = RowCountEstimator.of(entityManager, getEntityClass());
+            rowCountEstimator = estimator;
+        }
+        return estimator;
+    }
+
+    /**
+     * Caps a requested page size to the configured maximum.
+     *
+     * @param limit the requested page size
+     * @return the page size to use
+     */
+    protected int boundedLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Returns the entity class, resolved from the type arguments of the subclass.
+     *
+     * @return the entity class
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<T> getEntityClass() {
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), GenericServiceImpl.class);
+        if (typeArguments == null || typeArguments[0] == null) {
+            throw new IllegalStateException("Unable to resolve the entity type of " + getClass().getName());
+        }
+        return (Class<T>) typeArguments[0];
+    }
+
+    private boolean isSingleStatementUpdate() {
+        Boolean supported = singleStatementUpdate;
+        if (supported == null) {
+            supported = EntityMetadata.supportsSingleStatementUpdate(getEntityClass());
+            singleStatementUpdate = supported;
+        }
+        return supported;
+    }
+
+    private boolean isSingleStatementDelete() {
+        Boolean supported = singleStatementDelete;
+        if (supported == null) {
+            supported = EntityMetadata.supportsSingleStatementDelete(getEntityClass());
+            singleStatementDelete = supported;
+        }
+        return supported;
+    }
+
+    private EntityMetadata<T> getEntityMetadata() {
+        EntityMetadata<T> metadata = entityMetadata;
+        if (metadata == null) {
+            metadata = EntityMetadata.of(entityManager, getEntityClass());
+            entityMetadata = metadata;
+        }
+        return metadata;
+    }
+
+    /**
+     * Removes an entity from the entity cache after it was written.
+     * Inside a transaction the entry is removed again after commit, so a concurrent read
+     * cannot put back the value that was committed before the write.
+     *
+     * @param id the id of the written entity
+     */
+    protected void evict(ID id) {
+        EntityCache<ID, T> cache = getEntityCache();
+        if (id == null || cache == EntityCache.<ID, T>disabled()) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Splits the given elements into consecutive batches of the configured batch size.
+     *
+     * @param elements the elements to split
+     * @param action the action to run for each batch
+     */
+    protected <E> void forEachBatch(Collection<E> elements, Consumer<List<E>> action) {
+        forEachBatch(elements, batchSize, action);
+    }
+
+    private static <E> void forEachBatch(Collection<E> elements, int batchSize, Consumer<List<E>> action) {
+        List<E> batch = new ArrayList<>(Math.min(elements.size(), batchSize));
+        for (E element : elements) {
+            batch.add(element);
+            if (batch.size() == batchSize) {
+                action.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            action.accept(batch);
+        }
+    }
+
+    /**
+     * Sends pending changes to the database and detaches the written entities,
+     * so the persistence context does not grow during batch operations.
+     */
+    protected void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
     }
-}
+}
\ No newline at end of file
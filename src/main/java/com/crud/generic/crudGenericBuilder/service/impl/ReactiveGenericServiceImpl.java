@@ -0,0 +1,143 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.repository.ReactiveGenericRepository;
+import com.crud.generic.crudGenericBuilder.service.ReactiveGenericService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Generic implementation of the ReactiveGenericService interface.
+ * This class provides the implementation for basic CRUD operations on a ReactiveGenericRepository.
+ * 
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public abstract class ReactiveGenericServiceImpl<T extends BaseEntity<ID>, ID extends Serializable> implements ReactiveGenericService<T, ID> {
+
+    private static final Sort ID_ORDER = Sort.by("id");
+
+    protected final ReactiveGenericRepository<T, ID> repository;
+
+    private int maxPageSize = 1000;
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param repository the repository to use
+     */
+    public ReactiveGenericServiceImpl(ReactiveGenericRepository<T, ID> repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Sets the largest page size served by the paginated reads.
+     *
+     * @param maxPageSize the maximum number of entities per page
+     */
+    @Value("${crud.generic.max-page-size:1000}")
+    public void setMaxPageSize(int maxPageSize) {
+        if (maxPageSize < 1) {
+            throw new IllegalArgumentException("Max page size must be at least 1");
+        }
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public Mono<T> save(T entity) {
+        return repository.save(entity);
+    }
+
+    @Override
+    public Flux<T> saveAll(Collection<T> entities) {
+        return repository.saveAll(entities);
+    }
+
+    /**
+     * Checks that the entity exists before saving it, because Spring Data R2DBC reports an UPDATE
+     * that matched no row with the same TransientDataAccessResourceException as a failing connection.
+     * Such failures are therefore passed on, including when the entity is deleted between the check and the update.
+     * The id is only set on the entity when the returned Mono is subscribed.
+     */
+    @Override
+    public Mono<T> updateIfExists(ID id, T entity) {
+        return repository.existsById(id).flatMap(exists -> {
+            if (!exists) {
+                return Mono.empty();
+            }
+            entity.setId(id);
+            return repository.save(entity);
+        });
+    }
+
+    @Override
+    public Mono<T> findById(ID id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return repository.findAll(ID_ORDER);
+    }
+
+    /**
+     * Reads one entity more than requested to find out whether a next page exists, so no count query is needed.
+     */
+    @Override
+    public Mono<KeysetPage<T, ID>> findAllAfter(ID after, int limit) {
+        return Mono.defer(() -> {
+            int pageSize = boundedLimit(limit);
+            Pageable pageable = PageRequest.of(0, pageSize + 1, ID_ORDER);
+            Flux<T> entities = after == null ? repository.findAllBy(pageable) : repository.findByIdGreaterThan(after, pageable);
+            return entities.collectList().map(content -> {
+                if (content.size() <= pageSize) {
+                    return new KeysetPage<>(content, null);
+                }
+                List<T> page = content.subList(0, pageSize);
+                return new KeysetPage<>(page, page.get(pageSize - 1).getId());
+            });
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(ID id) {
+        return repository.deleteById(id);
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfExists(ID id) {
+        return repository.removeById(id).map(deleted -> deleted > 0);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return repository.delete(entity);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return repository.count();
+    }
+
+    /**
+     * Caps a requested page size to the configured maximum.
+     *
+     * @param limit the requested page size
+     * @return the page size to use
+     */
+    protected int boundedLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+}
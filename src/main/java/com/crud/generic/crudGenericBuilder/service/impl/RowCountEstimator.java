@@ -0,0 +1,75 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Reads the estimated row count of an entity table from the statistics the database keeps for its query planner.
+ * The estimate costs one catalog lookup however large the table is, but it is only as recent as the last
+ * statistics update of the database.
+ */
+final class RowCountEstimator {
+
+    private final String statement;
+    private final String tableName;
+
+    private RowCountEstimator(String statement, String tableName) {
+        this.statement = statement;
+        this.tableName = tableName;
+    }
+
+    static RowCountEstimator of(EntityManager entityManager, Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityClass);
+        String tableName = persister instanceof AbstractEntityPersister ? ((AbstractEntityPersister) persister).getTableName() : null;
+        if (tableName == null) {
+            return new RowCountEstimator(null, null);
+        }
+        tableName = tableName.substring(tableName.lastIndexOf('.') + 1).replace("\"", "").replace("`", "");
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        if (dialect instanceof PostgreSQL81Dialect) {
+            return new RowCountEstimator("select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)", tableName);
+        }
+        if (dialect instanceof MySQLDialect) {
+            return new RowCountEstimator("select table_rows from information_schema.tables where table_schema = database() and table_name = ?1", tableName);
+        }
+        if (dialect instanceof SQLServerDialect) {
+            return new RowCountEstimator("select sum(rows) from sys.partitions where object_id = object_id(?1) and index_id in (0, 1)", tableName);
+        }
+        if (dialect instanceof Oracle8iDialect) {
+            return new RowCountEstimator("select num_rows from user_tables where table_name = upper(?1)", tableName);
+        }
+        if (dialect instanceof H2Dialect) {
+            return new RowCountEstimator("select row_count_estimate from information_schema.tables where table_schema = schema() and table_name = upper(?1)", tableName);
+        }
+        return new RowCountEstimator(null, tableName);
+    }
+
+    /**
+     * Returns the estimated number of rows of the table.
+     *
+     * @param entityManager the entity manager to run the lookup with
+     * @return the estimate, or null if the database has no supported statistics or no estimate for the table yet
+     */
+    Long estimate(EntityManager entityManager) {
+        if (statement == null) {
+            return null;
+        }
+        List<?> rows = entityManager.createNativeQuery(statement).setParameter(1, tableName).getResultList();
+        if (rows.isEmpty() || !(rows.get(0) instanceof Number)) {
+            return null;
+        }
+        long estimate = ((Number) rows.get(0)).longValue();
+        return estimate < 0 ? null : estimate;
+    }
+}
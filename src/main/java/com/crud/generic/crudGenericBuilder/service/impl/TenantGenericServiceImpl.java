@@ -0,0 +1,374 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.cache.CacheEntities;
+import com.crud.generic.crudGenericBuilder.cache.CollapseLoads;
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.model.TenantAware;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.repository.GenericRepository;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import com.crud.generic.crudGenericBuilder.service.CountStrategy;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GenericServiceImpl that serves many tenants, the tenant of each call being taken from {@link TenantContext}.
+ * Every call requires a tenant.
+ * <p>
+ * Entities implementing {@link TenantAware} share their table between tenants. Their queries run with the tenant filter
+ * of the entity enabled, saved entities get the current tenant, and the lookups by id, single-statement updates and
+ * deletes, which Hibernate filters do not cover, check the tenant of the row first. An entity of another tenant
+ * is treated as missing. Other entities are isolated by a DataSource per tenant, such as TenantRoutingDataSource.
+ * <p>
+ * The entity cache and the collapsed loads are partitioned per tenant, each partition with the settings of
+ * {@link CacheEntities} and {@link CollapseLoads}, so a busy tenant cannot evict the entries of the others.
+ * At most crud.generic.tenancy.max-tenants tenants get partitions, 1000 by default. Further tenants are served
+ * without cache and without collapsed loads, so unknown tenant ids cannot exhaust the memory.
+ * The count is always exact, since the cached and estimated counts are not kept per tenant. Another
+ * crud.generic.count-strategy is logged as a warning when it is set, and only skips the count query of paginated reads.
+ *
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public abstract class TenantGenericServiceImpl<T extends BaseEntity<ID>, ID extends Serializable> extends GenericServiceImpl<T, ID> {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantGenericServiceImpl.class);
+    private static final String TENANT_ATTRIBUTE = "tenantId";
+
+    private final boolean discriminator;
+    private final CacheEntities cacheEntities;
+    private final CollapseLoads collapseLoads;
+    private final Map<String, EntityCache<ID, T>> entityCaches = new ConcurrentHashMap<>();
+    private final Map<String, SingleFlight<ID, T>> singleFlights = new ConcurrentHashMap<>();
+    private int maxTenants = 1000;
+
+    /**
+     * Constructor that takes a repository.
+     *
+     * @param repository the repository to use
+     */
+    public TenantGenericServiceImpl(GenericRepository<T, ID> repository) {
+        super(repository, EntityCache.disabled());
+        this.discriminator = TenantAware.class.isAssignableFrom(getEntityClass());
+        this.cacheEntities = AnnotatedElementUtils.findMergedAnnotation(getClass(), CacheEntities.class);
+        this.collapseLoads = AnnotatedElementUtils.findMergedAnnotation(getClass(), CollapseLoads.class);
+    }
+
+    /**
+     * Sets the number of tenants that get their own entity cache and collapsed loads.
+     *
+     * @param maxTenants the maximum number of partitioned tenants
+     */
+    @Value("${crud.generic.tenancy.max-tenants:1000}")
+    public void setMaxTenants(int maxTenants) {
+        if (maxTenants < 0) {
+            throw new IllegalArgumentException("Max tenants must not be negative");
+        }
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * Sets the count strategy, of which tenant services only use the exact count.
+     *
+     * @param countStrategy the count strategy
+     */
+    @Override
+    public void setCountStrategy(CountStrategy countStrategy) {
+        super.setCountStrategy(countStrategy);
+        if (countStrategy != CountStrategy.EXACT) {
+            log.warn("{} counts {} entities exactly, since the {} count strategy is not kept per tenant",
+                    getClass().getSimpleName(), getEntityClass().getSimpleName(), countStrategy);
+        }
+    }
+
+    /**
+     * Returns the entity cache of the current tenant, or a disabled cache when the tenant has no partition.
+     */
+    @Override
+    public EntityCache<ID, T> getEntityCache() {
+        if (cacheEntities == null) {
+            return EntityCache.disabled();
+        }
+        EntityCache<ID, T> entityCache = partition(entityCaches, tenantId -> createEntityCache(cacheEntities));
+        return entityCache == null ? EntityCache.disabled() : entityCache;
+    }
+
+    @Override
+    protected SingleFlight<ID, T> getSingleFlight() {
+        if (collapseLoads == null) {
+            return null;
+        }
+        return partition(singleFlights, tenantId -> createSingleFlight(collapseLoads));
+    }
+
+    /**
+     * Returns the partition of the current tenant, created while there are fewer than max-tenants partitions.
+     * Partitions are created under the lock of their map, so concurrent new tenants cannot exceed the limit.
+     */
+    private <P> P partition(Map<String, P> partitions, Function<String, P> factory) {
+        String tenantId = TenantContext.requireTenantId();
+        P partition = partitions.get(tenantId);
+        if (partition != null || partitions.size() >= maxTenants) {
+            return partition;
+        }
+        synchronized (partitions) {
+            // A null partition is not stored, so the tenant is served without one
+            return partitions.computeIfAbsent(tenantId, id -> partitions.size() < maxTenants ? factory.apply(id) : null);
+        }
+    }
+
+    @Override
+    @Transactional
+    public T save(T entity) {
+        checkOwner(entity);
+        return super.save(entity);
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        entities.forEach(this::checkOwner);
+        return super.saveAll(entities);
+    }
+
+    @Override
+    public List<T> insertAll(Collection<T> entities) {
+        // An id of another tenant's row fails the insert, so the rows need no owner check
+        entities.forEach(this::setTenant);
+        return super.insertAll(entities);
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        entities.forEach(this::checkOwner);
+        return super.updateAll(entities);
+    }
+
+    @Override
+    public Optional<T> updateIfExists(ID id, T entity) {
+        if (!isOwned(id)) {
+            return Optional.empty();
+        }
+        setTenant(entity);
+        return super.updateIfExists(id, entity);
+    }
+
+    @Override
+    public boolean patch(ID id, Map<String, Object> changes) {
+        return isOwned(id) && super.patch(id, changes);
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        enableFilter();
+        // Loads by id bypass the filter, and the cache partition may hold an entity another tenant asked for
+        return super.findById(id).filter(this::isOwnedEntity);
+    }
+
+    @Override
+    public List<T> findAllById(Collection<ID> ids) {
+        enableFilter();
+        List<T> entities = super.findAllById(ids);
+        return discriminator ? entities.stream().filter(this::isOwnedEntity).collect(Collectors.toList()) : entities;
+    }
+
+    @Override
+    public List<T> findAll() {
+        enableFilter();
+        return super.findAll();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findById(ID id, Collection<String> fields) {
+        enableFilter();
+        return super.findById(id, fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findAll(Collection<String> fields) {
+        enableFilter();
+        return super.findAll(fields);
+    }
+
+    @Override
+    public Optional<CollectionVersion> findAllVersion() {
+        enableFilter();
+        return super.findAllVersion();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        enableFilter();
+        return super.findAll(pageable);
+    }
+
+    @Override
+    public KeysetPage<T, ID> findAllAfter(ID after, int limit) {
+        enableFilter();
+        return super.findAllAfter(after, limit);
+    }
+
+    @Override
+    public List<T> findAll(List<Filter> filters, Sort sort, int limit) {
+        enableFilter();
+        return super.findAll(filters, sort, limit);
+    }
+
+    @Override
+    public Page<T> findAll(List<Filter> filters, Pageable pageable) {
+        enableFilter();
+        return super.findAll(filters, pageable);
+    }
+
+    @Override
+    public void streamAll(Consumer<? super T> consumer) {
+        enableFilter();
+        super.streamAll(consumer);
+    }
+
+    @Override
+    public void streamAll(ID from, ID to, Consumer<? super T> consumer) {
+        enableFilter();
+        super.streamAll(from, to, consumer);
+    }
+
+    @Override
+    public List<ID> findChunkStarts(int chunkSize) {
+        enableFilter();
+        return super.findChunkStarts(chunkSize);
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(ID id) {
+        if (!isOwned(id)) {
+            throw new EmptyResultDataAccessException("No " + getEntityClass().getSimpleName() + " entity with id " + id + " exists", 1);
+        }
+        super.deleteById(id);
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteIfExists(ID id) {
+        return isOwned(id) && super.deleteIfExists(id);
+    }
+
+    @Override
+    public void deleteAllById(Collection<ID> ids) {
+        if (!discriminator) {
+            super.deleteAllById(ids);
+            return;
+        }
+        enableFilter();
+        List<ID> owned = new ArrayList<>(ids.size());
+        forEachBatch(ids, batch -> owned.addAll(findOwnedIds(batch)));
+        super.deleteAllById(owned);
+    }
+
+    @Override
+    @Transactional
+    public void delete(T entity) {
+        if (isOwned(entity.getId())) {
+            super.delete(entity);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        enableFilter();
+        return metrics.record(CrudOperation.COUNT, () -> repository.count());
+    }
+
+    @Override
+    public long count(List<Filter> filters) {
+        enableFilter();
+        return super.count(filters);
+    }
+
+    /**
+     * Enables the tenant filter of the entity on the session of the current transaction.
+     */
+    private void enableFilter() {
+        String tenantId = TenantContext.requireTenantId();
+        if (discriminator) {
+            entityManager.unwrap(Session.class).enableFilter(TenantAware.FILTER).setParameter(TenantAware.FILTER_PARAMETER, tenantId);
+        }
+    }
+
+    private void setTenant(T entity) {
+        String tenantId = TenantContext.requireTenantId();
+        if (discriminator) {
+            ((TenantAware) entity).setTenantId(tenantId);
+        }
+    }
+
+    /**
+     * Gives a saved entity the current tenant, and rejects it if its id belongs to a row of another tenant,
+     * which the save would otherwise overwrite.
+     */
+    private void checkOwner(T entity) {
+        enableFilter();
+        setTenant(entity);
+        if (discriminator && entity.getId() != null) {
+            // find reads the row whatever its tenant, which is what must be checked here
+            T existing = entityManager.find(getEntityClass(), entity.getId());
+            if (existing != null && !isOwnedEntity(existing)) {
+                throw new EntityNotFoundException("No " + getEntityClass().getSimpleName() + " entity with id " + entity.getId() + " exists");
+            }
+        }
+    }
+
+    private boolean isOwnedEntity(T entity) {
+        return !discriminator || TenantContext.requireTenantId().equals(((TenantAware) entity).getTenantId());
+    }
+
+    /**
+     * Checks that the row with the given id belongs to the current tenant, without loading it.
+     */
+    private boolean isOwned(ID id) {
+        enableFilter();
+        if (!discriminator || id == null) {
+            return id != null;
+        }
+        return !findOwnedIds(List.of(id)).isEmpty();
+    }
+
+    private List<ID> findOwnedIds(Collection<ID> candidates) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery();
+        Root<T> root = query.from(getEntityClass());
+        query.select(root.get("id"))
+                .where(root.get("id").in(candidates), criteriaBuilder.equal(root.get(TENANT_ATTRIBUTE), TenantContext.requireTenantId()));
+        @SuppressWarnings("unchecked")
+        List<ID> ids = (List<ID>) (List<?>) entityManager.createQuery(query).getResultList();
+        return ids;
+    }
+}
@@ -0,0 +1,393 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.repository.GenericRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * GenericServiceImpl that buffers the saves of existing entities and writes them behind the caller.
+ * Repeated saves of the same id before a flush are coalesced, so only the latest state is written.
+ * The buffer is flushed in batches, one transaction per batch, when it holds flush-size ids,
+ * about every flush-interval, and when the service is destroyed.
+ * <p>
+ * The buffer holds at most max-pending ids. A save of a new id into a full buffer flushes it on the caller's thread,
+ * which slows producers down to the rate the database accepts. Entities without an id are saved immediately,
+ * since the caller needs the generated id. findById returns buffered entities, and deletes discard them.
+ * Writes that bypass the buffer, such as updateIfExists and patch, may be overwritten by a later flush of the same id.
+ * When a batch fails, its entities are written one by one, so a failing entity does not hold back the others.
+ * A failed entity is put back unless a newer save replaced it, and retried on the next flush. After max-attempts
+ * failed writes it is dropped from the buffer and handed to {@link #onWriteFailed(BaseEntity, RuntimeException)}.
+ * <p>
+ * This suits entities that are saved very often and where losing the latest writes on a crash is acceptable,
+ * such as counters and last-seen timestamps.
+ *
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public abstract class WriteBehindGenericServiceImpl<T extends BaseEntity<ID>, ID extends Serializable>
+        extends GenericServiceImpl<T, ID> implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindGenericServiceImpl.class);
+
+    private final Map<ID, T> pending = new ConcurrentHashMap<>();
+    private final Map<ID, T> flushing = new ConcurrentHashMap<>();
+    private final Map<ID, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean destroyed;
+
+    private int flushSize = 500;
+    private int maxPending = 10_000;
+    private long flushIntervalMillis = 1000;
+    private int maxAttempts = 3;
+
+    /**
+     * Constructor that takes a repository.
+     *
+     * @param repository the repository to use
+     */
+    public WriteBehindGenericServiceImpl(GenericRepository<T, ID> repository) {
+        super(repository);
+    }
+
+    /**
+     * Constructor that takes a repository and the cache used by findById.
+     *
+     * @param repository the repository to use
+     * @param entityCache the entity cache to use, or {@link EntityCache#disabled()}
+     */
+    public WriteBehindGenericServiceImpl(GenericRepository<T, ID> repository, EntityCache<ID, T> entityCache) {
+        super(repository, entityCache);
+    }
+
+    /**
+     * Sets how many buffered ids trigger a flush before the flush interval elapses.
+     *
+     * @param flushSize the number of buffered ids that triggers a flush
+     */
+    @Value("${crud.generic.write-behind.flush-size:500}")
+    public void setFlushSize(int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("Flush size must be at least 1");
+        }
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Sets how many ids the buffer holds before saves of new ids wait for a flush.
+     *
+     * @param maxPending the maximum number of buffered ids
+     */
+    @Value("${crud.generic.write-behind.max-pending:10000}")
+    public void setMaxPending(int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Max pending must be at least 1");
+        }
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Sets the delay between the periodic flushes.
+     *
+     * @param flushIntervalMillis the flush interval in milliseconds
+     */
+    @Value("${crud.generic.write-behind.flush-interval-ms:1000}")
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        if (flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Flush interval must be at least 1 ms");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Sets how many times the write of a buffered entity is attempted before it is dropped from the buffer.
+     *
+     * @param maxAttempts the maximum number of write attempts per entity
+     */
+    @Value("${crud.generic.write-behind.max-attempts:3}")
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Buffers the entity when it has an id, replacing any buffered state of the same id.
+     * The returned entity is the given one, its changes are not yet in the database.
+     */
+    @Override
+    public T save(T entity) {
+        ID id = entity.getId();
+        if (id == null || destroyed) {
+            return super.save(entity);
+        }
+        while (!pending.containsKey(id) && pending.size() >= maxPending) {
+            // Backpressure: the caller pays for the flush instead of the buffer growing
+            flush();
+        }
+        // A new state of the entity gets its own write attempts
+        failedAttempts.remove(id);
+        if (pending.put(id, entity) == null) {
+            startScheduler();
+            if (pending.size() >= flushSize) {
+                requestFlush();
+            }
+        }
+        if (destroyed) {
+            // Raced with destroy, which may already have run its final flush
+            flush();
+        }
+        return entity;
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        T buffered = getBuffered(id);
+        return buffered != null ? Optional.of(buffered) : super.findById(id);
+    }
+
+    @Override
+    public List<T> findAllById(Collection<ID> ids) {
+        Map<ID, T> buffered = new HashMap<>();
+        List<ID> unbuffered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T entity = id == null ? null : getBuffered(id);
+            if (entity != null) {
+                buffered.put(id, entity);
+            } else {
+                unbuffered.add(id);
+            }
+        }
+        if (buffered.isEmpty()) {
+            return super.findAllById(ids);
+        }
+        for (T entity : super.findAllById(unbuffered)) {
+            buffered.put(entity.getId(), entity);
+        }
+        return ids.stream().distinct().map(buffered::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private T getBuffered(ID id) {
+        T entity = pending.get(id);
+        return entity != null ? entity : flushing.get(id);
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        withoutBuffered(List.of(id), () -> super.deleteById(id));
+    }
+
+    @Override
+    public boolean deleteIfExists(ID id) {
+        flushLock.lock();
+        try {
+            pending.remove(id);
+            failedAttempts.remove(id);
+            return super.deleteIfExists(id);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllById(Collection<ID> ids) {
+        withoutBuffered(ids, () -> super.deleteAllById(ids));
+    }
+
+    @Override
+    public void delete(T entity) {
+        withoutBuffered(List.of(entity.getId()), () -> super.delete(entity));
+    }
+
+    /**
+     * Discards the buffered saves of the ids and runs the delete while no flush is in progress,
+     * so a flush cannot write a deleted entity back.
+     */
+    private void withoutBuffered(Collection<ID> ids, Runnable delete) {
+        flushLock.lock();
+        try {
+            for (ID id : ids) {
+                pending.remove(id);
+                failedAttempts.remove(id);
+            }
+            delete.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of ids whose saves are buffered and not yet flushed.
+     *
+     * @return the number of buffered ids
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes every buffered save to the database, in batches of the configured batch size with one transaction per batch.
+     * Only one flush runs at a time, a concurrent call waits for the running one and then flushes what is left.
+     *
+     * @throws RuntimeException the first failed write, after every batch was attempted; the failed entities stay
+     * buffered until they reach the maximum number of attempts
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<T> drained = new ArrayList<>(pending.size());
+            for (ID id : pending.keySet()) {
+                // Moved atomically, so findById sees the entity in one of the maps until the batch is committed
+                pending.computeIfPresent(id, (key, entity) -> {
+                    flushing.put(key, entity);
+                    drained.add(entity);
+                    return null;
+                });
+            }
+            metrics.recordRows(CrudOperation.FLUSH, drained.size());
+            List<RuntimeException> failures = new ArrayList<>(1);
+            metrics.record(CrudOperation.FLUSH, () -> forEachBatch(drained, batch -> write(batch, failures)));
+            if (!failures.isEmpty()) {
+                throw failures.get(0);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<T> batch, List<RuntimeException> failures) {
+        try {
+            repository.saveAll(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                writeFailed(batch.get(0), e, failures);
+                return;
+            }
+            // Write the entities of the failed batch one by one, so only the failing ones are retried
+            for (T entity : batch) {
+                try {
+                    repository.save(entity);
+                } catch (RuntimeException entityFailure) {
+                    writeFailed(entity, entityFailure, failures);
+                    continue;
+                }
+                written(entity);
+            }
+            return;
+        }
+        batch.forEach(this::written);
+    }
+
+    private void written(T entity) {
+        // Evicted first, so a reader sees either the buffered entity or, once it is gone, the written row
+        evict(entity.getId());
+        failedAttempts.remove(entity.getId());
+        flushing.remove(entity.getId(), entity);
+    }
+
+    private void writeFailed(T entity, RuntimeException failure, List<RuntimeException> failures) {
+        ID id = entity.getId();
+        int attempts = failedAttempts.merge(id, 1, Integer::sum);
+        if (attempts >= maxAttempts) {
+            failedAttempts.remove(id);
+            flushing.remove(id, entity);
+            onWriteFailed(entity, failure);
+            return;
+        }
+        // Put back unless a newer save replaced it, before it leaves the flushing map so findById keeps seeing it
+        pending.putIfAbsent(id, entity);
+        flushing.remove(id, entity);
+        failures.add(failure);
+    }
+
+    /**
+     * Called with an entity that was dropped from the buffer because its write failed the maximum number of times,
+     * for example because it violates a constraint. Its state is lost unless this method keeps it.
+     * The default implementation logs the entity's id and the last failure.
+     *
+     * @param entity the dropped entity
+     * @param failure the failure of the last write attempt
+     */
+    protected void onWriteFailed(T entity, RuntimeException failure) {
+        log.error("Write-behind save of {} with id {} failed {} times and was dropped",
+                getEntityClass().getSimpleName(), entity.getId(), maxAttempts, failure);
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null && flushRequested.compareAndSet(false, true)) {
+            executor.execute(this::flushInBackground);
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of {} failed, {} entities stay buffered", getEntityClass().getSimpleName(), pending.size(), e);
+        }
+    }
+
+    private void startScheduler() {
+        if (scheduler != null) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler == null && !destroyed) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable, "crud-write-behind-" + getEntityClass().getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.scheduleWithFixedDelay(this::flushInBackground, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+                scheduler = executor;
+            }
+        }
+    }
+
+    /**
+     * Stops the background flushes and writes the remaining buffered saves.
+     * Later saves are written immediately.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            destroyed = true;
+            executor = scheduler;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        flush();
+    }
+}
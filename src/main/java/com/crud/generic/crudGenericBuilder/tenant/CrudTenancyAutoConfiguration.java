@@ -0,0 +1,121 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Auto-configuration of multi-tenancy, enabled with crud.generic.tenancy.enabled.
+ * <ul>
+ *     <li>The tenant of each request is read from the crud.generic.tenancy.header header, X-Tenant-ID by default,
+ *     on the requests matching crud.generic.tenancy.url-patterns. Requests without it are rejected
+ *     unless crud.generic.tenancy.required is false. When crud.generic.tenancy.tenants lists the known tenants,
+ *     requests with another tenant are rejected as well.</li>
+ *     <li>With crud.generic.tenancy.mode=datasource, each tenant gets its own connection pool from
+ *     crud.generic.tenancy.datasources.&lt;tenant&gt;.url, username, password, schema and maximum-pool-size.
+ *     Connections without a tenant use the pool of crud.generic.tenancy.default-tenant.</li>
+ *     <li>With crud.generic.tenancy.max-connections-per-tenant, each tenant holds at most that many connections
+ *     of the dataSource bean at once, waiting up to crud.generic.tenancy.acquire-timeout-ms for one.</li>
+ * </ul>
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnProperty(name = "crud.generic.tenancy.enabled", havingValue = "true")
+public class CrudTenancyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "crud.generic.tenancy.max-connections-per-tenant")
+    public static BeanPostProcessor crudTenantConnectionLimiter(Environment environment) {
+        // Read from the environment, since this post-processor is created before the placeholders of other beans are resolved
+        int maxConnectionsPerTenant = environment.getRequiredProperty("crud.generic.tenancy.max-connections-per-tenant", Integer.class);
+        long acquireTimeoutMillis = environment.getProperty("crud.generic.tenancy.acquire-timeout-ms", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof TenantLimitedDataSource)) {
+                    return new TenantLimitedDataSource((DataSource) bean, maxConnectionsPerTenant, Duration.ofMillis(acquireTimeoutMillis));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class TenantFilterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "crudTenantFilter")
+        public FilterRegistrationBean<TenantFilter> crudTenantFilter(
+                @Value("${crud.generic.tenancy.header:X-Tenant-ID}") String header,
+                @Value("${crud.generic.tenancy.required:true}") boolean required,
+                @Value("${crud.generic.tenancy.url-patterns:/*}") String[] urlPatterns,
+                @Value("${crud.generic.tenancy.tenants:}") String[] tenants) {
+            FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(
+                    new TenantFilter(header, required, Set.copyOf(Arrays.asList(tenants))));
+            registration.addUrlPatterns(urlPatterns);
+            registration.setAsyncSupported(true);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+            return registration;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    @ConditionalOnProperty(name = "crud.generic.tenancy.mode", havingValue = "datasource")
+    static class TenantDataSourceConfiguration {
+
+        @Bean
+        @Primary
+        public TenantRoutingDataSource dataSource(Environment environment,
+                                                  @Value("${crud.generic.tenancy.default-tenant:#{null}}") String defaultTenant) {
+            Map<String, TenantDataSourceProperties> properties = Binder.get(environment)
+                    .bind("crud.generic.tenancy.datasources", Bindable.mapOf(String.class, TenantDataSourceProperties.class))
+                    .orElse(Map.of());
+            if (properties.isEmpty()) {
+                throw new IllegalStateException("crud.generic.tenancy.mode=datasource needs crud.generic.tenancy.datasources");
+            }
+            Map<String, DataSource> tenants = new HashMap<>();
+            properties.forEach((tenantId, tenant) -> {
+                if (!TenantContext.isValid(tenantId)) {
+                    throw new IllegalStateException("Invalid tenant id '" + tenantId + "' in crud.generic.tenancy.datasources");
+                }
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(tenant.getUrl())
+                        .username(tenant.getUsername())
+                        .password(tenant.getPassword())
+                        .build();
+                dataSource.setSchema(tenant.getSchema());
+                dataSource.setMaximumPoolSize(tenant.getMaximumPoolSize());
+                dataSource.setPoolName("crud-tenant-" + tenantId);
+                tenants.put(tenantId, dataSource);
+            });
+            if (defaultTenant != null && !tenants.containsKey(defaultTenant)) {
+                throw new IllegalStateException("The default tenant '" + defaultTenant + "' has no DataSource");
+            }
+            return new TenantRoutingDataSource(tenants, defaultTenant == null ? null : tenants.get(defaultTenant));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the tenant of the current thread, set by {@link TenantFilter} from a request header.
+ * The tenant-aware services, the tenant routing DataSource and the per-tenant connection limits read it.
+ * Work handed to other threads must carry it over with {@link #propagate(Supplier)}, which CrudAsyncExecutor,
+ * the streaming responses of GenericController and EntityTransfer do.
+ */
+public final class TenantContext {
+
+    private static final Pattern VALID_TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final ThreadLocal<String> TENANT_ID = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Returns the tenant of the current thread.
+     *
+     * @return the tenant id, or null when no tenant is set
+     */
+    public static String getTenantId() {
+        return TENANT_ID.get();
+    }
+
+    /**
+     * Returns the tenant of the current thread, which must be set.
+     *
+     * @return the tenant id
+     * @throws IllegalStateException if no tenant is set
+     */
+    public static String requireTenantId() {
+        String tenantId = TENANT_ID.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant is set for the current thread");
+        }
+        return tenantId;
+    }
+
+    /**
+     * Sets the tenant of the current thread.
+     *
+     * @param tenantId the tenant id, letters, digits, '_' and '-' only, or null to clear it
+     * @throws IllegalArgumentException if the tenant id is not valid
+     */
+    public static void setTenantId(String tenantId) {
+        if (tenantId == null) {
+            TENANT_ID.remove();
+            return;
+        }
+        if (!isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant id '" + tenantId + "'");
+        }
+        TENANT_ID.set(tenantId);
+    }
+
+    /**
+     * Checks that a tenant id has at most 64 letters, digits, '_' and '-', so it can safely name caches, pools and schemas.
+     *
+     * @param tenantId the tenant id to check
+     * @return true if the tenant id is valid
+     */
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_TENANT_ID.matcher(tenantId).matches();
+    }
+
+    /**
+     * Clears the tenant of the current thread.
+     */
+    public static void clear() {
+        TENANT_ID.remove();
+    }
+
+    /**
+     * Runs an operation as the given tenant and restores the previous tenant afterwards.
+     *
+     * @param tenantId the tenant id
+     * @param operation the operation to run
+     * @return the result of the operation
+     */
+    public static <R> R callAs(String tenantId, Supplier<R> operation) {
+        String previous = TENANT_ID.get();
+        setTenantId(tenantId);
+        try {
+            return operation.get();
+        } finally {
+            setTenantId(previous);
+        }
+    }
+
+    /**
+     * Wraps an operation so it runs as the tenant of the calling thread, on whichever thread runs it.
+     *
+     * @param operation the operation to wrap
+     * @return the operation, unchanged when no tenant is set
+     */
+    public static <R> Supplier<R> propagate(Supplier<R> operation) {
+        String tenantId = TENANT_ID.get();
+        return tenantId == null ? operation : () -> callAs(tenantId, operation);
+    }
+
+    /**
+     * Wraps an operation so it runs as the tenant of the calling thread, on whichever thread runs it.
+     *
+     * @param operation the operation to wrap
+     * @return the operation, unchanged when no tenant is set
+     */
+    public static Runnable propagate(Runnable operation) {
+        String tenantId = TENANT_ID.get();
+        return tenantId == null ? operation : () -> callAs(tenantId, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps an operation so it runs as the tenant of the calling thread, on whichever thread runs it.
+     *
+     * @param operation the operation to wrap
+     * @return the operation, unchanged when no tenant is set
+     */
+    public static <R> Callable<R> propagate(Callable<R> operation) {
+        String tenantId = TENANT_ID.get();
+        if (tenantId == null) {
+            return operation;
+        }
+        return () -> {
+            String previous = TENANT_ID.get();
+            setTenantId(tenantId);
+            try {
+                return operation.call();
+            } finally {
+                setTenantId(previous);
+            }
+        };
+    }
+}
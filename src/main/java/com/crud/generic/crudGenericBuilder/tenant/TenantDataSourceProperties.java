@@ -0,0 +1,63 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+/**
+ * The connection settings of one tenant, bound from crud.generic.tenancy.datasources.&lt;tenant&gt;.
+ */
+public class TenantDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private String schema;
+    private int maximumPoolSize = 10;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Returns the schema the connections of the tenant use, for a schema per tenant in a shared database.
+     *
+     * @return the schema, or null for the default schema of the connection
+     */
+    public String getSchema() {
+        return schema;
+    }
+
+    public void setSchema(String schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Returns the size of the tenant's connection pool, which bounds the connections the tenant can use.
+     *
+     * @return the maximum number of connections
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+}
@@ -0,0 +1,75 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Servlet filter that sets the {@link TenantContext} of each request from a request header.
+ * Requests with an invalid tenant id are rejected with 400, and so are requests without one when the tenant is required
+ * and, when the known tenants are given, requests with another tenant. Without them, any valid tenant id is accepted,
+ * and each gets its own partitions and connection limit.
+ * The tenant is cleared when the request completes. Asynchronous processing on other threads must propagate it.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final String headerName;
+    private final boolean required;
+    private final Set<String> tenants;
+
+    /**
+     * Constructor that takes the tenant header and accepts any valid tenant id.
+     *
+     * @param headerName the name of the header holding the tenant id
+     * @param required true to reject requests without the header
+     */
+    public TenantFilter(String headerName, boolean required) {
+        this(headerName, required, Set.of());
+    }
+
+    /**
+     * Constructor that takes the tenant header and the known tenants.
+     *
+     * @param headerName the name of the header holding the tenant id
+     * @param required true to reject requests without the header
+     * @param tenants the accepted tenant ids, or an empty set to accept any valid tenant id
+     */
+    public TenantFilter(String headerName, boolean required, Set<String> tenants) {
+        this.headerName = headerName;
+        this.required = required;
+        this.tenants = Set.copyOf(tenants);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The async dispatch runs on another container thread, which needs the tenant again
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(headerName);
+        if (tenantId == null ? required : !TenantContext.isValid(tenantId)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), tenantId == null
+                    ? "Missing " + headerName + " header" : "Invalid " + headerName + " header");
+            return;
+        }
+        if (tenantId != null && !tenants.isEmpty() && !tenants.contains(tenantId)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown tenant in " + headerName + " header");
+            return;
+        }
+        TenantContext.setTenantId(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource that limits how many connections of a shared pool each tenant holds at once,
+ * so a busy tenant cannot take every connection. A tenant at its limit waits up to the acquire timeout
+ * for one of its connections to be closed, then fails with a SQLTransientConnectionException.
+ * Connections taken without a tenant are not limited. A tenant is only tracked while it holds or waits for connections,
+ * so the number of tracked tenants stays bounded by the pool however many tenant ids are seen.
+ */
+public class TenantLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final int maxConnectionsPerTenant;
+    private final long acquireTimeoutNanos;
+    private final Map<String, TenantPermits> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that takes the shared DataSource and the limit.
+     *
+     * @param targetDataSource the shared DataSource
+     * @param maxConnectionsPerTenant the maximum number of open connections per tenant
+     * @param acquireTimeout how long a tenant at its limit waits for a connection
+     */
+    public TenantLimitedDataSource(DataSource targetDataSource, int maxConnectionsPerTenant, Duration acquireTimeout) {
+        super(targetDataSource);
+        if (maxConnectionsPerTenant < 1) {
+            throw new IllegalArgumentException("Max connections per tenant must be at least 1");
+        }
+        this.maxConnectionsPerTenant = maxConnectionsPerTenant;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limit(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limit(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * Returns the number of connections the tenant can still open.
+     *
+     * @param tenantId the tenant id
+     * @return the number of available connections
+     */
+    public int getAvailableConnections(String tenantId) {
+        TenantPermits tenantPermits = permits.get(tenantId);
+        return tenantPermits == null ? maxConnectionsPerTenant : tenantPermits.semaphore.availablePermits();
+    }
+
+    /**
+     * Returns the number of tenants that hold or wait for connections.
+     *
+     * @return the number of tracked tenants
+     */
+    public int getActiveTenants() {
+        return permits.size();
+    }
+
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            return supplier.get();
+        }
+        Semaphore semaphore = enter(tenantId);
+        Connection connection;
+        try {
+            try {
+                if (!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new SQLTransientConnectionException("Tenant " + tenantId + " has all of its "
+                            + maxConnectionsPerTenant + " connections in use");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a connection of tenant " + tenantId, e);
+            }
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            leave(tenantId);
+            throw e;
+        }
+        return releasingOnClose(connection, () -> {
+            semaphore.release();
+            leave(tenantId);
+        });
+    }
+
+    /**
+     * Registers a user of the permits of a tenant, creating them for its first user.
+     */
+    private Semaphore enter(String tenantId) {
+        return permits.compute(tenantId, (key, current) -> {
+            TenantPermits tenantPermits = current == null ? new TenantPermits(maxConnectionsPerTenant) : current;
+            tenantPermits.users++;
+            return tenantPermits;
+        }).semaphore;
+    }
+
+    /**
+     * Unregisters a user of the permits of a tenant, dropping them with their last user, when every permit is back.
+     */
+    private void leave(String tenantId) {
+        permits.computeIfPresent(tenantId, (key, current) -> --current.users == 0 ? null : current);
+    }
+
+    private static Connection releasingOnClose(Connection connection, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(TenantLimitedDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                release.run();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Closes the shared DataSource if it can be closed, such as a connection pool.
+     */
+    @Override
+    public void close() throws Exception {
+        DataSource target = getTargetDataSource();
+        if (target instanceof AutoCloseable) {
+            ((AutoCloseable) target).close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * The permits of a tenant and the number of threads holding or waiting for them,
+     * which is only changed within the map's compute functions.
+     */
+    private static final class TenantPermits {
+
+        private final Semaphore semaphore;
+        private int users;
+
+        private TenantPermits(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+}
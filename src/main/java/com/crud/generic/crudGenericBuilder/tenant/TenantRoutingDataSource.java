@@ -0,0 +1,53 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource that takes the connections of each tenant from the tenant's own DataSource, for a database or schema
+ * per tenant. Each tenant has its own connection pool, so a tenant can only exhaust its own connections.
+ * <p>
+ * Connections taken without a tenant, such as Hibernate's metadata lookup at startup, come from the default DataSource.
+ * A tenant without a DataSource is rejected.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<String, DataSource> tenants;
+
+    /**
+     * Constructor that takes the DataSources of the tenants.
+     *
+     * @param tenants the DataSource of each tenant id
+     * @param defaultDataSource the DataSource used without a tenant, or null to reject connections without a tenant
+     */
+    public TenantRoutingDataSource(Map<String, DataSource> tenants, DataSource defaultDataSource) {
+        this.tenants = Map.copyOf(tenants);
+        setTargetDataSources(new HashMap<>(tenants));
+        if (defaultDataSource != null) {
+            setDefaultTargetDataSource(defaultDataSource);
+        }
+        // A tenant without a DataSource must not fall back to the default one
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.getTenantId();
+    }
+
+    /**
+     * Closes the DataSources of the tenants that can be closed, such as connection pools.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource tenant : tenants.values()) {
+            if (tenant instanceof AutoCloseable) {
+                ((AutoCloseable) tenant).close();
+            }
+        }
+    }
+}
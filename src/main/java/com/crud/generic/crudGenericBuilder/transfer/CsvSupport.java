@@ -0,0 +1,37 @@
+package com.crud.generic.crudGenericBuilder.transfer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * The CSV readers and writers, kept apart so jackson-dataformat-csv is only loaded when the CSV format is used.
+ */
+final class CsvSupport {
+
+    private static final CsvMapper MAPPER = CsvMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    private CsvSupport() {
+    }
+
+    static ObjectWriter writer(Class<?> entityType) {
+        return MAPPER.writer(schema(entityType));
+    }
+
+    static ObjectReader reader(Class<?> entityType) {
+        return MAPPER.readerFor(entityType).with(schema(entityType));
+    }
+
+    private static CsvSchema schema(Class<?> entityType) {
+        return MAPPER.schemaFor(entityType).withHeader();
+    }
+}
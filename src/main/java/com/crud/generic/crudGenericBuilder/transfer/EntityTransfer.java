@@ -0,0 +1,370 @@
+package com.crud.generic.crudGenericBuilder.transfer;
+
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.service.GenericService;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.GenericTypeResolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Exports the entities of a GenericService to files and imports them back, in parallel chunks.
+ * <p>
+ * The export splits the ids into chunks of chunk-size entities with {@link GenericService#findChunkStarts(int)}
+ * and records them in a manifest. Each chunk is then streamed in its own read-only transaction and written
+ * to its own file through a buffered file channel, on a pool of parallelism workers. The import reads the chunk files
+ * on the same pool and inserts each with {@link GenericService#insertAll(java.util.Collection)}, one transaction per chunk,
+ * so the rows are written in JDBC batches without being selected first. Each worker holds a database connection,
+ * so parallelism should not exceed the connection pool size.
+ * <p>
+ * Assigned ids are imported as exported. Generated ids cannot be kept, so the import of an entity with generated ids
+ * is rejected unless {@link #setAssignNewIds(boolean)} allows the database to give the rows new ids.
+ * The workers run as the tenant of the calling thread, see {@link TenantContext}.
+ * <p>
+ * Runs can be resumed. A chunk file only gets its final name once it is completely written, and an imported chunk
+ * is marked with an empty file. Running the same export or import again on the directory skips the finished chunks,
+ * and a resumed export keeps the chunks of its manifest, so rows inserted since then are only exported
+ * when their ids fall into an unfinished chunk. A chunk whose import committed just before a crash is imported again:
+ * with assigned ids it then fails on the existing ids and must be marked as imported by hand,
+ * and with new ids its entities are inserted a second time.
+ * <p>
+ * Saves buffered by a write-behind service are not exported until they are flushed.
+ *
+ * @param <T> The entity type
+ * @param <ID> The type of the entity's ID
+ */
+public class EntityTransfer<T extends BaseEntity<ID>, ID extends Serializable> {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityTransfer.class);
+
+    static final String MANIFEST = "manifest.json";
+    static final String PART_SUFFIX = ".part";
+    static final String IMPORTED_SUFFIX = ".imported";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INTERRUPT_CHECK_ROWS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final GenericService<T, ID> service;
+    private final Class<T> entityType;
+    private final Class<?> idType;
+    private final ObjectMapper objectMapper;
+
+    private int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+    private int chunkSize = 10_000;
+    private boolean assignNewIds;
+    private Consumer<TransferProgress> progressListener = progress -> {
+    };
+
+    /**
+     * Constructor that takes the service of the entities and the ObjectMapper used for NDJSON and the manifest.
+     *
+     * @param service the service that reads and saves the entities
+     * @param entityType the entity class
+     * @param objectMapper the ObjectMapper of the application
+     */
+    public EntityTransfer(GenericService<T, ID> service, Class<T> entityType, ObjectMapper objectMapper) {
+        this.service = service;
+        this.entityType = entityType;
+        this.objectMapper = objectMapper;
+        Class<?> resolvedIdType = GenericTypeResolver.resolveTypeArgument(entityType, BaseEntity.class);
+        this.idType = resolvedIdType != null ? resolvedIdType : Object.class;
+    }
+
+    /**
+     * Sets the number of chunks read or written at the same time, by default the number of cores up to 8.
+     *
+     * @param parallelism the number of workers
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of entities per chunk of a new export. An import holds a whole chunk in memory per worker.
+     *
+     * @param chunkSize the number of entities per chunk
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets whether the import drops the exported ids, so entities with generated ids are inserted with new ids.
+     * Without it, importing entities with generated ids fails before any row is inserted.
+     *
+     * @param assignNewIds true to insert the imported entities with new ids
+     */
+    public void setAssignNewIds(boolean assignNewIds) {
+        this.assignNewIds = assignNewIds;
+    }
+
+    /**
+     * Sets the listener called on the calling thread after each finished chunk.
+     *
+     * @param progressListener the listener of the progress
+     */
+    public void setProgressListener(Consumer<TransferProgress> progressListener) {
+        this.progressListener = Objects.requireNonNull(progressListener);
+    }
+
+    /**
+     * Exports every entity into chunk files in the given directory, or finishes an interrupted export there.
+     *
+     * @param directory the directory of the export, created if missing
+     * @param format the format of the chunk files
+     * @return the progress at the end of the export
+     * @throws IOException if a file cannot be written; the finished chunks are kept for a resumed run
+     * @throws IllegalStateException if the directory holds an export in another format
+     */
+    public TransferProgress exportTo(Path directory, TransferFormat format) throws IOException {
+        Files.createDirectories(directory);
+        List<ID> starts = readManifest(directory, format);
+        if (starts == null) {
+            starts = service.findChunkStarts(chunkSize);
+            writeManifest(directory, format, starts);
+        }
+        ObjectWriter writer = format.writer(objectMapper, entityType);
+        List<Callable<Long>> pending = new ArrayList<>();
+        for (int i = 0; i < starts.size(); i++) {
+            ID from = starts.get(i);
+            ID to = i + 1 < starts.size() ? starts.get(i + 1) : null;
+            Path file = chunkFile(directory, format, i);
+            if (!Files.exists(file)) {
+                pending.add(() -> exportChunk(file, format, writer, from, to));
+            }
+        }
+        TransferProgress progress = run(starts.size(), pending);
+        log.info("Exported {} of {} to {}: {}", format, entityType.getSimpleName(), directory, progress);
+        return progress;
+    }
+
+    private long exportChunk(Path file, TransferFormat format, ObjectWriter writer, ID from, ID to) throws IOException {
+        checkInterrupted();
+        Path part = file.resolveSibling(file.getFileName() + PART_SUFFIX);
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            SequenceWriter values = writer.writeValues(out);
+            long[] count = {0};
+            try {
+                service.streamAll(from, to, entity -> {
+                    try {
+                        if (++count[0] % INTERRUPT_CHECK_ROWS == 0) {
+                            checkInterrupted();
+                        }
+                        values.write(entity);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            rows = count[0];
+            values.flush();
+            if (format == TransferFormat.NDJSON && rows > 0) {
+                out.write('\n');
+            }
+            out.flush();
+            // Durable before it gets its final name, so a resumed run never skips a chunk lost in a crash
+            channel.force(false);
+            values.close();
+        }
+        Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    /**
+     * Imports the chunk files of a finished export in the given directory, or finishes an interrupted import of them.
+     *
+     * @param directory the directory of the export
+     * @param format the format of the chunk files
+     * @return the progress at the end of the import
+     * @throws IOException if a file cannot be read; the imported chunks are kept marked for a resumed run
+     * @throws IllegalStateException if the directory does not hold a finished export in the given format
+     */
+    public TransferProgress importFrom(Path directory, TransferFormat format) throws IOException {
+        List<ID> starts = readManifest(directory, format);
+        if (starts == null) {
+            throw new IllegalStateException("No export found in " + directory);
+        }
+        ObjectReader reader = format.reader(objectMapper, entityType);
+        List<Callable<Long>> pending = new ArrayList<>();
+        for (int i = 0; i < starts.size(); i++) {
+            Path file = chunkFile(directory, format, i);
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("The export in " + directory + " is not finished, " + file.getFileName() + " is missing");
+            }
+            Path marker = file.resolveSibling(file.getFileName() + IMPORTED_SUFFIX);
+            if (!Files.exists(marker)) {
+                pending.add(() -> importChunk(file, marker, reader));
+            }
+        }
+        TransferProgress progress = run(starts.size(), pending);
+        log.info("Imported {} of {} from {}: {}", format, entityType.getSimpleName(), directory, progress);
+        return progress;
+    }
+
+    private long importChunk(Path file, Path marker, ObjectReader reader) throws IOException {
+        checkInterrupted();
+        List<T> entities = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             MappingIterator<T> values = reader.readValues(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE))) {
+            while (values.hasNextValue()) {
+                T entity = values.nextValue();
+                if (assignNewIds) {
+                    entity.setId(null);
+                }
+                entities.add(entity);
+                if (entities.size() % INTERRUPT_CHECK_ROWS == 0) {
+                    checkInterrupted();
+                }
+            }
+        }
+        checkInterrupted();
+        service.insertAll(entities);
+        Files.createFile(marker);
+        return entities.size();
+    }
+
+    /**
+     * Stops a worker whose run was cancelled, between rows and before its chunk is saved.
+     * A statement that is already running is not interrupted, so the run waits for it, see {@link #run(int, List)}.
+     */
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Chunk transfer cancelled");
+        }
+    }
+
+    /**
+     * Runs the pending chunks on a new pool of workers and reports the progress on the calling thread.
+     * The first failure stops the run: the other chunks are cancelled, the run waits up to 30 seconds
+     * for the running ones to stop, and the failure is thrown.
+     */
+    private TransferProgress run(int totalChunks, List<Callable<Long>> pending) throws IOException {
+        int resumed = totalChunks - pending.size();
+        TransferProgress progress = new TransferProgress(totalChunks, resumed, resumed, 0);
+        if (pending.isEmpty()) {
+            return progress;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, pending.size()), runnable -> {
+            Thread thread = new Thread(runnable, "crud-transfer-" + entityType.getSimpleName() + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<Long> completion = new ExecutorCompletionService<>(executor);
+            pending.forEach(chunk -> completion.submit(TenantContext.propagate(chunk)));
+            for (int i = 0; i < pending.size(); i++) {
+                long rows = completion.take().get();
+                progress = new TransferProgress(totalChunks, progress.getCompletedChunks() + 1, resumed, progress.getRows() + rows);
+                progressListener.accept(progress);
+            }
+            return progress;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Transfer of " + entityType.getSimpleName() + " interrupted at " + progress);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Transfer workers of {} still running {} seconds after the transfer stopped",
+                        entityType.getSimpleName(), SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path chunkFile(Path directory, TransferFormat format, int index) {
+        return directory.resolve(String.format("chunk-%06d.%s", index, format.getExtension()));
+    }
+
+    private List<ID> readManifest(Path directory, TransferFormat format) throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return null;
+        }
+        JsonNode root = objectMapper.readTree(manifest.toFile());
+        if (!format.name().equals(root.path("format").asText())) {
+            throw new IllegalStateException(directory + " holds a " + root.path("format").asText() + " export, not " + format);
+        }
+        List<ID> starts = new ArrayList<>();
+        for (JsonNode start : root.path("chunkStarts")) {
+            @SuppressWarnings("unchecked")
+            ID id = (ID) objectMapper.convertValue(start, idType);
+            starts.add(id);
+        }
+        return starts;
+    }
+
+    private void writeManifest(Path directory, TransferFormat format, List<ID> starts) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("entity", entityType.getName());
+        root.put("format", format.name());
+        root.set("chunkStarts", objectMapper.valueToTree(starts));
+        Path part = directory.resolve(MANIFEST + PART_SUFFIX);
+        objectMapper.writeValue(part.toFile(), root);
+        Files.move(part, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,51 @@
+package com.crud.generic.crudGenericBuilder.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * The file formats of {@link EntityTransfer}.
+ */
+public enum TransferFormat {
+
+    /**
+     * One JSON entity per line, written with the application's ObjectMapper.
+     */
+    NDJSON("ndjson"),
+
+    /**
+     * Comma-separated values with a header row, one column per entity property.
+     * Needs com.fasterxml.jackson.dataformat:jackson-dataformat-csv and suits entities without nested objects.
+     */
+    CSV("csv");
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the file extension of the chunk files.
+     *
+     * @return the extension, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    ObjectWriter writer(ObjectMapper objectMapper, Class<?> entityType) {
+        if (this == CSV) {
+            return CsvSupport.writer(entityType);
+        }
+        return objectMapper.writerFor(entityType).withRootValueSeparator("\n");
+    }
+
+    ObjectReader reader(ObjectMapper objectMapper, Class<?> entityType) {
+        if (this == CSV) {
+            return CsvSupport.reader(entityType);
+        }
+        return objectMapper.readerFor(entityType);
+    }
+}
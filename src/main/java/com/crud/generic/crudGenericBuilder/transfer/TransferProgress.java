@@ -0,0 +1,60 @@
+package com.crud.generic.crudGenericBuilder.transfer;
+
+/**
+ * The progress of an export or import of {@link EntityTransfer}, reported after each chunk and returned at the end.
+ */
+public class TransferProgress {
+
+    private final int totalChunks;
+    private final int completedChunks;
+    private final int resumedChunks;
+    private final long rows;
+
+    public TransferProgress(int totalChunks, int completedChunks, int resumedChunks, long rows) {
+        this.totalChunks = totalChunks;
+        this.completedChunks = completedChunks;
+        this.resumedChunks = resumedChunks;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the number of chunks of the whole transfer.
+     *
+     * @return the number of chunks
+     */
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    /**
+     * Returns the number of finished chunks, including those an earlier run finished.
+     *
+     * @return the number of finished chunks
+     */
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    /**
+     * Returns the number of chunks an earlier, interrupted run finished, which this run skipped.
+     *
+     * @return the number of skipped chunks
+     */
+    public int getResumedChunks() {
+        return resumedChunks;
+    }
+
+    /**
+     * Returns the number of entities this run exported or imported.
+     *
+     * @return the number of entities
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return completedChunks + "/" + totalChunks + " chunks, " + rows + " rows";
+    }
+}
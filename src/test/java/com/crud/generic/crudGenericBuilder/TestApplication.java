@@ -0,0 +1,34 @@
+package com.crud.generic.crudGenericBuilder;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+
+/**
+ * Test application configuration.
+ * CrudGenericBuilderApplication is only active in standalone mode, so the Spring Boot tests
+ * use this class to bootstrap the test entities, repositories, services and controllers.
+ * The R2DBC transaction manager is excluded, the reactive services do not use transactions and a second manager
+ * would leave the transactional methods of the JPA services without a default one.
+ */
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
+public class TestApplication {
+
+    /**
+     * Declared explicitly because Spring Boot does not auto-configure a DataSource
+     * when an R2DBC ConnectionFactory exists, and the tests use the JPA and R2DBC stacks side by side.
+     *
+     * @return the embedded database of the JPA stack
+     */
+    @Bean
+    public DataSource dataSource() {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.crud.generic.crudGenericBuilder.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CrudAsyncExecutor class.
+ */
+public class CrudAsyncExecutorTest {
+
+    @Test
+    public void testSupply_PlatformThreads() throws Exception {
+        // Create an executor with platform threads
+        CrudAsyncExecutor executor = CrudAsyncExecutor.create(false, 2);
+        try {
+            // Run an operation
+            String threadName = executor.supply(() -> Thread.currentThread().getName()).get();
+
+            // Verify the operation ran on a pool thread
+            assertFalse(executor.isVirtualThreads(), "The executor should use platform threads");
+            assertTrue(threadName.startsWith("crud-async-"), "The operation should run on a crud-async thread");
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testSupply_VirtualThreadsWhenAvailable() throws Exception {
+        // Create an executor that prefers virtual threads
+        CrudAsyncExecutor executor = CrudAsyncExecutor.create(true, 2);
+        try {
+            // Run an operation
+            Thread thread = executor.supply(Thread::currentThread).get();
+
+            // Verify virtual threads are used exactly when the JVM supports them
+            boolean supported = Runtime.version().feature() >= 21;
+            assertEquals(supported, executor.isVirtualThreads(), "Virtual threads should be used when supported");
+            assertNotSame(Thread.currentThread(), thread, "The operation should not run on the calling thread");
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testRun_PropagatesFailure() {
+        // Create an executor around an existing executor service
+        CrudAsyncExecutor executor = new CrudAsyncExecutor(Executors.newSingleThreadExecutor());
+        try {
+            // Verify a failing operation completes the future exceptionally
+            assertThrows(Exception.class, () -> executor.run(() -> {
+                throw new IllegalStateException("failure");
+            }).get());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testSupply_QueueFull() throws Exception {
+        // Create an executor with one platform thread and room for one waiting operation
+        CrudAsyncExecutor executor = CrudAsyncExecutor.create(false, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Occupy the thread and the queue
+            CompletableFuture<Void> running = executor.run(() -> awaitQuietly(release));
+            CompletableFuture<Void> waiting = executor.run(() -> { });
+
+            // Verify a further operation is rejected instead of queued
+            CompletableFuture<String> rejected = executor.supply(() -> "rejected");
+            ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, e.getCause(), "The operation should be rejected");
+
+            // Verify the accepted operations still complete
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            waiting.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.crud.generic.crudGenericBuilder.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the CRUD operations of GenericController against the embedded H2 database.
+ * Each response body is serialized to JSON, as the message converters would do for a request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+    private static final List<String> NAME_ONLY = List.of("name");
+
+    /**
+     * An entity created before each invocation of the delete benchmark, so every invocation deletes an existing row.
+     */
+    @State(Scope.Thread)
+    public static class SavedEntity {
+
+        long id;
+
+        @Setup(Level.Invocation)
+        public void setUp(CrudBenchmarkState state) {
+            id = state.service.save(CrudBenchmarkState.newEntity(0)).getId();
+        }
+    }
+
+    @Benchmark
+    public byte[] create(CrudBenchmarkState state) throws Exception {
+        return serialize(state, state.controller.create(CrudBenchmarkState.newEntity(0)));
+    }
+
+    @Benchmark
+    public byte[] findById(CrudBenchmarkState state) throws Exception {
+        return serialize(state, state.controller.findById(state.randomId()));
+    }
+
+    @Benchmark
+    public byte[] findAll(CrudBenchmarkState state) throws Exception {
+        return serialize(state, state.controller.findAll());
+    }
+
+    @Benchmark
+    public byte[] findAllNameOnly(CrudBenchmarkState state) throws Exception {
+        return serialize(state, state.controller.findAll(NAME_ONLY));
+    }
+
+    @Benchmark
+    public byte[] update(CrudBenchmarkState state) throws Exception {
+        return serialize(state, state.controller.update(state.randomId(), CrudBenchmarkState.newEntity(1)));
+    }
+
+    @Benchmark
+    public byte[] deleteById(CrudBenchmarkState state, SavedEntity savedEntity) throws Exception {
+        return serialize(state, state.controller.deleteById(savedEntity.id));
+    }
+
+    private static byte[] serialize(CrudBenchmarkState state, ResponseEntity<?> response) throws Exception {
+        return state.objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
@@ -0,0 +1,78 @@
+package com.crud.generic.crudGenericBuilder.benchmark;
+
+import com.crud.generic.crudGenericBuilder.TestApplication;
+import com.crud.generic.crudGenericBuilder.controller.TestController;
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.repository.TestRepository;
+import com.crud.generic.crudGenericBuilder.service.TestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Shared benchmark state: the test application context backed by the embedded H2 database,
+ * with the test entity table filled to the requested size.
+ */
+@State(Scope.Benchmark)
+public class CrudBenchmarkState {
+
+    @Param({"100", "1000", "10000"})
+    public int tableSize;
+
+    public TestService service;
+    public TestController controller;
+    public ObjectMapper objectMapper;
+    public TestRepository repository;
+    public PlatformTransactionManager transactionManager;
+
+    private ConfigurableApplicationContext context;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=warn", "spring.jpa.show-sql=false")
+                .run();
+        service = context.getBean(TestService.class);
+        controller = context.getBean(TestController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        repository = context.getBean(TestRepository.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        List<TestEntity> entities = IntStream.range(0, tableSize)
+                .mapToObj(i -> newEntity(i))
+                .collect(Collectors.toList());
+        firstId = service.saveAll(entities).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Returns the id of a random entity of the seeded table.
+     *
+     * @return an existing id
+     */
+    public long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(tableSize);
+    }
+
+    public static TestEntity newEntity(int index) {
+        return new TestEntity(null, "Benchmark Name " + index, "Benchmark Description " + index);
+    }
+}
@@ -0,0 +1,55 @@
+package com.crud.generic.crudGenericBuilder.benchmark;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading every entity in a read-only transaction, as findAll does, with reading them in a read-write one,
+ * where Hibernate keeps a dirty-checking snapshot of each entity and flushes before the transaction commits.
+ * Run it with the GC profiler to see the allocations per read: -Djmh.args="ReadOnlyBenchmark -prof gc".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlyBenchmark {
+
+    /**
+     * A read-write transaction template, the way findAll ran before it was read-only.
+     */
+    @State(Scope.Benchmark)
+    public static class ReadWrite {
+
+        TransactionTemplate transactionTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp(CrudBenchmarkState state) {
+            transactionTemplate = new TransactionTemplate(state.transactionManager);
+        }
+    }
+
+    @Benchmark
+    public List<TestEntity> findAllReadOnly(CrudBenchmarkState state) {
+        return state.service.findAll();
+    }
+
+    @Benchmark
+    public List<TestEntity> findAllReadWrite(CrudBenchmarkState state, ReadWrite readWrite) {
+        return readWrite.transactionTemplate.execute(status -> state.repository.findAll());
+    }
+}
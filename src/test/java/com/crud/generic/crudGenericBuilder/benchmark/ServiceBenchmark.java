@@ -0,0 +1,68 @@
+package com.crud.generic.crudGenericBuilder.benchmark;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the CRUD operations of GenericServiceImpl against the embedded H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    /**
+     * An entity saved before each invocation of the delete benchmark, so every invocation deletes an existing row.
+     */
+    @State(Scope.Thread)
+    public static class SavedEntity {
+
+        long id;
+
+        @Setup(Level.Invocation)
+        public void setUp(CrudBenchmarkState state) {
+            id = state.service.save(CrudBenchmarkState.newEntity(0)).getId();
+        }
+    }
+
+    @Benchmark
+    public TestEntity save(CrudBenchmarkState state) {
+        return state.service.save(CrudBenchmarkState.newEntity(0));
+    }
+
+    @Benchmark
+    public Optional<TestEntity> findById(CrudBenchmarkState state) {
+        return state.service.findById(state.randomId());
+    }
+
+    @Benchmark
+    public List<TestEntity> findAll(CrudBenchmarkState state) {
+        return state.service.findAll();
+    }
+
+    @Benchmark
+    public Optional<TestEntity> update(CrudBenchmarkState state) {
+        return state.service.updateIfExists(state.randomId(), CrudBenchmarkState.newEntity(1));
+    }
+
+    @Benchmark
+    public boolean deleteById(CrudBenchmarkState state, SavedEntity savedEntity) {
+        return state.service.deleteIfExists(savedEntity.id);
+    }
+}
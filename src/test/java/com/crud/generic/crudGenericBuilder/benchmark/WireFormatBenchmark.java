@@ -0,0 +1,83 @@
+package com.crud.generic.crudGenericBuilder.benchmark;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmarks for encoding and decoding findAll results in the wire formats of GenericController.
+ * The mappers are built like the message converters build theirs. The encoded size per entity of each
+ * format is printed when the trial starts, and the time per operation divided by entityCount gives the CPU per entity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1000"})
+    public int entityCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+    private List<TestEntity> entities;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        reader = objectMapper.readerForListOf(TestEntity.class);
+        entities = LongStream.range(0, entityCount)
+                .mapToObj(i -> new TestEntity(i + 1, "Benchmark Name " + i, "Benchmark Description " + i))
+                .collect(Collectors.toList());
+        encoded = objectMapper.writeValueAsBytes(entities);
+        System.out.printf("%n%s: %.1f bytes per entity%n", format, (double) encoded.length / entityCount);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public List<TestEntity> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
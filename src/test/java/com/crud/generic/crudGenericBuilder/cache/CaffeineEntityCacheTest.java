@@ -0,0 +1,115 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CaffeineEntityCache class.
+ */
+public class CaffeineEntityCacheTest {
+
+    @Test
+    public void testGet_LoadsOnce() {
+        // Create a cache and a counting loader
+        EntityCache<Long, TestEntity> cache = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Read the same id twice
+        TestEntity first = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return new TestEntity(id, "Test Name", "Test Description");
+        });
+        TestEntity second = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return new TestEntity(id, "Other Name", "Other Description");
+        });
+
+        // Verify the second read was served from the cache
+        assertSame(first, second, "The second read should return the cached entity");
+        assertEquals(1, loads.get(), "The entity should be loaded once");
+        assertEquals(1, cache.stats().getHitCount(), "There should be 1 hit");
+        assertEquals(1, cache.stats().getMissCount(), "There should be 1 miss");
+    }
+
+    @Test
+    public void testGet_MissingIsNotCached() {
+        // Create a cache and a loader that finds nothing
+        EntityCache<Long, TestEntity> cache = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Read the missing id twice
+        assertNull(cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        // Verify both reads went to the loader
+        assertEquals(2, loads.get(), "Missing entities should not be cached");
+    }
+
+    @Test
+    public void testInvalidate() {
+        // Create a cache with one entity
+        EntityCache<Long, TestEntity> cache = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        cache.get(1L, id -> new TestEntity(id, "Test Name", "Test Description"));
+
+        // Invalidate the entity and read it again
+        cache.invalidate(1L);
+        TestEntity reloaded = cache.get(1L, id -> new TestEntity(id, "Updated Name", "Updated Description"));
+
+        // Verify the entity was reloaded
+        assertEquals("Updated Name", reloaded.getName(), "The entity should be reloaded after invalidation");
+    }
+
+    @Test
+    public void testGetAll_InvalidatedDuringLoad() {
+        // Create a cache and a loader that sees an invalidation of the second id while it runs
+        EntityCache<Long, TestEntity> cache = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        Function<Set<Long>, Map<Long, TestEntity>> loader = ids -> {
+            Map<Long, TestEntity> entities = new LinkedHashMap<>();
+            ids.forEach(id -> entities.put(id, new TestEntity(id, "Test Name " + loads.incrementAndGet(), "Test Description")));
+            cache.invalidate(2L);
+            return entities;
+        };
+
+        // Load the entities and read them again
+        Map<Long, TestEntity> first = cache.getAll(List.of(1L, 2L), loader);
+        Map<Long, TestEntity> second = cache.getAll(List.of(1L, 2L), loader);
+
+        // Verify the invalidated entity was returned but not cached
+        assertEquals(List.of(1L, 2L), List.copyOf(first.keySet()), "Both entities should be returned in order");
+        assertSame(first.get(1L), second.get(1L), "The first entity should be cached");
+        assertNotSame(first.get(2L), second.get(2L), "The invalidated entity should be loaded again");
+        assertEquals(3, loads.get(), "Only the invalidated entity should be loaded again");
+    }
+
+    @Test
+    public void testDisabled() {
+        // Use the disabled cache
+        EntityCache<Long, TestEntity> cache = EntityCache.disabled();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Read the same id twice
+        cache.get(1L, id -> new TestEntity(id, "Test Name " + loads.incrementAndGet(), "Test Description"));
+        cache.get(1L, id -> new TestEntity(id, "Test Name " + loads.incrementAndGet(), "Test Description"));
+
+        // Verify both reads went to the loader
+        assertEquals(2, loads.get(), "The disabled cache should always load");
+        assertEquals(0, cache.stats().getHitCount(), "The disabled cache should record no hits");
+    }
+}
@@ -0,0 +1,104 @@
+package com.crud.generic.crudGenericBuilder.cache;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SingleFlight class.
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testLoad_Collapsed() throws Exception {
+        // Start a load that blocks until released
+        SingleFlight<Long, TestEntity> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<TestEntity> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return new TestEntity(1L, "Test Name", "Test Description");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Request the same id from other threads while the load is in flight
+        List<CompletableFuture<TestEntity>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+                loads.incrementAndGet();
+                return new TestEntity(1L, "Other Name", "Other Description");
+            })));
+        }
+        while (singleFlight.getCollapsedCount() < followers.size()) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Verify every caller received the result of the single load
+        TestEntity entity = leader.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<TestEntity> follower : followers) {
+            assertSame(entity, follower.get(5, TimeUnit.SECONDS), "The followers should share the leader's result");
+        }
+        assertEquals(1, loads.get(), "The entity should be loaded once");
+        assertEquals(1, singleFlight.getLoadCount());
+        assertEquals(4, singleFlight.getCollapsedCount());
+    }
+
+    @Test
+    public void testLoad_NotKeptAfterCompletion() {
+        // Load the same id twice in a row
+        SingleFlight<Long, TestEntity> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        singleFlight.load(1L, () -> new TestEntity((long) loads.incrementAndGet(), "Test Name", "Test Description"));
+        TestEntity second = singleFlight.load(1L, () -> new TestEntity((long) loads.incrementAndGet(), "Test Name", "Test Description"));
+
+        // Verify the second call loaded again
+        assertEquals(2L, second.getId(), "A completed load should not be reused");
+        assertEquals(0, singleFlight.getCollapsedCount());
+    }
+
+    @Test
+    public void testLoad_TimeoutAndFailure() throws Exception {
+        // Start a load that blocks until released and then fails
+        SingleFlight<Long, TestEntity> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<TestEntity> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("load failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Verify a caller stops waiting after the timeout
+        assertThrows(QueryTimeoutException.class, () -> singleFlight.load(1L, () -> null));
+        assertEquals(1, singleFlight.getTimeoutCount());
+
+        // Verify the leader's failure is propagated
+        release.countDown();
+        CompletableFuture<TestEntity> failed = leader.exceptionally(e -> null);
+        assertNull(failed.get(5, TimeUnit.SECONDS));
+        assertTrue(leader.isCompletedExceptionally(), "The leader should fail with the loader's exception");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
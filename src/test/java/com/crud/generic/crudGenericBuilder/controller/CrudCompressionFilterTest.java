@@ -0,0 +1,218 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.service.TestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the CrudCompressionFilter class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CrudCompressionFilterTest {
+
+    @Mock
+    private TestService service;
+
+    @InjectMocks
+    private TestController controller;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        CrudCompressionFilter filter = new CrudCompressionFilter(256, List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON), -1, 2);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    public void testFindAll_Gzip() throws Exception {
+        // Mock a list larger than the minimum response size
+        when(service.findAll()).thenReturn(entities(50));
+
+        // Perform the request, accepting gzip
+        MvcResult result = mockMvc.perform(get("/api/test").header("Accept-Encoding", "deflate, gzip;q=0.9"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Length"))
+                .andReturn();
+
+        // Verify the body decompresses to the entities
+        byte[] body = result.getResponse().getContentAsByteArray();
+        TestEntity[] entities = objectMapper.readValue(new GZIPInputStream(new ByteArrayInputStream(body)), TestEntity[].class);
+        assertEquals(50, entities.length, "Every entity should be in the decompressed body");
+        assertTrue(body.length < objectMapper.writeValueAsBytes(entities).length, "The body should be smaller than the JSON");
+    }
+
+    @Test
+    public void testFindAll_Deflate() throws Exception {
+        // Mock a list larger than the minimum response size
+        when(service.findAll()).thenReturn(entities(50));
+
+        // Perform the request twice, accepting only deflate, so the pooled deflater is reused
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get("/api/test").header("Accept-Encoding", "gzip;q=0, deflate"))
+                    .andExpect(header().string("Content-Encoding", "deflate"))
+                    .andReturn();
+            InputStream body = new InflaterInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+            assertEquals(50, objectMapper.readValue(body, TestEntity[].class).length, "Every entity should be in the decompressed body");
+        }
+    }
+
+    @Test
+    public void testFindAll_BelowMinimumSize() throws Exception {
+        // Mock a list smaller than the minimum response size
+        when(service.findAll()).thenReturn(entities(1));
+
+        // Verify the response is sent unchanged
+        mockMvc.perform(get("/api/test").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    public void testFindAll_NotAccepted() throws Exception {
+        // Mock a list larger than the minimum response size
+        when(service.findAll()).thenReturn(entities(50));
+
+        // Verify the response is sent unchanged to a client without Accept-Encoding
+        mockMvc.perform(get("/api/test"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.length()").value(50));
+    }
+
+    @Test
+    public void testStreamAll_Gzip() throws Exception {
+        // Mock the service streamAll method
+        doAnswer(invocation -> {
+            Consumer<TestEntity> consumer = invocation.getArgument(0);
+            entities(50).forEach(consumer);
+            return null;
+        }).when(service).streamAll(any());
+
+        // Perform the request and wait for the streamed body
+        MvcResult result = mockMvc.perform(get("/api/test/stream").param("ndjson", "true").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        // Verify the stream decompresses to one line per entity
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes());
+        assertEquals(50, body.lines().count(), "Every entity should be streamed");
+    }
+
+    @Test
+    public void testNonBlockingWrites() throws Exception {
+        // Record the write listener the filter passes on to the original response
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        registered.set(writeListener);
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        written.write(b);
+                    }
+                };
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test");
+        request.addHeader("Accept-Encoding", "gzip");
+        WriteListener listener = mock(WriteListener.class);
+        byte[] body = objectMapper.writeValueAsBytes(entities(50));
+
+        // Switch to non-blocking writes after writing less than the minimum response size
+        CrudCompressionFilter filter = new CrudCompressionFilter(256, List.of(MediaType.APPLICATION_JSON), -1, 2);
+        filter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            filteredResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ServletOutputStream outputStream = filteredResponse.getOutputStream();
+            outputStream.write(body, 0, 10);
+            outputStream.setWriteListener(listener);
+            assertTrue(outputStream.isReady(), "The readiness of the original stream should be reported");
+            outputStream.write(body, 10, body.length - 10);
+        });
+
+        // Verify the listener is passed on and the body is sent unchanged
+        assertSame(listener, registered.get(), "The listener should be registered on the original stream");
+        assertNull(response.getHeader("Content-Encoding"), "A non-blocking response should not be compressed");
+        assertArrayEquals(body, written.toByteArray(), "The body should be written unchanged");
+    }
+
+    @Test
+    public void testAcceptedEncoding() {
+        assertEquals("gzip", CrudCompressionFilter.acceptedEncoding("br, gzip"));
+        assertEquals("deflate", CrudCompressionFilter.acceptedEncoding("deflate;q=0.5"));
+        assertNull(CrudCompressionFilter.acceptedEncoding("gzip;q=0, identity"));
+        assertNull(CrudCompressionFilter.acceptedEncoding(null));
+    }
+
+    @Test
+    public void testAutoConfiguration() {
+        // Verify the filter is only registered when enabled
+        WebApplicationContextRunner runner = new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudCompressionAutoConfiguration.class));
+        runner.run(context -> assertFalse(context.containsBean("crudCompressionFilter")));
+        runner.withPropertyValues("crud.generic.compression.enabled=true")
+                .run(context -> assertTrue(context.containsBean("crudCompressionFilter")));
+    }
+
+    private static List<TestEntity> entities(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> new TestEntity(i, "Test Name " + i, "Test Description " + i))
+                .collect(Collectors.toList());
+    }
+}
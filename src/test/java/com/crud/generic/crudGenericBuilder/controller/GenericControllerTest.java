@@ -1,23 +1,66 @@
 package com.crud.generic.crudGenericBuilder.controller;
 
+import com.crud.generic.crudGenericBuilder.async.CrudAsyncExecutor;
+import com.crud.generic.crudGenericBuilder.metrics.MicrometerCrudMetricsFactory;
+import com.crud.generic.crudGenericBuilder.model.BaseEntity;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
 import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.service.GenericService;
 import com.crud.generic.crudGenericBuilder.service.TestService;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityNotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +78,8 @@ public class GenericControllerTest {
     @InjectMocks
     private TestController controller;
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -66,6 +111,31 @@ public class GenericControllerTest {
         verify(service, times(1)).save(any(TestEntity.class));
     }
     
+    @Test
+    public void testSaveAll() throws Exception {
+        // Create test entities
+        List<TestEntity> entities = List.of(
+                new TestEntity(null, "Test Name 1", "Test Description 1"),
+                new TestEntity(null, "Test Name 2", "Test Description 2"));
+        List<TestEntity> savedEntities = List.of(
+                new TestEntity(1L, "Test Name 1", "Test Description 1"),
+                new TestEntity(2L, "Test Name 2", "Test Description 2"));
+
+        // Mock the service saveAll method
+        when(service.saveAll(anyList())).thenReturn(savedEntities);
+
+        // Perform the request
+        mockMvc.perform(post("/api/test/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entities)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+
+        // Verify the service saveAll method was called once for the whole batch
+        verify(service, times(1)).saveAll(anyList());
+    }
+
     @Test
     public void testFindById_Found() throws Exception {
         // Create a test entity
@@ -99,6 +169,69 @@ public class GenericControllerTest {
         verify(service, times(1)).findById(1L);
     }
     
+    @Test
+    public void testFindById_Metrics() throws Exception {
+        // Instrument the controller
+        MeterRegistry registry = new SimpleMeterRegistry();
+        controller.setMetricsFactory(new MicrometerCrudMetricsFactory(registry));
+        when(service.findById(1L)).thenReturn(Optional.empty());
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/1"))
+                .andExpect(status().isNotFound());
+
+        // Verify the call was recorded for the controller layer
+        assertEquals(1, registry.get("crud.operation").tags("entity", "TestEntity", "layer", "controller", "operation", "findById").timer().count());
+    }
+
+    @Test
+    public void testFindByIdAsync() throws Exception {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Optional.of(new TestEntity(1L, "Test Name", "Test Description")));
+
+        // Perform the request and wait for the deferred response
+        MvcResult result = mockMvc.perform(get("/api/test/async/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value("Test Name"));
+    }
+
+    @Test
+    public void testDeleteByIdAsync_NotFound() throws Exception {
+        // Mock the service deleteIfExists method
+        when(service.deleteIfExists(1L)).thenReturn(false);
+
+        // Perform the request and wait for the deferred response
+        MvcResult result = mockMvc.perform(delete("/api/test/async/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Entity with id 1 not found"));
+    }
+
+    @Test
+    public void testFindByIdAsync_Rejected() throws Exception {
+        // Give the controller an executor that accepts no more operations
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+        controller.setAsyncExecutor(new CrudAsyncExecutor(executorService));
+
+        // Perform the request and wait for the deferred response
+        MvcResult result = mockMvc.perform(get("/api/test/async/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        // Verify the service was not called
+        verifyNoInteractions(service);
+    }
+
     @Test
     public void testFindAll() throws Exception {
         // Create test entities
@@ -121,50 +254,282 @@ public class GenericControllerTest {
         // Verify the service findAll method was called
         verify(service, times(1)).findAll();
     }
+
+    @Test
+    public void testFindAll_Fields() throws Exception {
+        // Mock the service projection
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 1L);
+        values.put("name", "Test Name 1");
+        when(service.findAll(List.of("name"))).thenReturn(List.of(values));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Test Name 1"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        // Verify the full entities were not read
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    public void testFindById_Fields() throws Exception {
+        // Mock the service projection
+        when(service.findById(1L, List.of("name", "description"))).thenReturn(Optional.of(Map.of("id", 1L, "name", "Test Name")));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/1").param("fields", "name,description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Name"));
+    }
+
+    @Test
+    public void testFindById_UnknownField() throws Exception {
+        // Mock the service projection
+        when(service.findById(eq(1L), anyCollection())).thenThrow(new IllegalArgumentException("Unknown field 'secret'"));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/1").param("fields", "secret"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown field 'secret'"));
+    }
     
+    @Test
+    public void testFindPage() throws Exception {
+        // Mock the service findAll method for a page
+        TestEntity entity = new TestEntity(3L, "Test Name 3", "Test Description 3");
+        when(service.findAll(PageRequest.of(1, 2))).thenReturn(new PageImpl<>(List.of(entity), PageRequest.of(1, 2), 3));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/page").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.totalElements").value(3));
+
+        // Verify the service findAll method was called with the page
+        verify(service, times(1)).findAll(PageRequest.of(1, 2));
+    }
+
+    @Test
+    public void testFindPage_BadRequest() throws Exception {
+        // Perform the request with an invalid size
+        mockMvc.perform(get("/api/test/page").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        // Verify the service was not called
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void testFindAllAfter() throws Exception {
+        // Mock the service findAllAfter method
+        TestEntity entity1 = new TestEntity(3L, "Test Name 3", "Test Description 3");
+        TestEntity entity2 = new TestEntity(4L, "Test Name 4", "Test Description 4");
+        when(service.findAllAfter(2L, 2)).thenReturn(new KeysetPage<>(List.of(entity1, entity2), 4L));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/seek").param("after", "2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.content[1].id").value(4))
+                .andExpect(jsonPath("$.nextCursor").value(4))
+                .andExpect(jsonPath("$.last").value(false));
+
+        // Verify the service findAllAfter method was called
+        verify(service, times(1)).findAllAfter(2L, 2);
+    }
+
+    @Test
+    public void testStreamAll() throws Exception {
+        // Mock the service streamAll method
+        doAnswer(invocation -> {
+            Consumer<TestEntity> consumer = invocation.getArgument(0);
+            consumer.accept(new TestEntity(1L, "Test Name 1", "Test Description 1"));
+            consumer.accept(new TestEntity(2L, "Test Name 2", "Test Description 2"));
+            return null;
+        }).when(service).streamAll(any());
+
+        // Perform the request and wait for the streamed body
+        MvcResult result = mockMvc.perform(get("/api/test/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    public void testStreamAll_Ndjson() throws Exception {
+        // Mock the service streamAll method
+        doAnswer(invocation -> {
+            Consumer<TestEntity> consumer = invocation.getArgument(0);
+            consumer.accept(new TestEntity(1L, "Test Name 1", "Test Description 1"));
+            consumer.accept(new TestEntity(2L, "Test Name 2", "Test Description 2"));
+            return null;
+        }).when(service).streamAll(any());
+
+        // Perform the request and wait for the streamed body
+        MvcResult result = mockMvc.perform(get("/api/test/stream").param("ndjson", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Test Name 1\",\"description\":\"Test Description 1\"}\n"
+                                + "{\"id\":2,\"name\":\"Test Name 2\",\"description\":\"Test Description 2\"}\n"));
+    }
+
+    @Test
+    public void testStreamAll_Tenant() throws Exception {
+        // Record the tenant the service streams as
+        AtomicReference<String> streamedTenant = new AtomicReference<>();
+        doAnswer(invocation -> {
+            streamedTenant.set(TenantContext.getTenantId());
+            return null;
+        }).when(service).streamAll(any());
+
+        // Perform the request as tenant a and wait for the streamed body
+        TenantContext.setTenantId("a");
+        try {
+            MvcResult result = mockMvc.perform(get("/api/test/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        } finally {
+            TenantContext.clear();
+        }
+
+        // Verify the body was written as the tenant of the request
+        assertEquals("a", streamedTenant.get(), "The stream should run as the tenant of the request");
+    }
+
+    @Test
+    public void testFindAll_RateLimited() throws Exception {
+        // Allow one findAll call every two seconds
+        MeterRegistry registry = new SimpleMeterRegistry();
+        controller.setMetricsFactory(new MicrometerCrudMetricsFactory(registry));
+        controller.setEnvironment(new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.findAll.permits-per-second", "0.5")
+                .withProperty("crud.generic.limits.TestEntity.findAll.burst", "1"));
+        when(service.findAll()).thenReturn(List.of());
+
+        // Verify the second call is rejected without reaching the service, and other operations are not limited
+        mockMvc.perform(get("/api/test"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/test"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+        verify(service, times(1)).findAll();
+        when(service.findById(1L)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/test/1"))
+                .andExpect(status().isNotFound());
+
+        // Verify the rejection was recorded
+        assertEquals(1, registry.get("crud.operation.rejected").tags("entity", "TestEntity", "operation", "findAll", "limit", "rate").counter().count());
+    }
+
+    @Test
+    public void testLimits_UnresolvedEntityClass() {
+        // Create a controller through a generic intermediate class, whose entity class cannot be resolved
+        IntermediateController<TestEntity, Long> intermediate = new IntermediateController<>(service);
+        intermediate.setEnvironment(new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.findAll.max-concurrent-calls", "1"));
+        when(service.findAll()).thenReturn(List.of());
+
+        // Verify the controller is served with the limits of its annotations only
+        assertEquals(HttpStatus.OK, intermediate.findAll().getStatusCode());
+        assertEquals(HttpStatus.OK, intermediate.findAll().getStatusCode());
+    }
+
+    @Test
+    public void testFindAll_ConcurrencyLimited() throws Exception {
+        // Allow one findAll call at a time and hold one in the service
+        controller.setEnvironment(new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.findAll.max-concurrent-calls", "1"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.findAll()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return List.of();
+        });
+        CompletableFuture<ResponseEntity<?>> running = CompletableFuture.supplyAsync(controller::findAll);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Verify a concurrent call is rejected, and the permit is released when the running call completes
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, controller.findAll().getStatusCode());
+        release.countDown();
+        assertEquals(HttpStatus.OK, running.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.findAll().getStatusCode());
+    }
+
+    @Test
+    public void testStreamAll_ConcurrencyLimited() throws Exception {
+        // Allow one stream at a time
+        controller.setEnvironment(new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.streamAll.max-concurrent-calls", "1"));
+
+        // Verify streams that follow each other are accepted, since each releases its permit once written
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get("/api/test/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        }
+
+        // Verify a stream is rejected while another one has not been written
+        ResponseEntity<StreamingResponseBody> pending = controller.streamAll(false);
+        assertEquals(HttpStatus.OK, pending.getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, controller.streamAll(false).getStatusCode());
+        pending.getBody().writeTo(new ByteArrayOutputStream());
+        assertEquals(HttpStatus.OK, controller.streamAll(true).getStatusCode());
+    }
+
     @Test
     public void testDeleteById_Found() throws Exception {
-        // Create a test entity
-        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
-        
-        // Mock the service findById method
-        when(service.findById(1L)).thenReturn(Optional.of(entity));
+        // Mock the service deleteIfExists method
+        when(service.deleteIfExists(1L)).thenReturn(true);
         
         // Perform the request
         mockMvc.perform(delete("/api/test/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Entity with id 1 deleted successfully"));
         
-        // Verify the service findById and deleteById methods were called
-        verify(service, times(1)).findById(1L);
-        verify(service, times(1)).deleteById(1L);
+        // Verify the entity was deleted with a single call and not read first
+        verify(service, times(1)).deleteIfExists(1L);
+        verify(service, never()).findById(1L);
     }
     
     @Test
     public void testDeleteById_NotFound() throws Exception {
-        // Mock the service findById method
-        when(service.findById(1L)).thenReturn(Optional.empty());
+        // Mock the service deleteIfExists method
+        when(service.deleteIfExists(1L)).thenReturn(false);
         
         // Perform the request
         mockMvc.perform(delete("/api/test/1"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Entity with id 1 not found"));
         
-        // Verify the service findById method was called and deleteById was not
-        verify(service, times(1)).findById(1L);
-        verify(service, never()).deleteById(1L);
+        // Verify the service deleteIfExists method was called and the entity was not read
+        verify(service, times(1)).deleteIfExists(1L);
+        verify(service, never()).findById(1L);
     }
     
     @Test
     public void testUpdate_Found() throws Exception {
         // Create test entities
         TestEntity entity = new TestEntity(null, "Updated Name", "Updated Description");
-        TestEntity existingEntity = new TestEntity(1L, "Test Name", "Test Description");
         TestEntity updatedEntity = new TestEntity(1L, "Updated Name", "Updated Description");
         
-        // Mock the service findById and save methods
-        when(service.findById(1L)).thenReturn(Optional.of(existingEntity));
-        when(service.save(any(TestEntity.class))).thenReturn(updatedEntity);
+        // Mock the service updateIfExists method
+        when(service.updateIfExists(eq(1L), any(TestEntity.class))).thenReturn(Optional.of(updatedEntity));
         
         // Perform the request
         mockMvc.perform(put("/api/test/1")
@@ -175,9 +540,10 @@ public class GenericControllerTest {
                 .andExpect(jsonPath("$.name").value("Updated Name"))
                 .andExpect(jsonPath("$.description").value("Updated Description"));
         
-        // Verify the service findById and save methods were called
-        verify(service, times(1)).findById(1L);
-        verify(service, times(1)).save(any(TestEntity.class));
+        // Verify the entity was updated with a single call and not read first
+        verify(service, times(1)).updateIfExists(eq(1L), any(TestEntity.class));
+        verify(service, never()).findById(1L);
+        verify(service, never()).save(any(TestEntity.class));
     }
     
     @Test
@@ -185,8 +551,8 @@ public class GenericControllerTest {
         // Create a test entity
         TestEntity entity = new TestEntity(null, "Updated Name", "Updated Description");
         
-        // Mock the service findById method
-        when(service.findById(1L)).thenReturn(Optional.empty());
+        // Mock the service updateIfExists method
+        when(service.updateIfExists(eq(1L), any(TestEntity.class))).thenReturn(Optional.empty());
         
         // Perform the request
         mockMvc.perform(put("/api/test/1")
@@ -195,8 +561,283 @@ public class GenericControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Entity with id 1 not found"));
         
-        // Verify the service findById method was called and save was not
-        verify(service, times(1)).findById(1L);
+        // Verify the service updateIfExists method was called and save was not
+        verify(service, times(1)).updateIfExists(eq(1L), any(TestEntity.class));
         verify(service, never()).save(any(TestEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateAll_Found() throws Exception {
+        // Create test entities
+        List<TestEntity> entities = List.of(
+                new TestEntity(1L, "Updated Name 1", "Updated Description 1"),
+                new TestEntity(2L, "Updated Name 2", "Updated Description 2"));
+
+        // Mock the service updateAll method
+        when(service.updateAll(anyList())).thenReturn(entities);
+
+        // Perform the request
+        mockMvc.perform(put("/api/test/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entities)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Updated Name 1"))
+                .andExpect(jsonPath("$[1].name").value("Updated Name 2"));
+    }
+
+    @Test
+    public void testUpdateAll_NotFound() throws Exception {
+        // Create test entities
+        List<TestEntity> entities = List.of(new TestEntity(1L, "Updated Name 1", "Updated Description 1"));
+
+        // Mock the service updateAll method
+        when(service.updateAll(anyList())).thenThrow(new EntityNotFoundException("Entities with ids [1] not found"));
+
+        // Perform the request
+        mockMvc.perform(put("/api/test/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entities)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Entities with ids [1] not found"));
+    }
+
+    @Test
+    public void testDeleteAllById() throws Exception {
+        // Perform the request
+        mockMvc.perform(delete("/api/test/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2,3]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Entities with the 3 given ids deleted, missing ids were ignored"));
+
+        // Verify the service deleteAllById method was called once for the whole batch
+        verify(service, times(1)).deleteAllById(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    public void testPatch() throws Exception {
+        // Mock the service patch method
+        when(service.patch(1L, Map.of("name", "Patched Name"))).thenReturn(true);
+
+        // Perform the request
+        mockMvc.perform(patch("/api/test/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"name\":\"Patched Name\"}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testPatch_NotFound() throws Exception {
+        // Mock the service patch method
+        when(service.patch(eq(1L), anyMap())).thenReturn(false);
+
+        // Perform the request
+        mockMvc.perform(patch("/api/test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":null}"))
+                .andExpect(status().isNotFound());
+
+        // Verify null was passed on to clear the column
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("description", null);
+        verify(service).patch(1L, changes);
+    }
+
+    @Test
+    public void testPatch_UnknownAttribute() throws Exception {
+        // Perform the request
+        mockMvc.perform(patch("/api/test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"secret\":\"value\"}"))
+                .andExpect(status().isBadRequest());
+
+        // Verify the service was not called
+        verify(service, never()).patch(any(), anyMap());
+    }
+
+    @Test
+    public void testPatch_UnknownObject() throws Exception {
+        // Use an object mapper that ignores unknown members, like the one of Spring Boot
+        controller.setObjectMapper(new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+        // Perform the request
+        mockMvc.perform(patch("/api/test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"secret\":{\"value\":1}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown attribute 'secret'"));
+
+        // Verify the service was not called
+        verify(service, never()).patch(any(), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery() throws Exception {
+        // Mock the service findAll method
+        when(service.findAll(anyList(), any(Sort.class), eq(50))).thenReturn(List.of(new TestEntity(2L, "x", "Test Description")));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/query")
+                .param("name.eq", "x")
+                .param("id.in", "1,2")
+                .param("sort", "-id,name")
+                .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+
+        // Verify the parameters were parsed
+        ArgumentCaptor<List<Filter>> filters = ArgumentCaptor.forClass(List.class);
+        verify(service).findAll(filters.capture(), eq(Sort.by(Sort.Order.desc("id"), Sort.Order.asc("name"))), eq(50));
+        assertEquals("[name.eq=x, id.in=[1, 2]]", filters.getValue().toString());
+    }
+
+    @Test
+    public void testQuery_InvalidParameters() throws Exception {
+        // Perform requests with an unknown operator and an invalid limit
+        mockMvc.perform(get("/api/test/query").param("name.contains", "x"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/test/query").param("limit", "many"))
+                .andExpect(status().isBadRequest());
+
+        // Verify the service was not called
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery_Page() throws Exception {
+        // Mock the service findAll method
+        when(service.findAll(anyList(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new TestEntity(3L, "x", "Test Description")), PageRequest.of(1, 2), 3));
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/query")
+                .param("name.eq", "x")
+                .param("page", "1")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.totalElements").value(3));
+
+        // Verify the page was requested
+        verify(service).findAll(anyList(), eq(PageRequest.of(1, 2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCount() throws Exception {
+        // Mock the service count method
+        when(service.count(anyList())).thenReturn(4L);
+
+        // Perform the request
+        mockMvc.perform(get("/api/test/count").param("description.eq", "low"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("4"));
+
+        // Verify the filters were parsed
+        ArgumentCaptor<List<Filter>> filters = ArgumentCaptor.forClass(List.class);
+        verify(service).count(filters.capture());
+        assertEquals("[description.eq=low]", filters.getValue().toString());
+    }
+
+    @Test
+    public void testCount_InvalidParameters() throws Exception {
+        // Perform a request with an unknown operator
+        mockMvc.perform(get("/api/test/count").param("name.contains", "x"))
+                .andExpect(status().isBadRequest());
+
+        // Verify the service was not called
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void testFindAllById() throws Exception {
+        // Mock the service findAllById method
+        when(service.findAllById(List.of(3L, 1L, 9L))).thenReturn(List.of(
+                new TestEntity(3L, "Test Name 3", "Test Description"), new TestEntity(1L, "Test Name 1", "Test Description")));
+
+        // Perform the request with the ids as a parameter
+        mockMvc.perform(get("/api/test").param("ids", "3,1,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.content[1].id").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(9));
+
+        // Perform the request with the ids in the body
+        mockMvc.perform(post("/api/test/ids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3, 1, 9]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.missingIds[0]").value(9));
+    }
+
+    @Test
+    public void testFindAllById_TooManyIds() throws Exception {
+        // Mock the service findAllById method to reject the ids
+        when(service.findAllById(anyList())).thenThrow(new IllegalArgumentException("At most 2 ids can be read at once"));
+
+        // Perform the request and verify it is rejected
+        mockMvc.perform(get("/api/test").param("ids", "1,2,3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testFindAll_Cbor() throws Exception {
+        // Mock the service findAll method
+        when(service.findAll()).thenReturn(List.of(new TestEntity(1L, "Test Name 1", "Test Description 1")));
+
+        // Perform the request, accepting CBOR
+        MvcResult result = mockMvc.perform(get("/api/test").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Verify the body decodes to the entities
+        TestEntity[] entities = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), TestEntity[].class);
+        assertEquals("Test Name 1", entities[0].getName(), "The entities should be encoded as CBOR");
+    }
+
+    @Test
+    public void testCreate_Smile() throws Exception {
+        // Mock the service save method
+        when(service.save(any(TestEntity.class))).thenReturn(new TestEntity(1L, "Test Name", "Test Description"));
+
+        // Perform the request with a Smile body, accepting Smile
+        SmileMapper smileMapper = new SmileMapper();
+        MvcResult result = mockMvc.perform(post("/api/test")
+                .contentType(SMILE)
+                .accept(SMILE)
+                .content(smileMapper.writeValueAsBytes(new TestEntity(null, "Test Name", "Test Description"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Verify the body was decoded and the response encoded as Smile
+        verify(service).save(argThat(entity -> "Test Name".equals(entity.getName())));
+        assertEquals(1L, smileMapper.readValue(result.getResponse().getContentAsByteArray(), TestEntity.class).getId());
+    }
+
+    @Test
+    public void testBinaryFormatsAutoConfiguration() {
+        // Verify the converters use the application's Jackson configuration and can be disabled
+        WebApplicationContextRunner runner = new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, CrudBinaryFormatsAutoConfiguration.class));
+        runner.run(context -> {
+            assertTrue(context.containsBean("cborHttpMessageConverter"));
+            assertTrue(context.containsBean("smileHttpMessageConverter"));
+        });
+        runner.withPropertyValues("crud.generic.binary-formats.enabled=false")
+                .run(context -> assertFalse(context.containsBean("cborHttpMessageConverter")));
+    }
+
+    /**
+     * Generic intermediate controller, which leaves the entity type unresolved.
+     */
+    private static class IntermediateController<T extends BaseEntity<ID>, ID extends Serializable> extends GenericController<T, ID> {
+
+        IntermediateController(GenericService<T, ID> service) {
+            super(service);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.PlainVersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.service.PlainVersionedTestService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Test controller for the plain versioned test entity.
+ * This is used for testing the version-checked single-statement update.
+ */
+@RestController
+@RequestMapping("/api/plain-versioned-test")
+public class PlainVersionedTestController extends GenericController<PlainVersionedTestEntity, Long> {
+
+    /**
+     * Constructor that takes a service.
+     * 
+     * @param plainVersionedTestService the service to use
+     */
+    public PlainVersionedTestController(PlainVersionedTestService plainVersionedTestService) {
+        super(plainVersionedTestService);
+    }
+
+    @PutMapping("/{id}")
+    @Override
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody PlainVersionedTestEntity entity) {
+        return super.update(id, entity);
+    }
+}
@@ -0,0 +1,149 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+import com.crud.generic.crudGenericBuilder.service.ReactiveTestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ReactiveGenericController class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveGenericControllerTest {
+
+    @Mock
+    private ReactiveTestService service;
+
+    @InjectMocks
+    private ReactiveTestController controller;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void setUp() {
+        webTestClient = WebTestClient.bindToController(controller).build();
+    }
+
+    @Test
+    public void testCreate() {
+        // Mock the service save method
+        ReactiveTestEntity savedEntity = new ReactiveTestEntity(1L, "Test Name", "Test Description");
+        when(service.save(any(ReactiveTestEntity.class))).thenReturn(Mono.just(savedEntity));
+
+        // Perform the request
+        webTestClient.post().uri("/api/reactive-test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ReactiveTestEntity(null, "Test Name", "Test Description"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Test Name");
+    }
+
+    @Test
+    public void testFindById() {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Mono.just(new ReactiveTestEntity(1L, "Test Name", "Test Description")));
+
+        // Perform the request
+        webTestClient.get().uri("/api/reactive-test/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Name");
+    }
+
+    @Test
+    public void testFindById_NotFound() {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Mono.empty());
+
+        // Perform the request
+        webTestClient.get().uri("/api/reactive-test/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Entity with id 1 not found");
+    }
+
+    @Test
+    public void testFindAll_Ndjson() {
+        // Mock the service findAll method
+        when(service.findAll()).thenReturn(Flux.just(
+                new ReactiveTestEntity(1L, "Test Name 1", "Test Description 1"),
+                new ReactiveTestEntity(2L, "Test Name 2", "Test Description 2")));
+
+        // Perform the request
+        webTestClient.get().uri("/api/reactive-test")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ReactiveTestEntity.class).hasSize(2);
+    }
+
+    @Test
+    public void testFindAllAfter() {
+        // Mock the service findAllAfter method
+        List<ReactiveTestEntity> entities = List.of(new ReactiveTestEntity(6L, "Test Name", "Test Description"));
+        when(service.findAllAfter(5L, 1)).thenReturn(Mono.just(new KeysetPage<>(entities, 6L)));
+
+        // Perform the request
+        webTestClient.get().uri("/api/reactive-test/seek?after=5&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(6)
+                .jsonPath("$.nextCursor").isEqualTo(6);
+    }
+
+    @Test
+    public void testFindAllAfter_InvalidLimit() {
+        // Perform the request
+        webTestClient.get().uri("/api/reactive-test/seek?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void testUpdate_NotFound() {
+        // Mock the service updateIfExists method
+        when(service.updateIfExists(eq(1L), any(ReactiveTestEntity.class))).thenReturn(Mono.empty());
+
+        // Perform the request
+        webTestClient.put().uri("/api/reactive-test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ReactiveTestEntity(null, "Updated Name", "Updated Description"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testDeleteById() {
+        // Mock the service deleteIfExists method
+        when(service.deleteIfExists(1L)).thenReturn(Mono.just(true));
+
+        // Perform the request
+        webTestClient.delete().uri("/api/reactive-test/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Entity with id 1 deleted successfully");
+    }
+}
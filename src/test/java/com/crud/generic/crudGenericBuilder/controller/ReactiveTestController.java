@@ -0,0 +1,71 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+import com.crud.generic.crudGenericBuilder.service.ReactiveTestService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Test controller that extends ReactiveGenericController.
+ * This is used for testing the reactive generic CRUD components.
+ */
+@RestController
+@RequestMapping("/api/reactive-test")
+public class ReactiveTestController extends ReactiveGenericController<ReactiveTestEntity, Long> {
+
+    /**
+     * Constructor that takes a service.
+     * 
+     * @param reactiveTestService the service to use
+     */
+    public ReactiveTestController(ReactiveTestService reactiveTestService) {
+        super(reactiveTestService);
+    }
+
+    @PostMapping
+    @Override
+    public Mono<ResponseEntity<?>> create(@RequestBody ReactiveTestEntity entity) {
+        return super.create(entity);
+    }
+
+    @PostMapping("/batch")
+    @Override
+    public Mono<ResponseEntity<?>> saveAll(@RequestBody List<ReactiveTestEntity> entities) {
+        return super.saveAll(entities);
+    }
+
+    @GetMapping("/{id}")
+    @Override
+    public Mono<ResponseEntity<?>> findById(@PathVariable Long id) {
+        return super.findById(id);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Override
+    public Flux<ReactiveTestEntity> findAll() {
+        return super.findAll();
+    }
+
+    @GetMapping("/seek")
+    @Override
+    public Mono<ResponseEntity<?>> findAllAfter(@RequestParam(required = false) Long after, @RequestParam(defaultValue = "20") int limit) {
+        return super.findAllAfter(after, limit);
+    }
+
+    @DeleteMapping("/{id}")
+    @Override
+    public Mono<ResponseEntity<?>> deleteById(@PathVariable Long id) {
+        return super.deleteById(id);
+    }
+
+    @PutMapping("/{id}")
+    @Override
+    public Mono<ResponseEntity<?>> update(@PathVariable Long id, @RequestBody ReactiveTestEntity entity) {
+        return super.update(id, entity);
+    }
+}
@@ -2,8 +2,16 @@ package com.crud.generic.crudGenericBuilder.controller;
 
 import com.crud.generic.crudGenericBuilder.model.TestEntity;
 import com.crud.generic.crudGenericBuilder.service.TestService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Test controller that extends GenericController.
@@ -31,16 +39,63 @@ public class TestController extends GenericController<TestEntity, Long> {
         return super.create(entity);
     }
 
+    @PostMapping("/batch")
+    @Override
+    public ResponseEntity<?> saveAll(@RequestBody List<TestEntity> entities) {
+        return super.saveAll(entities);
+    }
+
     @GetMapping("/{id}")
     @Override
-    public ResponseEntity<?> findById(@PathVariable Long id) {
-        return super.findById(id);
+    public ResponseEntity<?> findById(@PathVariable Long id, @RequestParam(required = false) List<String> fields, WebRequest request) {
+        return super.findById(id, fields, request);
+    }
+
+    @GetMapping(params = "ids")
+    @Override
+    public ResponseEntity<?> findAllById(@RequestParam List<Long> ids) {
+        return super.findAllById(ids);
+    }
+
+    @PostMapping("/ids")
+    public ResponseEntity<?> findAllByIdInBody(@RequestBody List<Long> ids) {
+        return super.findAllById(ids);
     }
 
     @GetMapping
     @Override
-    public ResponseEntity<?> findAll() {
-        return super.findAll();
+    public ResponseEntity<?> findAll(@RequestParam(required = false) List<String> fields, WebRequest request) {
+        return super.findAll(fields, request);
+    }
+
+    @GetMapping("/page")
+    @Override
+    public ResponseEntity<?> findPage(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+        return super.findPage(page, size);
+    }
+
+    @GetMapping("/seek")
+    @Override
+    public ResponseEntity<?> findAllAfter(@RequestParam(required = false) Long after, @RequestParam(defaultValue = "20") int limit) {
+        return super.findAllAfter(after, limit);
+    }
+
+    @GetMapping("/query")
+    @Override
+    public ResponseEntity<?> query(@RequestParam MultiValueMap<String, String> parameters) {
+        return super.query(parameters);
+    }
+
+    @GetMapping("/count")
+    @Override
+    public ResponseEntity<?> count(@RequestParam MultiValueMap<String, String> parameters) {
+        return super.count(parameters);
+    }
+
+    @GetMapping("/stream")
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(defaultValue = "false") boolean ndjson) {
+        return super.streamAll(ndjson);
     }
 
     @DeleteMapping("/{id}")
@@ -49,9 +104,57 @@ public class TestController extends GenericController<TestEntity, Long> {
         return super.deleteById(id);
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @Override
+    public ResponseEntity<?> patch(@PathVariable Long id, @RequestBody Map<String, Object> patch) {
+        return super.patch(id, patch);
+    }
+
     @PutMapping("/{id}")
     @Override
     public ResponseEntity<?> update(@PathVariable Long id, @RequestBody TestEntity entity) {
         return super.update(id, entity);
     }
-}
+
+    @PutMapping("/batch")
+    @Override
+    public ResponseEntity<?> updateAll(@RequestBody List<TestEntity> entities) {
+        return super.updateAll(entities);
+    }
+
+    @DeleteMapping("/batch")
+    @Override
+    public ResponseEntity<?> deleteAllById(@RequestBody List<Long> ids) {
+        return super.deleteAllById(ids);
+    }
+
+    @PostMapping("/async")
+    @Override
+    public CompletableFuture<ResponseEntity<?>> createAsync(@RequestBody TestEntity entity) {
+        return super.createAsync(entity);
+    }
+
+    @GetMapping("/async/{id}")
+    @Override
+    public CompletableFuture<ResponseEntity<?>> findByIdAsync(@PathVariable Long id) {
+        return super.findByIdAsync(id);
+    }
+
+    @GetMapping("/async")
+    @Override
+    public CompletableFuture<ResponseEntity<?>> findAllAsync() {
+        return super.findAllAsync();
+    }
+
+    @PutMapping("/async/{id}")
+    @Override
+    public CompletableFuture<ResponseEntity<?>> updateAsync(@PathVariable Long id, @RequestBody TestEntity entity) {
+        return super.updateAsync(id, entity);
+    }
+
+    @DeleteMapping("/async/{id}")
+    @Override
+    public CompletableFuture<ResponseEntity<?>> deleteByIdAsync(@PathVariable Long id) {
+        return super.deleteByIdAsync(id);
+    }
+}
\ No newline at end of file
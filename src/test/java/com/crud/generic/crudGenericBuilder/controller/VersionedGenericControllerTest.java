@@ -0,0 +1,142 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.service.VersionedTestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the conditional requests and optimistic locking of the GenericController class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class VersionedGenericControllerTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private VersionedTestService service;
+
+    @InjectMocks
+    private VersionedTestController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static VersionedTestEntity entity(long version) {
+        return new VersionedTestEntity(1L, "Test Name", "Test Description", version, LAST_MODIFIED);
+    }
+
+    @Test
+    public void testFindById_ETag() throws Exception {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Optional.of(entity(3)));
+
+        // Perform the request
+        mockMvc.perform(get("/api/versioned-test/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED.toEpochMilli()))
+                .andExpect(jsonPath("$.name").value("Test Name"));
+    }
+
+    @Test
+    public void testFindById_NotModified() throws Exception {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Optional.of(entity(3)));
+
+        // Perform the request with the current ETag
+        mockMvc.perform(get("/api/versioned-test/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testFindById_Modified() throws Exception {
+        // Mock the service findById method
+        when(service.findById(1L)).thenReturn(Optional.of(entity(4)));
+
+        // Perform the request with an outdated ETag
+        mockMvc.perform(get("/api/versioned-test/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""));
+    }
+
+    @Test
+    public void testFindAll_NotModified() throws Exception {
+        // Mock the service findAllVersion method
+        CollectionVersion version = new CollectionVersion(2, 3L, 5L, LAST_MODIFIED);
+        when(service.findAllVersion()).thenReturn(Optional.of(version));
+
+        // Perform the request with the current ETag
+        mockMvc.perform(get("/api/versioned-test").header(HttpHeaders.IF_NONE_MATCH, version.toETag()))
+                .andExpect(status().isNotModified());
+
+        // Verify the entities were not read
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    public void testFindAll_ETag() throws Exception {
+        // Mock the service findAllVersion and findAll methods
+        CollectionVersion version = new CollectionVersion(1, 1L, 3L, LAST_MODIFIED);
+        when(service.findAllVersion()).thenReturn(Optional.of(version));
+        when(service.findAll()).thenReturn(List.of(entity(3)));
+
+        // Perform the request
+        mockMvc.perform(get("/api/versioned-test"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.toETag()))
+                .andExpect(jsonPath("$[0].version").value(3));
+    }
+
+    @Test
+    public void testUpdate_Conflict() throws Exception {
+        // Mock the service updateIfExists method
+        when(service.updateIfExists(eq(1L), any(VersionedTestEntity.class)))
+                .thenThrow(new OptimisticLockException("Entity with id 1 was modified, expected version 3"));
+
+        // Perform the request with an outdated version
+        mockMvc.perform(put("/api/versioned-test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Updated Name\",\"version\":3}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Entity with id 1 was modified, expected version 3"));
+    }
+
+    @Test
+    public void testUpdate_Version() throws Exception {
+        // Mock the service updateIfExists method
+        when(service.updateIfExists(eq(1L), any(VersionedTestEntity.class))).thenReturn(Optional.of(entity(4)));
+
+        // Perform the request with the current version
+        mockMvc.perform(put("/api/versioned-test/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Updated Name\",\"version\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4));
+    }
+}
@@ -0,0 +1,52 @@
+package com.crud.generic.crudGenericBuilder.controller;
+
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.service.VersionedTestService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+
+/**
+ * Test controller for the versioned test entity.
+ * This is used for testing conditional requests and optimistic locking.
+ */
+@RestController
+@RequestMapping("/api/versioned-test")
+public class VersionedTestController extends GenericController<VersionedTestEntity, Long> {
+
+    /**
+     * Constructor that takes a service.
+     * 
+     * @param versionedTestService the service to use
+     */
+    public VersionedTestController(VersionedTestService versionedTestService) {
+        super(versionedTestService);
+    }
+
+    @GetMapping("/{id}")
+    @Override
+    public ResponseEntity<?> findById(@PathVariable Long id, WebRequest request) {
+        return super.findById(id, request);
+    }
+
+    @GetMapping
+    @Override
+    public ResponseEntity<?> findAll(WebRequest request) {
+        return super.findAll(request);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @Override
+    public ResponseEntity<?> patch(@PathVariable Long id, @RequestBody Map<String, Object> patch) {
+        return super.patch(id, patch);
+    }
+
+    @PutMapping("/{id}")
+    @Override
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody VersionedTestEntity entity) {
+        return super.update(id, entity);
+    }
+}
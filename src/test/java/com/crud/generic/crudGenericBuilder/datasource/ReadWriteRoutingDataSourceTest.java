@@ -0,0 +1,207 @@
+package com.crud.generic.crudGenericBuilder.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ReadWriteRoutingDataSource class, with embedded H2 databases as primary and replicas.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        databases.forEach(EmbeddedDatabase::shutdown);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void request(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName("routing-" + name).build();
+        new JdbcTemplate(database).execute("create table node (name varchar(20)); insert into node values ('" + name + "')");
+        databases.add(database);
+        return database;
+    }
+
+    private static String node(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    @Test
+    public void testRouting() {
+        // Create a routing DataSource with one replica
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), List.of(database("replica")), Duration.ZERO));
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Verify read-only transactions use the replica and everything else the primary
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+        assertEquals("primary", readWrite.execute(status -> node(jdbcTemplate)));
+        assertEquals("primary", node(jdbcTemplate));
+    }
+
+    @Test
+    public void testRouting_RoundRobin() {
+        // Create a routing DataSource with two replicas
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), List.of(database("replica-a"), database("replica-b")), Duration.ZERO));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Verify read-only transactions alternate between the replicas
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(readOnly.execute(status -> node(jdbcTemplate)));
+        }
+        assertEquals(List.of("replica-a", "replica-b", "replica-a", "replica-b"), nodes);
+    }
+
+    @Test
+    public void testRouting_NoReplicas() {
+        // Create a routing DataSource without replicas
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), List.of(), Duration.ZERO));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // Verify read-only transactions use the primary
+        assertEquals("primary", readOnly.execute(status -> node(new JdbcTemplate(dataSource))));
+    }
+
+    @Test
+    public void testRouting_ReadYourWrites() {
+        // Create a routing DataSource that keeps reads on the primary for a while after a write
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), List.of(database("replica")), Duration.ofMinutes(1)));
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        request(null);
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+
+        // Verify a rolled back transaction does not move the reads
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set name = name");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+
+        // Verify the reads of the same request use the primary after a commit
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+        assertEquals("primary", readOnly.execute(status -> node(jdbcTemplate)));
+
+        // Verify other requests and work outside of requests still read from the replica
+        request(null);
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+        RequestContextHolder.resetRequestAttributes();
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+    }
+
+    @Test
+    public void testRouting_ReadYourWritesSession() {
+        // Create a routing DataSource that keeps reads on the primary for a while after a write
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), List.of(database("replica")), Duration.ofMinutes(1)));
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Commit a write in a request of a session
+        MockHttpSession session = new MockHttpSession();
+        request(session);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+
+        // Verify the later requests of the session read from the primary, and those of another session from the replica
+        request(session);
+        assertEquals("primary", readOnly.execute(status -> node(jdbcTemplate)));
+        request(new MockHttpSession());
+        assertEquals("replica", readOnly.execute(status -> node(jdbcTemplate)));
+    }
+
+    @Test
+    public void testRouting_InvalidDuration() {
+        // Verify a negative read-your-writes duration is rejected
+        assertThrows(IllegalArgumentException.class, () -> new ReadWriteRoutingDataSource(
+                database("primary"), List.of(), Duration.ofMillis(-1)));
+    }
+
+    @Test
+    public void testAutoConfiguration_Pools() {
+        // Create a context with pool settings for the primary, every replica and the second replica
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudReadReplicaAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:pool-primary",
+                        "spring.datasource.hikari.maximum-pool-size=7",
+                        "spring.datasource.hikari.leak-detection-threshold=30000",
+                        "crud.generic.replicas.urls=jdbc:h2:mem:pool-replica-a,jdbc:h2:mem:pool-replica-b",
+                        "crud.generic.replicas.hikari.maximum-pool-size=5",
+                        "crud.generic.replicas.replica-1.hikari.maximum-pool-size=3");
+
+        // Verify the pools were configured
+        runner.run(context -> {
+            ReadWriteRoutingDataSource routing = context.getBean(ReadWriteRoutingDataSource.class);
+            HikariDataSource primary = (HikariDataSource) routing.getResolvedDataSources().get(ReadWriteRoutingDataSource.PRIMARY);
+            HikariDataSource replicaA = (HikariDataSource) routing.getResolvedDataSources().get(ReadWriteRoutingDataSource.REPLICA + 0);
+            HikariDataSource replicaB = (HikariDataSource) routing.getResolvedDataSources().get(ReadWriteRoutingDataSource.REPLICA + 1);
+            assertEquals(7, primary.getMaximumPoolSize(), "The primary should use the spring.datasource.hikari settings");
+            assertEquals(30000, primary.getLeakDetectionThreshold());
+            assertEquals(5, replicaA.getMaximumPoolSize(), "The replicas should use the shared replica settings");
+            assertEquals(3, replicaB.getMaximumPoolSize(), "A replica's own settings should take precedence");
+            assertEquals("jdbc:h2:mem:pool-replica-b", replicaB.getJdbcUrl());
+        });
+    }
+
+    @Test
+    public void testAutoConfiguration() {
+        // Create a context with a primary and a replica url
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudReadReplicaAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:auto-primary",
+                        "crud.generic.replicas.urls=jdbc:h2:mem:auto-replica",
+                        "crud.generic.replicas.read-your-writes-ms=100");
+
+        // Verify the routing DataSource is used through a lazy connection proxy
+        runner.run(context -> {
+            assertTrue(context.getBean(DataSource.class) instanceof LazyConnectionDataSourceProxy);
+            assertTrue(context.getBean(LazyConnectionDataSourceProxy.class).getTargetDataSource() instanceof ReadWriteRoutingDataSource);
+        });
+
+        // Verify nothing is configured without replica urls
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudReadReplicaAutoConfiguration.class))
+                .run(context -> assertFalse(context.containsBean("crudRoutingDataSource")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.crud.generic.crudGenericBuilder.limit;
+
+import com.crud.generic.crudGenericBuilder.metrics.CrudOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the EndpointLimiter class.
+ */
+public class EndpointLimiterTest {
+
+    @EndpointLimit(permitsPerSecond = 0.01, burst = 2)
+    @EndpointLimit(operations = {CrudOperation.FIND_ALL, CrudOperation.STREAM_ALL}, maxConcurrentCalls = 1)
+    private static class LimitedController {
+    }
+
+    private static class SubclassController extends LimitedController {
+    }
+
+    @Test
+    public void testAnnotations() {
+        EndpointLimiter limiter = new EndpointLimiter(SubclassController.class, "TestEntity", null);
+
+        // Verify the annotation listing an operation takes precedence over the one for every operation
+        limiter.acquire(CrudOperation.FIND_ALL);
+        LimitExceededException e = assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.FIND_ALL));
+        assertEquals("concurrency", e.getLimit());
+        assertEquals(1, e.getRetryAfterSeconds());
+        limiter.release(CrudOperation.FIND_ALL);
+        limiter.acquire(CrudOperation.FIND_ALL);
+        limiter.acquire(CrudOperation.FIND_ALL_AFTER);
+        limiter.release(CrudOperation.FIND_ALL_AFTER);
+
+        // Verify the other operations get their own bucket of the annotation for every operation
+        limiter.acquire(CrudOperation.FIND_BY_ID);
+        limiter.acquire(CrudOperation.FIND_BY_ID);
+        assertEquals("rate", assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.FIND_BY_ID)).getLimit());
+        limiter.acquire(CrudOperation.COUNT);
+    }
+
+    @Test
+    public void testProperties() {
+        // Override one limit and remove another with properties
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.findAll.max-concurrent-calls", "0")
+                .withProperty("crud.generic.limits.TestEntity.findById.permits-per-second", "0.01")
+                .withProperty("crud.generic.limits.TestEntity.findById.burst", "1")
+                .withProperty("crud.generic.limits.TestEntity.deleteById.permits-per-second", "0.1");
+        EndpointLimiter limiter = new EndpointLimiter(LimitedController.class, "TestEntity", environment);
+
+        // Verify the properties apply to their entity and operation only
+        assertFalse(limiter.isLimited(CrudOperation.FIND_ALL));
+        assertTrue(limiter.isLimited(CrudOperation.STREAM_ALL));
+        limiter.acquire(CrudOperation.FIND_BY_ID);
+        assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.FIND_BY_ID));
+        // The rate of deleteById comes from the property and its burst of 2 from the annotation
+        limiter.acquire(CrudOperation.DELETE_BY_ID);
+        limiter.acquire(CrudOperation.DELETE_BY_ID);
+        LimitExceededException e = assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.DELETE_BY_ID));
+        assertTrue(e.getRetryAfterSeconds() > 1 && e.getRetryAfterSeconds() <= 10, "Retry-After should cover the refill");
+    }
+
+    @Test
+    public void testRateRejectionReleasesBulkhead() {
+        // Limit an operation to one call at a time and one call in total
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("crud.generic.limits.TestEntity.findAll.permits-per-second", "0.001")
+                .withProperty("crud.generic.limits.TestEntity.findAll.max-concurrent-calls", "1");
+        EndpointLimiter limiter = new EndpointLimiter(Object.class, "TestEntity", environment);
+        limiter.acquire(CrudOperation.FIND_ALL);
+        limiter.release(CrudOperation.FIND_ALL);
+
+        // Verify the rate rejection gives back the concurrency permit it took
+        assertEquals("rate", assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.FIND_ALL)).getLimit());
+        assertEquals("rate", assertThrows(LimitExceededException.class, () -> limiter.acquire(CrudOperation.FIND_ALL)).getLimit());
+    }
+
+    @Test
+    public void testUnlimited() {
+        // Verify a controller without limits never rejects
+        EndpointLimiter limiter = new EndpointLimiter(Object.class, "TestEntity", new MockEnvironment());
+        for (CrudOperation operation : CrudOperation.values()) {
+            assertFalse(limiter.isLimited(operation));
+        }
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire(CrudOperation.FIND_ALL);
+        }
+    }
+}
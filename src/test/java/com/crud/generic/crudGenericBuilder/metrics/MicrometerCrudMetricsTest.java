@@ -0,0 +1,111 @@
+package com.crud.generic.crudGenericBuilder.metrics;
+
+import com.crud.generic.crudGenericBuilder.cache.CaffeineEntityCache;
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.cache.SingleFlight;
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Micrometer implementation of CrudMetrics.
+ */
+public class MicrometerCrudMetricsTest {
+
+    private MeterRegistry registry;
+    private CrudMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MicrometerCrudMetricsFactory(registry).create("service", TestEntity.class);
+    }
+
+    @Test
+    public void testRecord() {
+        // Record two calls
+        String result = metrics.record(CrudOperation.FIND_BY_ID, () -> "result");
+        metrics.record(CrudOperation.FIND_BY_ID, () -> "result");
+
+        // Verify the timer is tagged with the entity, layer and operation
+        Timer timer = registry.get("crud.operation")
+                .tag("entity", "TestEntity")
+                .tag("layer", "service")
+                .tag("operation", "findById")
+                .timer();
+        assertEquals("result", result, "The result of the call should be returned");
+        assertEquals(2, timer.count(), "Both calls should be timed");
+    }
+
+    @Test
+    public void testRecord_Error() {
+        // Record a failing call
+        assertThrows(IllegalStateException.class, () -> metrics.record(CrudOperation.SAVE, () -> {
+            throw new IllegalStateException("failure");
+        }));
+
+        // Verify the call was timed and counted as an error
+        assertEquals(1, registry.get("crud.operation").tag("operation", "save").timer().count());
+        assertEquals(1, registry.get("crud.operation.errors")
+                .tag("operation", "save")
+                .tag("exception", "IllegalStateException")
+                .counter().count(), "The error should be counted");
+    }
+
+    @Test
+    public void testRecordRows() {
+        // Record the size of two results
+        metrics.recordRows(CrudOperation.FIND_ALL, 10);
+        metrics.recordRows(CrudOperation.FIND_ALL, 30);
+
+        // Verify the distribution of the result sizes
+        assertEquals(2, registry.get("crud.operation.rows").tag("operation", "findAll").summary().count());
+        assertEquals(40, registry.get("crud.operation.rows").tag("operation", "findAll").summary().totalAmount());
+    }
+
+    @Test
+    public void testMonitor() {
+        // Monitor a cache with one miss and one hit
+        EntityCache<Long, TestEntity> cache = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        metrics.monitor(cache);
+        cache.get(1L, id -> new TestEntity(id, "Test Name", "Test Description"));
+        cache.get(1L, id -> new TestEntity(id, "Test Name", "Test Description"));
+
+        // Verify the cache statistics are published
+        assertEquals(1, registry.get("crud.cache.hits").tag("entity", "TestEntity").functionCounter().count());
+        assertEquals(1, registry.get("crud.cache.misses").tag("entity", "TestEntity").functionCounter().count());
+        assertEquals(1, registry.get("crud.cache.size").tag("entity", "TestEntity").gauge().value());
+    }
+
+    @Test
+    public void testMonitor_SingleFlight() {
+        // Monitor a single-flight loader with one load
+        SingleFlight<Long, TestEntity> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        metrics.monitor(singleFlight);
+        singleFlight.load(1L, () -> new TestEntity(1L, "Test Name", "Test Description"));
+
+        // Verify the load statistics are published
+        assertEquals(1, registry.get("crud.singleflight.loads").tag("entity", "TestEntity").functionCounter().count());
+        assertEquals(0, registry.get("crud.singleflight.collapsed").tag("entity", "TestEntity").functionCounter().count());
+        assertEquals(0, registry.get("crud.singleflight.timeouts").tag("entity", "TestEntity").functionCounter().count());
+    }
+
+    @Test
+    public void testAutoConfiguration() {
+        // Verify the factory is only created when a meter registry exists
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudMetricsAutoConfiguration.class));
+        runner.run(context -> assertFalse(context.containsBean("crudMetricsFactory")));
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> assertTrue(context.getBean(CrudMetricsFactory.class) instanceof MicrometerCrudMetricsFactory));
+    }
+}
@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Test entity class whose ids are assigned by the application.
+ * This is used for testing imports that keep the exported ids.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class AssignedIdTestEntity implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+}
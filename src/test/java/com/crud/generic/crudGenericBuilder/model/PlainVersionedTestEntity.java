@@ -0,0 +1,31 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Version;
+
+/**
+ * Test entity class with a JPA version attribute, but without callbacks and without implementing Versioned.
+ * This is used for testing the version-checked single-statement update.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class PlainVersionedTestEntity implements BaseEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String description;
+
+    @Version
+    private Long version;
+}
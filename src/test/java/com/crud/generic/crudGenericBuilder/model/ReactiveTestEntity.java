@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Test entity class for the reactive stack that implements BaseEntity.
+ * This is used for testing the reactive generic CRUD components.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("reactive_test_entity")
+public class ReactiveTestEntity implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    private String description;
+}
@@ -0,0 +1,31 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * Test entity class that is soft-deleted by custom delete SQL.
+ * This is used for testing deletes that must go through the persistence context.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@SQLDelete(sql = "update soft_deleted_test_entity set deleted = true where id = ?")
+@Where(clause = "deleted = false")
+public class SoftDeletedTestEntity implements BaseEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private boolean deleted;
+}
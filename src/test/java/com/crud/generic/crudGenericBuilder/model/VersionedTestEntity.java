@@ -0,0 +1,42 @@
+package com.crud.generic.crudGenericBuilder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Version;
+import java.time.Instant;
+
+/**
+ * Versioned and timestamped test entity class that implements BaseEntity.
+ * This is used for testing conditional requests and optimistic locking.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class VersionedTestEntity implements BaseEntity<Long>, Versioned, Timestamped {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String description;
+
+    @Version
+    private Long version;
+
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
+}
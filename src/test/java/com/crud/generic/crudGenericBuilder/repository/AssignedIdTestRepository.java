@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.AssignedIdTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface for the assigned id test entity.
+ * This is used for testing imports that keep the exported ids.
+ */
+@Repository
+public interface AssignedIdTestRepository extends GenericRepository<AssignedIdTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
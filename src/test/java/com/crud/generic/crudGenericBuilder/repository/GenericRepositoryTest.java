@@ -5,9 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,6 +98,47 @@ public class GenericRepositoryTest {
         assertTrue(foundEntity2, "Entity 2 should be found");
     }
     
+    @Test
+    public void testFindByIdGreaterThan() {
+        // Create and persist multiple test entities
+        TestEntity entity1 = new TestEntity(null, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(null, "Test Name 2", "Test Description 2");
+        TestEntity entity3 = new TestEntity(null, "Test Name 3", "Test Description 3");
+        entityManager.persist(entity1);
+        entityManager.persist(entity2);
+        entityManager.persist(entity3);
+        entityManager.flush();
+
+        // Read the first slice and then seek past it
+        Slice<TestEntity> first = repository.findAllBy(PageRequest.of(0, 2, Sort.by("id")));
+        Slice<TestEntity> second = repository.findByIdGreaterThan(entity2.getId(), PageRequest.of(0, 2, Sort.by("id")));
+
+        // Verify the slices continue where the previous one ended
+        assertTrue(first.getContent().size() == 2 && first.hasNext(), "The first slice should be full and have a next slice");
+        assertTrue(second.getContent().stream().anyMatch(e -> e.getId().equals(entity3.getId())), "The second slice should contain entity 3");
+        assertTrue(second.getContent().stream().allMatch(e -> e.getId() > entity2.getId()), "The second slice should only contain later ids");
+    }
+
+    @Test
+    public void testStreamAllBy() {
+        // Create and persist multiple test entities
+        TestEntity entity1 = new TestEntity(null, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(null, "Test Name 2", "Test Description 2");
+        entityManager.persist(entity1);
+        entityManager.persist(entity2);
+        entityManager.flush();
+
+        // Stream all entities
+        List<Long> ids;
+        try (Stream<TestEntity> stream = repository.streamAllBy()) {
+            ids = stream.map(TestEntity::getId).collect(Collectors.toList());
+        }
+
+        // Verify the entities were streamed in id order
+        assertTrue(ids.containsAll(List.of(entity1.getId(), entity2.getId())), "Both entities should be streamed");
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids, "The entities should be streamed in id order");
+    }
+
     @Test
     public void testDeleteById() {
         // Create and persist a test entity
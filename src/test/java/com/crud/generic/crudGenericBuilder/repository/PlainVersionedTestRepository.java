@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.PlainVersionedTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface for the plain versioned test entity.
+ * This is used for testing the version-checked single-statement update.
+ */
+@Repository
+public interface PlainVersionedTestRepository extends GenericRepository<PlainVersionedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface that extends ReactiveGenericRepository.
+ * This is used for testing the reactive generic CRUD components.
+ */
+@Repository
+public interface ReactiveTestRepository extends ReactiveGenericRepository<ReactiveTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.SoftDeletedTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface for the soft-deleted test entity.
+ * This is used for testing deletes that must go through the persistence context.
+ */
+@Repository
+public interface SoftDeletedTestRepository extends GenericRepository<SoftDeletedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.TenantTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface for the tenant test entity.
+ * This is used for testing tenant isolation.
+ */
+@Repository
+public interface TenantTestRepository extends GenericRepository<TenantTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
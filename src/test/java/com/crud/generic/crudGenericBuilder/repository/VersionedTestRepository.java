@@ -0,0 +1,13 @@
+package com.crud.generic.crudGenericBuilder.repository;
+
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test repository interface for the versioned test entity.
+ * This is used for testing conditional requests and optimistic locking.
+ */
+@Repository
+public interface VersionedTestRepository extends GenericRepository<VersionedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
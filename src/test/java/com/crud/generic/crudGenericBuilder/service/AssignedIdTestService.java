@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.AssignedIdTestEntity;
+
+/**
+ * Test service interface for the assigned id test entity.
+ * This is used for testing imports that keep the exported ids.
+ */
+public interface AssignedIdTestService extends GenericService<AssignedIdTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,124 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.async.CrudAsyncExecutor;
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.service.impl.AsyncGenericServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the AsyncGenericService interface and AsyncGenericServiceImpl class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AsyncGenericServiceTest {
+
+    @Mock
+    private TestService service;
+
+    private CrudAsyncExecutor executor;
+    private AsyncGenericService<TestEntity, Long> asyncService;
+
+    @BeforeEach
+    public void setUp() {
+        executor = CrudAsyncExecutor.create(true, 4);
+        asyncService = new AsyncGenericServiceImpl<>(service, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void testFindById() throws Exception {
+        // Mock the service findById method
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        when(service.findById(1L)).thenReturn(Optional.of(entity));
+
+        // Call the async findById method
+        CompletableFuture<Optional<TestEntity>> future = asyncService.findById(1L);
+
+        // Verify the future completes with the result of the service
+        assertEquals(Optional.of(entity), future.get(), "The future should complete with the entity");
+        verify(service, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testSaveAll() throws Exception {
+        // Mock the service saveAll method
+        List<TestEntity> entities = List.of(new TestEntity(1L, "Test Name", "Test Description"));
+        when(service.saveAll(entities)).thenReturn(entities);
+
+        // Verify the future completes with the saved entities
+        assertEquals(entities, asyncService.saveAll(entities).get(), "The future should complete with the saved entities");
+    }
+
+    @Test
+    public void testPatch() throws Exception {
+        // Mock the service patch method
+        Map<String, Object> changes = Map.of("name", "Patched Name");
+        when(service.patch(1L, changes)).thenReturn(true);
+
+        // Verify the future completes with whether the entity was patched
+        assertTrue(asyncService.patch(1L, changes).get(), "The future should complete with the patch result");
+        verify(service, times(1)).patch(1L, changes);
+    }
+
+    @Test
+    public void testStreamAll() throws Exception {
+        // Mock the service streamAll method
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        doAnswer(invocation -> {
+            Consumer<TestEntity> consumer = invocation.getArgument(0);
+            consumer.accept(entity);
+            return null;
+        }).when(service).streamAll(any());
+
+        // Verify the future completes once every entity is consumed
+        List<TestEntity> consumed = new ArrayList<>();
+        asyncService.streamAll(consumed::add).get();
+        assertEquals(List.of(entity), consumed, "Every entity should be consumed before the future completes");
+    }
+
+    @Test
+    public void testDeleteIfExists_Failure() {
+        // Mock the service deleteIfExists method with a failure
+        when(service.deleteIfExists(1L)).thenThrow(new IllegalStateException("failure"));
+
+        // Verify the future completes exceptionally with the failure
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> asyncService.deleteIfExists(1L).get());
+        assertTrue(exception.getCause() instanceof IllegalStateException, "The cause should be the service failure");
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        // Mock the service count method
+        when(service.count()).thenReturn(5L);
+
+        // Start many calls at once
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(asyncService.count());
+        }
+
+        // Verify every call completes
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        assertTrue(futures.stream().allMatch(future -> future.join() == 5L), "Every call should complete with the count");
+        verify(service, times(100)).count();
+    }
+}
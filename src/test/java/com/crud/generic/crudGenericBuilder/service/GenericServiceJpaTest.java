@@ -0,0 +1,738 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.controller.PlainVersionedTestController;
+import com.crud.generic.crudGenericBuilder.model.AssignedIdTestEntity;
+import com.crud.generic.crudGenericBuilder.model.CollectionVersion;
+import com.crud.generic.crudGenericBuilder.model.PlainVersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.model.SoftDeletedTestEntity;
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.query.Filter;
+import com.crud.generic.crudGenericBuilder.query.FilterOperator;
+import com.crud.generic.crudGenericBuilder.service.impl.AssignedIdTestServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.GenericServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.PlainVersionedTestServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.SoftDeletedTestServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.TestServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.VersionedTestServiceImpl;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the GenericServiceImpl class against the embedded database.
+ */
+@DataJpaTest
+@Import({TestServiceImpl.class, VersionedTestServiceImpl.class, PlainVersionedTestServiceImpl.class, AssignedIdTestServiceImpl.class,
+        SoftDeletedTestServiceImpl.class})
+public class GenericServiceJpaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TestService service;
+
+    @Autowired
+    private VersionedTestService versionedService;
+
+    @Autowired
+    private PlainVersionedTestService plainVersionedService;
+
+    @Autowired
+    private AssignedIdTestService assignedIdService;
+
+    @Autowired
+    private SoftDeletedTestService softDeletedService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void resetCountStrategy() {
+        // The service is shared by the tests, so restore the default count strategy
+        ((GenericServiceImpl<?, ?>) service).setCountStrategy(CountStrategy.EXACT);
+        ((GenericServiceImpl<?, ?>) service).setCountCacheTtlSeconds(10);
+        ((GenericServiceImpl<?, ?>) service).setInListSize(500);
+    }
+
+    @Test
+    public void testSaveAll() {
+        // Create more entities than fit in one batch
+        List<TestEntity> entities = IntStream.range(0, 120)
+                .mapToObj(i -> new TestEntity(null, "Test Name " + i, "Test Description " + i))
+                .collect(Collectors.toList());
+
+        // Save the entities
+        List<TestEntity> savedEntities = service.saveAll(entities);
+
+        // Verify every entity was saved
+        assertEquals(120, savedEntities.size(), "Every entity should be saved");
+        assertTrue(savedEntities.stream().allMatch(e -> e.getId() != null), "Every saved entity should have an id");
+        TestEntity foundEntity = entityManager.find(TestEntity.class, savedEntities.get(119).getId());
+        assertEquals("Test Name 119", foundEntity.getName(), "The last entity should be in the database");
+    }
+
+    @Test
+    public void testInsertAll() {
+        // Insert entities with assigned ids and count the loads
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            assignedIdService.insertAll(List.of(new AssignedIdTestEntity(10L, "Test Name 1"), new AssignedIdTestEntity(20L, "Test Name 2")));
+
+            // Verify the entities were inserted without being selected first
+            assertEquals(2, statistics.getEntityInsertCount(), "Every entity should be inserted");
+            assertEquals(0, statistics.getEntityLoadCount(), "No entity should be selected before its insert");
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertEquals("Test Name 2", entityManager.find(AssignedIdTestEntity.class, 20L).getName(), "The entity should keep its id");
+
+        // Verify an id is rejected when ids are generated
+        assertThrows(IllegalArgumentException.class, () -> service.insertAll(List.of(new TestEntity(1L, "Test Name", "Test Description"))));
+    }
+
+    @Test
+    public void testUpdateAll() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Update the entity
+        service.updateAll(List.of(new TestEntity(entity.getId(), "Updated Name", "Updated Description")));
+
+        // Verify the entity was updated
+        TestEntity foundEntity = entityManager.find(TestEntity.class, entity.getId());
+        assertEquals("Updated Name", foundEntity.getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testUpdateAll_DuplicateId() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Update the entity twice in one batch
+        service.updateAll(List.of(new TestEntity(entity.getId(), "First Name", "Test Description"),
+                new TestEntity(entity.getId(), "Second Name", "Test Description")));
+
+        // Verify the last update wins
+        TestEntity foundEntity = entityManager.find(TestEntity.class, entity.getId());
+        assertEquals("Second Name", foundEntity.getName(), "The name should be the last update");
+    }
+
+    @Test
+    public void testUpdateAll_Missing() {
+        // Update an entity that does not exist
+        TestEntity entity = new TestEntity(Long.MAX_VALUE, "Updated Name", "Updated Description");
+
+        // Verify the update is rejected
+        assertThrows(EntityNotFoundException.class, () -> service.updateAll(List.of(entity)));
+    }
+
+    @Test
+    public void testDeleteAllById() {
+        // Create and persist test entities
+        TestEntity entity1 = entityManager.persist(new TestEntity(null, "Test Name 1", "Test Description 1"));
+        TestEntity entity2 = entityManager.persist(new TestEntity(null, "Test Name 2", "Test Description 2"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Delete the entities
+        service.deleteAllById(List.of(entity1.getId(), entity2.getId()));
+
+        // Verify the entities were deleted
+        assertNull(entityManager.find(TestEntity.class, entity1.getId()), "Entity 1 should be deleted");
+        assertNull(entityManager.find(TestEntity.class, entity2.getId()), "Entity 2 should be deleted");
+    }
+
+    @Test
+    public void testDeleteAllById_SoftDelete() {
+        // Create and persist entities whose delete SQL only marks them as deleted
+        SoftDeletedTestEntity entity1 = entityManager.persist(new SoftDeletedTestEntity(null, "Test Name 1", false));
+        SoftDeletedTestEntity entity2 = entityManager.persist(new SoftDeletedTestEntity(null, "Test Name 2", false));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Delete the entities
+        softDeletedService.deleteAllById(List.of(entity1.getId(), entity2.getId()));
+
+        // Verify the entities were removed through the persistence context, so their rows are only marked as deleted
+        assertNull(entityManager.find(SoftDeletedTestEntity.class, entity1.getId()), "Entity 1 should be deleted");
+        Number rows = (Number) entityManager.getEntityManager()
+                .createNativeQuery("select count(*) from soft_deleted_test_entity where deleted = true").getSingleResult();
+        assertEquals(2, rows.intValue(), "The rows should be soft-deleted, not removed");
+    }
+
+    @Test
+    public void testUpdateIfExists() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Update the entity
+        Optional<TestEntity> updatedEntity = service.updateIfExists(entity.getId(), new TestEntity(null, "Updated Name", null));
+
+        // Verify every column was written
+        assertTrue(updatedEntity.isPresent(), "The entity should be updated");
+        assertEquals(entity.getId(), updatedEntity.get().getId(), "The updated entity should carry the id");
+        TestEntity foundEntity = entityManager.find(TestEntity.class, entity.getId());
+        assertEquals("Updated Name", foundEntity.getName(), "The name should be updated");
+        assertNull(foundEntity.getDescription(), "The description should be cleared");
+    }
+
+    @Test
+    public void testUpdateIfExists_Missing() {
+        // Update an entity that does not exist
+        Optional<TestEntity> updatedEntity = service.updateIfExists(Long.MAX_VALUE, new TestEntity(null, "Updated Name", null));
+
+        // Verify nothing was updated or created
+        assertFalse(updatedEntity.isPresent(), "The missing entity should not be updated");
+        assertNull(entityManager.find(TestEntity.class, Long.MAX_VALUE), "No entity should be created");
+    }
+
+    @Test
+    public void testDeleteIfExists() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Delete the entity twice
+        assertTrue(service.deleteIfExists(entity.getId()), "The first delete should remove the entity");
+        assertFalse(service.deleteIfExists(entity.getId()), "The second delete should find nothing");
+        assertNull(entityManager.find(TestEntity.class, entity.getId()), "The entity should be deleted");
+    }
+
+    @Test
+    public void testFindById_Fields() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+
+        // Read only its name
+        Map<String, Object> values = service.findById(entity.getId(), List.of("name")).orElseThrow();
+
+        // Verify only the id and the name were read
+        assertEquals(Map.of("id", entity.getId(), "name", "Test Name"), values, "Only the id and the requested field should be read");
+        assertFalse(service.findById(Long.MAX_VALUE, List.of("name")).isPresent(), "A missing entity should not be found");
+    }
+
+    @Test
+    public void testFindAll_Fields() {
+        // Create and persist test entities
+        entityManager.persist(new TestEntity(null, "Test Name 1", "Test Description 1"));
+        entityManager.persist(new TestEntity(null, "Test Name 2", "Test Description 2"));
+        entityManager.flush();
+
+        // Read only their descriptions
+        List<Map<String, Object>> values = service.findAll(List.of("description"));
+
+        // Verify the projections
+        assertEquals(2, values.size(), "Every entity should be read");
+        assertEquals(List.of("id", "description"), List.copyOf(values.get(0).keySet()), "The id should come first");
+    }
+
+    @Test
+    public void testFindAll_UnknownField() {
+        // Verify fields that are not basic attributes are rejected
+        assertThrows(IllegalArgumentException.class, () -> service.findAll(List.of("secret")));
+    }
+
+    @Test
+    public void testFindAllVersion() {
+        // Create and persist a versioned test entity
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        CollectionVersion before = versionedService.findAllVersion().orElseThrow();
+        assertEquals(1, before.getCount(), "The entity should be counted");
+
+        // Update the entity
+        versionedService.updateIfExists(entity.getId(), new VersionedTestEntity(null, "Updated Name", "Updated Description", null, null));
+
+        // Verify the summary changed
+        CollectionVersion after = versionedService.findAllVersion().orElseThrow();
+        assertEquals(before.getVersionSum() + 1, after.getVersionSum(), "The update should increment the version");
+        assertNotEquals(before.toETag(), after.toETag(), "The ETag should change");
+        assertFalse(after.getLastModified().isBefore(before.getLastModified()), "The update should set the modification time");
+    }
+
+    @Test
+    public void testFindAllVersion_Replaced() {
+        // Create and persist a versioned test entity
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        CollectionVersion before = versionedService.findAllVersion().orElseThrow();
+
+        // Replace the entity with a new one, which has the same count and version sum
+        entityManager.remove(entity);
+        VersionedTestEntity replacement = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        entityManager.getEntityManager().createQuery("update VersionedTestEntity e set e.lastModified = :lastModified")
+                .setParameter("lastModified", before.getLastModified())
+                .executeUpdate();
+
+        // Verify the summary still changed
+        CollectionVersion after = versionedService.findAllVersion().orElseThrow();
+        assertEquals(before.getVersionSum(), after.getVersionSum(), "The version sum should not change");
+        assertEquals(replacement.getId(), after.getIdAggregate(), "The ids should be summed");
+        assertNotEquals(before.toETag(), after.toETag(), "The ETag should change");
+    }
+
+    @Test
+    public void testFindAllVersion_Unversioned() {
+        // Verify entities without version or timestamp have no summary
+        assertFalse(service.findAllVersion().isPresent(), "Unversioned entities should have no summary");
+    }
+
+    @Test
+    public void testUpdateIfExists_Version() {
+        // Create and persist a versioned test entity
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        Long version = entity.getVersion();
+        entityManager.clear();
+
+        // Update the entity with its current version
+        VersionedTestEntity updated = versionedService.updateIfExists(entity.getId(),
+                new VersionedTestEntity(null, "Updated Name", "Updated Description", version, null)).orElseThrow();
+
+        // Verify the version was incremented in the database and in the returned entity
+        assertEquals(version + 1, updated.getVersion(), "The returned entity should carry the new version");
+        VersionedTestEntity foundEntity = entityManager.find(VersionedTestEntity.class, entity.getId());
+        assertEquals(version + 1, foundEntity.getVersion(), "The version should be incremented");
+        assertEquals("Updated Name", foundEntity.getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_Merged() {
+        // Create and persist a versioned test entity, whose update callback rules out the single-statement update
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        entityManager.clear();
+
+        // Update the entity without a version
+        VersionedTestEntity update = new VersionedTestEntity(null, "Updated Name", "Updated Description", null, null);
+        VersionedTestEntity updated = versionedService.updateIfExists(entity.getId(), update).orElseThrow();
+
+        // Verify the persisted state is returned, including the values set by the callback
+        assertNotSame(update, updated, "The merged entity should be returned");
+        assertEquals(entity.getVersion() + 1, updated.getVersion(), "The returned entity should carry the new version");
+        assertTrue(updated.getLastModified().isAfter(entity.getLastModified()), "The update callback should have run");
+        entityManager.clear();
+        VersionedTestEntity foundEntity = entityManager.find(VersionedTestEntity.class, entity.getId());
+        assertEquals(updated.getVersion(), foundEntity.getVersion(), "The returned entity should match the database");
+        assertEquals("Updated Name", foundEntity.getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testDeleteIfExists_Removed() {
+        // Create and persist a soft-deleted test entity, which is removed through the persistence context
+        SoftDeletedTestEntity entity = entityManager.persistFlushFind(new SoftDeletedTestEntity(null, "Test Name", false));
+        entityManager.clear();
+
+        // Delete the entity twice
+        assertTrue(softDeletedService.deleteIfExists(entity.getId()), "The first delete should remove the entity");
+        assertFalse(softDeletedService.deleteIfExists(entity.getId()), "The second delete should find nothing");
+        assertNull(entityManager.find(SoftDeletedTestEntity.class, entity.getId()), "The entity should be deleted");
+    }
+
+    @Test
+    public void testUpdateIfExists_StaleVersion() {
+        // Create and persist a versioned test entity
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        Long staleVersion = entity.getVersion() - 1;
+        entityManager.clear();
+
+        // Verify an update with an outdated version is rejected
+        VersionedTestEntity update = new VersionedTestEntity(null, "Updated Name", "Updated Description", staleVersion, null);
+        assertThrows(OptimisticLockException.class, () -> versionedService.updateIfExists(entity.getId(), update));
+        assertEquals("Test Name", entityManager.find(VersionedTestEntity.class, entity.getId()).getName(), "The entity should not be updated");
+
+        // Verify a missing entity is reported as missing rather than conflicting
+        assertFalse(versionedService.updateIfExists(Long.MAX_VALUE, update).isPresent(), "A missing entity should not be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_JpaVersion() {
+        // Create and persist an entity whose version is only declared with @Version
+        PlainVersionedTestEntity entity = entityManager.persistFlushFind(new PlainVersionedTestEntity(null, "Test Name", "Test Description", null));
+        Long staleVersion = entity.getVersion() - 1;
+        entityManager.clear();
+
+        // Verify an update with an outdated version is rejected
+        PlainVersionedTestEntity update = new PlainVersionedTestEntity(null, "Updated Name", "Updated Description", staleVersion);
+        assertThrows(OptimisticLockException.class, () -> plainVersionedService.updateIfExists(entity.getId(), update));
+        assertEquals("Test Name", entityManager.find(PlainVersionedTestEntity.class, entity.getId()).getName(), "The entity should not be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_JpaVersionMatched() {
+        // Create and persist a plain versioned entity, which is updated with a single statement
+        PlainVersionedTestEntity entity = entityManager.persistFlushFind(new PlainVersionedTestEntity(null, "Test Name", "Test Description", null));
+        Long version = entity.getVersion();
+        entityManager.clear();
+
+        // Update the entity with its current version and count the statements
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        PlainVersionedTestEntity updated;
+        try {
+            updated = plainVersionedService.updateIfExists(entity.getId(),
+                    new PlainVersionedTestEntity(null, "Updated Name", "Updated Description", version)).orElseThrow();
+            assertEquals(1, statistics.getPrepareStatementCount(), "The update should be a single statement");
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Verify the version was incremented in the database and in the returned entity
+        assertEquals(version + 1, updated.getVersion(), "The returned entity should carry the new version");
+        PlainVersionedTestEntity foundEntity = entityManager.find(PlainVersionedTestEntity.class, entity.getId());
+        assertEquals(version + 1, foundEntity.getVersion(), "The version should be incremented");
+        assertEquals("Updated Name", foundEntity.getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_JpaVersionMissing() {
+        // Verify a missing entity is reported as missing rather than conflicting
+        PlainVersionedTestEntity update = new PlainVersionedTestEntity(null, "Updated Name", "Updated Description", 0L);
+        assertFalse(plainVersionedService.updateIfExists(Long.MAX_VALUE, update).isPresent(), "A missing entity should not be updated");
+        assertNull(entityManager.find(PlainVersionedTestEntity.class, Long.MAX_VALUE), "No entity should be created");
+    }
+
+    @Test
+    public void testUpdate_JpaVersionConflict() throws Exception {
+        // Create and persist a plain versioned entity
+        PlainVersionedTestEntity entity = entityManager.persistFlushFind(new PlainVersionedTestEntity(null, "Test Name", "Test Description", null));
+        entityManager.clear();
+
+        // Perform the request with an outdated version through the controller and the service
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PlainVersionedTestController(plainVersionedService)).build();
+        mockMvc.perform(put("/api/plain-versioned-test/" + entity.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Updated Name\",\"version\":" + (entity.getVersion() - 1) + "}"))
+                .andExpect(status().isConflict());
+
+        // Verify the entity was not updated
+        assertEquals("Test Name", entityManager.find(PlainVersionedTestEntity.class, entity.getId()).getName(), "The entity should not be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_WithoutVersion() {
+        // Create and persist a plain versioned entity
+        PlainVersionedTestEntity entity = entityManager.persistFlushFind(new PlainVersionedTestEntity(null, "Test Name", "Test Description", null));
+        entityManager.clear();
+
+        // Update the entity without a version
+        PlainVersionedTestEntity updated = plainVersionedService.updateIfExists(entity.getId(),
+                new PlainVersionedTestEntity(null, "Updated Name", "Updated Description", null)).orElseThrow();
+
+        // Verify the returned entity carries the version incremented by the statement
+        assertEquals(entity.getVersion() + 1, updated.getVersion(), "The returned entity should carry the new version");
+        assertEquals(updated.getVersion(), entityManager.find(PlainVersionedTestEntity.class, entity.getId()).getVersion(),
+                "The returned version should match the database");
+    }
+
+    @Test
+    public void testPatch() {
+        // Create and persist a test entity
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Patch only the name
+        assertTrue(service.patch(entity.getId(), Map.of("name", "Patched Name")), "The entity should be patched");
+
+        // Verify the other columns were left alone
+        TestEntity foundEntity = entityManager.find(TestEntity.class, entity.getId());
+        assertEquals("Patched Name", foundEntity.getName(), "The name should be patched");
+        assertEquals("Test Description", foundEntity.getDescription(), "The description should not change");
+        assertFalse(service.patch(Long.MAX_VALUE, Map.of("name", "Patched Name")), "A missing entity should not be patched");
+    }
+
+    @Test
+    public void testPatch_InvalidAttribute() {
+        // Verify unknown attributes and the id are rejected
+        assertThrows(IllegalArgumentException.class, () -> service.patch(1L, Map.of("secret", "value")));
+        assertThrows(IllegalArgumentException.class, () -> service.patch(1L, Map.of("id", 2L)));
+        assertThrows(IllegalArgumentException.class, () -> service.patch(1L, Map.of()));
+    }
+
+    @Test
+    public void testPatch_Version() {
+        // Create and persist a versioned test entity
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        entityManager.clear();
+
+        // Patch with the current version, given as an Integer like a JSON number
+        assertTrue(versionedService.patch(entity.getId(), Map.of("name", "Patched Name", "version", entity.getVersion().intValue())),
+                "The entity should be patched");
+
+        // Verify patching with the now outdated version is rejected
+        Map<String, Object> stalePatch = Map.of("description", "Patched Description", "version", entity.getVersion());
+        assertThrows(OptimisticLockException.class, () -> versionedService.patch(entity.getId(), stalePatch));
+        VersionedTestEntity foundEntity = entityManager.find(VersionedTestEntity.class, entity.getId());
+        assertEquals(entity.getVersion() + 1, foundEntity.getVersion(), "The version should be incremented once");
+        assertEquals("Test Description", foundEntity.getDescription(), "The stale patch should not be applied");
+    }
+
+    @Test
+    public void testPatch_Callbacks() {
+        // Create and persist a versioned test entity, whose update callback rules out the single-statement patch
+        VersionedTestEntity entity = entityManager.persistFlushFind(new VersionedTestEntity(null, "Test Name", "Test Description", null, null));
+        Long version = entity.getVersion();
+        Instant lastModified = entity.getLastModified();
+
+        // Patch the entity while it is still loaded in the persistence context
+        assertTrue(versionedService.patch(entity.getId(), Map.of("name", "Patched Name")), "The entity should be patched");
+
+        // Verify the loaded entity was written through dirty checking, which ran the update callback
+        assertEquals("Patched Name", entity.getName(), "The loaded entity should be patched");
+        assertEquals(version + 1, entity.getVersion(), "The version should be incremented by the flush");
+        assertTrue(entity.getLastModified().isAfter(lastModified), "The update callback should have run");
+        entityManager.clear();
+        VersionedTestEntity foundEntity = entityManager.find(VersionedTestEntity.class, entity.getId());
+        assertEquals("Patched Name", foundEntity.getName(), "The name should be updated");
+        assertEquals("Test Description", foundEntity.getDescription(), "The description should not be changed");
+    }
+
+    @Test
+    public void testFindAll_Filters() {
+        // Create and persist test entities
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(new TestEntity(null, (i % 2 == 0 ? "even_" : "odd%") + i, i < 5 ? "low" : "high"));
+        }
+        entityManager.flush();
+
+        // Filter, sort and limit
+        List<TestEntity> entities = service.findAll(
+                List.of(new Filter("name", FilterOperator.PREFIX, "even_"), new Filter("description", FilterOperator.IN, List.of("low", "high"))),
+                Sort.by(Sort.Order.desc("name")), 3);
+
+        // Verify only the matching entities were returned, in order
+        assertEquals(List.of("even_8", "even_6", "even_4"), entities.stream().map(TestEntity::getName).collect(Collectors.toList()),
+                "The matching entities should be sorted and limited");
+        assertEquals(5, service.findAll(List.of(new Filter("name", FilterOperator.PREFIX, "odd%")), Sort.unsorted(), 100).size(),
+                "LIKE wildcards in the prefix should be matched literally");
+    }
+
+    @Test
+    public void testFindAll_Comparison() {
+        // Create and persist test entities
+        TestEntity first = entityManager.persist(new TestEntity(null, "Test Name 1", null));
+        entityManager.persist(new TestEntity(null, "Test Name 2", "Test Description 2"));
+        entityManager.flush();
+
+        // Filter on the id given as a string, and on null values
+        List<TestEntity> entities = service.findAll(List.of(Filter.parse("id.gt", String.valueOf(first.getId()))), Sort.unsorted(), 10);
+        assertEquals(List.of("Test Name 2"), entities.stream().map(TestEntity::getName).collect(Collectors.toList()), "Only the later entity should match");
+        entities = service.findAll(List.of(Filter.parse("description.null", "true")), Sort.unsorted(), 10);
+        assertEquals(List.of("Test Name 1"), entities.stream().map(TestEntity::getName).collect(Collectors.toList()), "Only the entity without description should match");
+    }
+
+    @Test
+    public void testFindAll_NotFilterable() {
+        // Verify attributes outside the whitelist are rejected for filters and sort orders
+        assertThrows(IllegalArgumentException.class,
+                () -> versionedService.findAll(List.of(Filter.parse("name.eq", "x")), Sort.unsorted(), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> versionedService.findAll(List.of(), Sort.by("name"), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findAll(List.of(Filter.parse("id.eq", "not a number")), Sort.unsorted(), 10));
+    }
+
+    @Test
+    public void testFindAllById() {
+        ((GenericServiceImpl<?, ?>) service).setInListSize(3);
+        List<Long> ids = IntStream.range(0, 7)
+                .mapToObj(i -> entityManager.persist(new TestEntity(null, "Test Name " + i, "Test Description")).getId())
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Read the entities in reverse order, with an id that does not exist
+        List<Long> requested = new ArrayList<>(ids);
+        Collections.reverse(requested);
+        requested.add(2, -1L);
+        List<TestEntity> entities = service.findAllById(requested);
+
+        // Verify every existing entity was read, in the requested order
+        assertEquals(requested.stream().filter(id -> id > 0).collect(Collectors.toList()),
+                entities.stream().map(TestEntity::getId).collect(Collectors.toList()), "The entities should follow the requested order");
+    }
+
+    @Test
+    public void testCount_Cached() {
+        GenericServiceImpl<?, ?> serviceImpl = (GenericServiceImpl<?, ?>) service;
+        serviceImpl.setCountStrategy(CountStrategy.CACHED);
+        entityManager.persist(new TestEntity(null, "Test Name 1", "Test Description 1"));
+        entityManager.flush();
+
+        // Read the count once, then change the table through the service and directly
+        assertEquals(1, service.count(), "The first count should be read from the database");
+        TestEntity saved = service.save(new TestEntity(null, "Test Name 2", "Test Description 2"));
+        service.save(saved);
+        entityManager.persist(new TestEntity(null, "Test Name 3", "Test Description 3"));
+        entityManager.flush();
+
+        // Verify only the inserts made by the service were applied to the cached count
+        assertEquals(2, service.count(), "The cached count should follow the service's inserts but not updates");
+        service.deleteById(saved.getId());
+        assertEquals(1, service.count(), "The cached count should follow the service's deletes");
+
+        // Verify an expired count is read again
+        serviceImpl.setCountCacheTtlSeconds(0);
+        assertEquals(2, service.count(), "An expired count should be read from the database");
+    }
+
+    @Test
+    public void testCount_Estimated() {
+        ((GenericServiceImpl<?, ?>) service).setCountStrategy(CountStrategy.ESTIMATED);
+        entityManager.persist(new TestEntity(null, "Test Name 1", "Test Description 1"));
+        entityManager.flush();
+
+        // Verify the statistics of the embedded database, or the exact count, are returned
+        assertTrue(service.count() >= 0, "The estimated count should not be negative");
+    }
+
+    @Test
+    public void testCount_Filters() {
+        // Create and persist test entities
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(new TestEntity(null, "Test Name " + i, i < 4 ? "low" : "high"));
+        }
+        entityManager.flush();
+
+        // Verify the filtered and unfiltered counts
+        assertEquals(4, service.count(List.of(Filter.parse("description.eq", "low"))), "Only the matching entities should be counted");
+        assertEquals(10, service.count(List.of()), "Without filters every entity should be counted");
+        assertThrows(IllegalArgumentException.class, () -> versionedService.count(List.of(Filter.parse("name.eq", "x"))));
+    }
+
+    @Test
+    public void testFindAll_FiltersPage() {
+        // Create and persist test entities
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(new TestEntity(null, "Test Name " + i, i < 7 ? "low" : "high"));
+        }
+        entityManager.flush();
+
+        // Read the second page of the matching entities
+        Page<TestEntity> page = service.findAll(List.of(Filter.parse("description.eq", "low")), PageRequest.of(1, 3, Sort.by("name")));
+
+        // Verify the page content and total
+        assertEquals(List.of("Test Name 3", "Test Name 4", "Test Name 5"), page.getContent().stream().map(TestEntity::getName).collect(Collectors.toList()),
+                "The second page should hold the next matching entities");
+        assertEquals(7, page.getTotalElements(), "The total should count every matching entity");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testFindAll_ReadOnly() {
+        // Commit test entities, since the reads must not join the test's read-write transaction
+        List<TestEntity> saved = service.saveAll(List.of(new TestEntity(null, "Test Name 1", "Test Description 1"),
+                new TestEntity(null, "Test Name 2", "Test Description 2")));
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                Session session = entityManager.getEntityManager().unwrap(Session.class);
+
+                // Verify the entities are loaded read-only and the session is not flushed
+                List<TestEntity> entities = service.findAll();
+                assertTrue(entities.stream().allMatch(session::isReadOnly), "findAll should load read-only entities");
+                entities = service.findAll(List.of(new Filter("name", FilterOperator.PREFIX, "Test")), Sort.unsorted(), 10);
+                assertTrue(entities.stream().allMatch(session::isReadOnly), "The filtered query should load read-only entities");
+                assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode(), "The session should not be flushed");
+            });
+        } finally {
+            service.deleteAllById(saved.stream().map(TestEntity::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testFindAll_ReadWriteTransaction() {
+        // Create and persist a test entity
+        entityManager.persistAndFlush(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.clear();
+
+        // Verify reads joining a read-write transaction load writable entities
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertFalse(service.findAll().stream().anyMatch(session::isReadOnly), "The entities should be writable");
+    }
+
+    @Test
+    public void testSave_ReadOnlyEntity() {
+        // Create a test entity and leave it read-only in the persistence context, as a read-only method would
+        TestEntity entity = entityManager.persistFlushFind(new TestEntity(null, "Test Name", "Test Description"));
+        entityManager.getEntityManager().unwrap(Session.class).setReadOnly(entity, true);
+
+        // Modify and save the entity
+        entity.setName("Updated Name");
+        service.save(entity);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Verify the change was written
+        assertEquals("Updated Name", entityManager.find(TestEntity.class, entity.getId()).getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testFindChunkStarts() {
+        // Create and persist test entities
+        List<Long> ids = IntStream.range(0, 7)
+                .mapToObj(i -> entityManager.persist(new TestEntity(null, "Test Name " + i, "Test Description")).getId())
+                .collect(Collectors.toList());
+        entityManager.flush();
+
+        // Verify the chunks start at the first id and every third id after it
+        assertEquals(List.of(ids.get(0), ids.get(3), ids.get(6)), service.findChunkStarts(3), "The chunk starts should be every third id");
+        assertThrows(IllegalArgumentException.class, () -> service.findChunkStarts(0));
+    }
+
+    @Test
+    public void testStreamAll_Range() {
+        // Create and persist test entities
+        List<Long> ids = IntStream.range(0, 5)
+                .mapToObj(i -> entityManager.persist(new TestEntity(null, "Test Name " + i, "Test Description")).getId())
+                .collect(Collectors.toList());
+        entityManager.flush();
+
+        // Stream a bounded and an open range
+        List<Long> bounded = new ArrayList<>();
+        service.streamAll(ids.get(1), ids.get(3), entity -> bounded.add(entity.getId()));
+        List<Long> open = new ArrayList<>();
+        service.streamAll(ids.get(3), null, entity -> open.add(entity.getId()));
+
+        // Verify the ranges include their start and exclude their end
+        assertEquals(ids.subList(1, 3), bounded, "The bounded range should stop before its end");
+        assertEquals(ids.subList(3, 5), open, "The open range should run to the last entity");
+    }
+}
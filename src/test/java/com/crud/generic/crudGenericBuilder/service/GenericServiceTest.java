@@ -1,19 +1,45 @@
 package com.crud.generic.crudGenericBuilder.service;
 
+import com.crud.generic.crudGenericBuilder.cache.CacheEntities;
+import com.crud.generic.crudGenericBuilder.cache.CaffeineEntityCache;
+import com.crud.generic.crudGenericBuilder.cache.CollapseLoads;
+import com.crud.generic.crudGenericBuilder.metrics.MicrometerCrudMetricsFactory;
+import com.crud.generic.crudGenericBuilder.model.KeysetPage;
 import com.crud.generic.crudGenericBuilder.model.TestEntity;
 import com.crud.generic.crudGenericBuilder.repository.TestRepository;
+import com.crud.generic.crudGenericBuilder.service.impl.GenericServiceImpl;
 import com.crud.generic.crudGenericBuilder.service.impl.TestServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 /**
@@ -25,11 +51,16 @@ public class GenericServiceTest {
     @Mock
     private TestRepository repository;
 
+    @Mock
+    private EntityManager entityManager;
+
     private TestService service;
 
     @BeforeEach
     public void setUp() {
-        service = new TestServiceImpl(repository);
+        TestServiceImpl serviceImpl = new TestServiceImpl(repository);
+        serviceImpl.setEntityManager(entityManager);
+        service = serviceImpl;
     }
 
     @Test
@@ -53,6 +84,69 @@ public class GenericServiceTest {
         assertEquals(entity.getDescription(), savedEntity.getDescription(), "The descriptions should match");
     }
     
+    @Test
+    public void testSaveAll() {
+        // Use a batch size of 2 for 3 entities
+        ((TestServiceImpl) service).setBatchSize(2);
+        TestEntity entity1 = new TestEntity(null, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(null, "Test Name 2", "Test Description 2");
+        TestEntity entity3 = new TestEntity(null, "Test Name 3", "Test Description 3");
+        when(repository.save(any(TestEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Call the service saveAll method
+        List<TestEntity> savedEntities = service.saveAll(List.of(entity1, entity2, entity3));
+
+        // Verify every entity was saved and the persistence context was flushed once per batch
+        assertEquals(List.of(entity1, entity2, entity3), savedEntities, "The saved entities should keep their order");
+        verify(repository, times(3)).save(any(TestEntity.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testUpdateAll() {
+        // Mock the repository findAllById and save methods
+        TestEntity entity1 = new TestEntity(1L, "Updated Name 1", "Updated Description 1");
+        TestEntity entity2 = new TestEntity(2L, "Updated Name 2", "Updated Description 2");
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(entity1, entity2));
+        when(repository.save(any(TestEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Call the service updateAll method
+        List<TestEntity> updatedEntities = service.updateAll(List.of(entity1, entity2));
+
+        // Verify the batch was checked with one query and then saved
+        assertEquals(2, updatedEntities.size(), "There should be 2 updated entities");
+        verify(repository, times(1)).findAllById(List.of(1L, 2L));
+        verify(repository, times(2)).save(any(TestEntity.class));
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    public void testUpdateAll_Missing() {
+        // Mock the repository findAllById method with a missing entity
+        TestEntity entity1 = new TestEntity(1L, "Updated Name 1", "Updated Description 1");
+        TestEntity entity2 = new TestEntity(2L, "Updated Name 2", "Updated Description 2");
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(entity1));
+
+        // Call the service updateAll method
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> service.updateAll(List.of(entity1, entity2)));
+
+        // Verify nothing was saved
+        assertEquals("Entities with ids [2] not found", exception.getMessage());
+        verify(repository, never()).save(any(TestEntity.class));
+    }
+
+    @Test
+    public void testUpdateAll_MissingId() {
+        // Call the service updateAll method with an entity without id
+        TestEntity entity = new TestEntity(null, "Updated Name", "Updated Description");
+        assertThrows(IllegalArgumentException.class, () -> service.updateAll(List.of(entity)));
+
+        // Verify nothing was read or saved
+        verifyNoInteractions(repository);
+    }
+
     @Test
     public void testFindById() {
         // Create a test entity
@@ -74,6 +168,198 @@ public class GenericServiceTest {
         assertEquals(entity.getDescription(), foundEntity.get().getDescription(), "The descriptions should match");
     }
     
+    @Test
+    public void testFindById_Cached() {
+        // Create a service with an entity cache
+        GenericServiceImpl<TestEntity, Long> cachedService =
+                new GenericServiceImpl<>(repository, new CaffeineEntityCache<>(100, Duration.ofMinutes(1))) {};
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+
+        // Call the service findById method twice
+        cachedService.findById(1L);
+        Optional<TestEntity> foundEntity = cachedService.findById(1L);
+
+        // Verify the repository was only queried once
+        assertTrue(foundEntity.isPresent(), "The entity should be found");
+        verify(repository, times(1)).findById(1L);
+        assertEquals(1, cachedService.getEntityCache().stats().getHitCount(), "The second read should be a cache hit");
+    }
+
+    @Test
+    public void testFindById_CacheInvalidatedBySave() {
+        // Create a service with an entity cache
+        GenericServiceImpl<TestEntity, Long> cachedService =
+                new GenericServiceImpl<>(repository, new CaffeineEntityCache<>(100, Duration.ofMinutes(1))) {};
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        TestEntity updatedEntity = new TestEntity(1L, "Updated Name", "Updated Description");
+        when(repository.findById(1L)).thenReturn(Optional.of(entity)).thenReturn(Optional.of(updatedEntity));
+        when(repository.save(updatedEntity)).thenReturn(updatedEntity);
+
+        // Read, update and read the entity again
+        cachedService.findById(1L);
+        cachedService.save(updatedEntity);
+        Optional<TestEntity> foundEntity = cachedService.findById(1L);
+
+        // Verify the read after the save went to the repository
+        verify(repository, times(2)).findById(1L);
+        assertEquals("Updated Name", foundEntity.get().getName(), "The read after the save should not be stale");
+    }
+
+    @Test
+    public void testFindById_CacheInvalidatedByDeleteById() {
+        // Create a service with an entity cache
+        GenericServiceImpl<TestEntity, Long> cachedService =
+                new GenericServiceImpl<>(repository, new CaffeineEntityCache<>(100, Duration.ofMinutes(1))) {};
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        when(repository.findById(1L)).thenReturn(Optional.of(entity)).thenReturn(Optional.empty());
+
+        // Read, delete and read the entity again
+        cachedService.findById(1L);
+        cachedService.deleteById(1L);
+        Optional<TestEntity> foundEntity = cachedService.findById(1L);
+
+        // Verify the deleted entity is no longer returned
+        assertFalse(foundEntity.isPresent(), "The deleted entity should not be returned from the cache");
+    }
+
+    @Test
+    public void testFindAllById() {
+        // Send at most two ids per IN list
+        ((GenericServiceImpl<TestEntity, Long>) service).setInListSize(2);
+        when(repository.findAllById(List.of(3L, 1L))).thenReturn(List.of(
+                new TestEntity(1L, "Test Name 1", "Test Description"), new TestEntity(3L, "Test Name 3", "Test Description")));
+        when(repository.findAllById(List.of(9L))).thenReturn(List.of());
+
+        // Read the entities with a repeated and a missing id
+        List<TestEntity> entities = service.findAllById(List.of(3L, 1L, 3L, 9L));
+
+        // Verify the ids were chunked and the request order was kept
+        assertEquals(List.of(3L, 1L), entities.stream().map(TestEntity::getId).collect(Collectors.toList()),
+                "The existing entities should be returned once, in the order of their ids");
+        verify(repository, times(2)).findAllById(anyList());
+    }
+
+    @Test
+    public void testFindAllById_Cached() {
+        // Create a service with an entity cache that already holds one entity
+        GenericServiceImpl<TestEntity, Long> cachedService =
+                new GenericServiceImpl<>(repository, new CaffeineEntityCache<>(100, Duration.ofMinutes(1))) {};
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity(1L, "Test Name 1", "Test Description")));
+        cachedService.findById(1L);
+        when(repository.findAllById(List.of(2L))).thenReturn(List.of(new TestEntity(2L, "Test Name 2", "Test Description")));
+
+        // Read both entities, twice
+        cachedService.findAllById(List.of(2L, 1L));
+        List<TestEntity> entities = cachedService.findAllById(List.of(2L, 1L));
+
+        // Verify only the uncached entity was read, once
+        assertEquals(List.of(2L, 1L), entities.stream().map(TestEntity::getId).collect(Collectors.toList()));
+        verify(repository, times(1)).findAllById(anyList());
+    }
+
+    @Test
+    public void testFindAllById_TooManyIds() {
+        ((GenericServiceImpl<TestEntity, Long>) service).setMaxPageSize(2);
+
+        // Verify reads of more ids than the maximum page size are rejected
+        assertThrows(IllegalArgumentException.class, () -> service.findAllById(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testCacheEntitiesAnnotation() {
+        // Call findById twice on a service annotated with CacheEntities
+        CachedTestServiceImpl cachedService = new CachedTestServiceImpl(repository);
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity(1L, "Test Name", "Test Description")));
+        cachedService.findById(1L);
+        cachedService.findById(1L);
+
+        // Verify the repository was only queried once
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testCollapseLoadsAnnotation() throws Exception {
+        // Block the first select until every caller has requested the entity
+        CollapsingTestServiceImpl collapsingService = new CollapsingTestServiceImpl(repository);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        collapsingService.setMetricsFactory(new MicrometerCrudMetricsFactory(registry));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new TestEntity(1L, "Test Name", "Test Description"));
+        });
+        List<CompletableFuture<Optional<TestEntity>>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> collapsingService.findById(1L), executor));
+        }
+        while (registry.get("crud.singleflight.collapsed").functionCounter().count() < 3) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // Verify the concurrent calls shared one select
+        for (CompletableFuture<Optional<TestEntity>> call : calls) {
+            assertTrue(call.get(5, TimeUnit.SECONDS).isPresent(), "Every caller should receive the entity");
+        }
+        verify(repository, times(1)).findById(1L);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCollapseLoads_Detached() {
+        // Create a service that collapses loads and a persistence context that holds the loaded entity
+        CollapsingTestServiceImpl collapsingService = new CollapsingTestServiceImpl(repository);
+        collapsingService.setEntityManager(entityManager);
+        TestEntity entity = new TestEntity(1L, "Test Name", "Test Description");
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        when(entityManager.contains(entity)).thenReturn(true);
+
+        // Call the service findById method
+        assertSame(entity, collapsingService.findById(1L).orElseThrow(), "The loaded entity should be returned");
+
+        // Verify the shared result was detached from the loading persistence context
+        verify(entityManager).detach(entity);
+    }
+
+    @Test
+    public void testCacheEntities_Detached() {
+        // Create a cached service and a persistence context that holds the loaded entities
+        CachedTestServiceImpl cachedService = new CachedTestServiceImpl(repository);
+        cachedService.setEntityManager(entityManager);
+        TestEntity entity1 = new TestEntity(1L, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(2L, "Test Name 2", "Test Description 2");
+        when(repository.findById(1L)).thenReturn(Optional.of(entity1));
+        when(repository.findAllById(List.of(2L))).thenReturn(List.of(entity2));
+        when(entityManager.contains(any(TestEntity.class))).thenReturn(true);
+
+        // Call the service findById and findAllById methods
+        assertSame(entity1, cachedService.findById(1L).orElseThrow(), "The loaded entity should be returned");
+        assertEquals(List.of(entity1, entity2), cachedService.findAllById(List.of(1L, 2L)), "The entities should be returned");
+
+        // Verify the cached entities were detached from the loading persistence context
+        verify(entityManager).detach(entity1);
+        verify(entityManager).detach(entity2);
+    }
+
+    @CollapseLoads(timeoutMillis = 5000)
+    private static class CollapsingTestServiceImpl extends GenericServiceImpl<TestEntity, Long> {
+
+        CollapsingTestServiceImpl(TestRepository repository) {
+            super(repository);
+        }
+    }
+
+    @CacheEntities(maximumSize = 100, expireAfterWriteSeconds = 60)
+    private static class CachedTestServiceImpl extends GenericServiceImpl<TestEntity, Long> {
+
+        CachedTestServiceImpl(TestRepository repository) {
+            super(repository);
+        }
+    }
+
     @Test
     public void testFindAll() {
         // Create test entities
@@ -101,6 +387,122 @@ public class GenericServiceTest {
         assertEquals(entity2.getDescription(), foundEntities.get(1).getDescription(), "The descriptions should match");
     }
     
+    @Test
+    public void testFindAllPaged() {
+        // Mock the repository findAll method for a page ordered by id
+        Pageable expected = PageRequest.of(1, 2, Sort.by("id"));
+        TestEntity entity = new TestEntity(3L, "Test Name 3", "Test Description 3");
+        when(repository.findAll(expected)).thenReturn(new PageImpl<>(List.of(entity), expected, 3));
+
+        // Call the service findAll method with an unsorted page
+        Page<TestEntity> page = service.findAll(PageRequest.of(1, 2));
+
+        // Verify the page was read in id order
+        verify(repository, times(1)).findAll(expected);
+        assertEquals(1, page.getContent().size(), "There should be 1 entity on the page");
+        assertEquals(3L, page.getTotalElements(), "The total should be 3");
+    }
+
+    @Test
+    public void testFindAllPaged_SizeIsCapped() {
+        // Limit the page size
+        ((TestServiceImpl) service).setMaxPageSize(10);
+        Pageable expected = PageRequest.of(0, 10, Sort.by("id"));
+        when(repository.findAll(expected)).thenReturn(new PageImpl<>(List.of(), expected, 0));
+
+        // Call the service findAll method with a page size above the cap
+        service.findAll(PageRequest.of(0, 500));
+
+        // Verify the page size was capped
+        verify(repository, times(1)).findAll(expected);
+    }
+
+    @Test
+    public void testFindAllPaged_SortedWithTiebreaker() {
+        // Mock the repository findAll method for a page ordered by name, then id
+        Pageable expected = PageRequest.of(0, 2, Sort.by("name").and(Sort.by("id")));
+        when(repository.findAll(expected)).thenReturn(new PageImpl<>(List.of(), expected, 0));
+
+        // Call the service findAll method with a page sorted by name
+        service.findAll(PageRequest.of(0, 2, Sort.by("name")));
+
+        // Verify the id was added as tiebreaker
+        verify(repository, times(1)).findAll(expected);
+    }
+
+    @Test
+    public void testFindAllPaged_UnfilterableSort() {
+        // Verify a sort on an attribute that is not filterable is rejected before querying
+        assertThrows(IllegalArgumentException.class, () -> service.findAll(PageRequest.of(0, 2, Sort.by("unknown"))));
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    public void testFindAllAfter_FirstPage() {
+        // Mock the repository findAllBy method with a slice that has more entities
+        Pageable expected = PageRequest.of(0, 2, Sort.by("id"));
+        TestEntity entity1 = new TestEntity(1L, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(2L, "Test Name 2", "Test Description 2");
+        when(repository.findAllBy(expected)).thenReturn(new SliceImpl<>(List.of(entity1, entity2), expected, true));
+
+        // Call the service findAllAfter method without a cursor
+        KeysetPage<TestEntity, Long> page = service.findAllAfter(null, 2);
+
+        // Verify the next cursor is the id of the last entity
+        verify(repository, never()).findByIdGreaterThan(any(), any());
+        assertEquals(2, page.getContent().size(), "There should be 2 entities");
+        assertEquals(2L, page.getNextCursor(), "The next cursor should be the last id");
+        assertFalse(page.isLast(), "The page should not be the last");
+    }
+
+    @Test
+    public void testFindAllAfter_LastPage() {
+        // Mock the repository findByIdGreaterThan method with a final slice
+        Pageable expected = PageRequest.of(0, 2, Sort.by("id"));
+        TestEntity entity = new TestEntity(3L, "Test Name 3", "Test Description 3");
+        when(repository.findByIdGreaterThan(2L, expected)).thenReturn(new SliceImpl<>(List.of(entity), expected, false));
+
+        // Call the service findAllAfter method with a cursor
+        KeysetPage<TestEntity, Long> page = service.findAllAfter(2L, 2);
+
+        // Verify there is no next cursor
+        assertEquals(1, page.getContent().size(), "There should be 1 entity");
+        assertNull(page.getNextCursor(), "There should be no next cursor");
+        assertTrue(page.isLast(), "The page should be the last");
+    }
+
+    @Test
+    public void testStreamAll() {
+        // Mock the repository streamAllBy method
+        TestEntity entity1 = new TestEntity(1L, "Test Name 1", "Test Description 1");
+        TestEntity entity2 = new TestEntity(2L, "Test Name 2", "Test Description 2");
+        when(repository.streamAllBy()).thenReturn(Stream.of(entity1, entity2));
+
+        // Call the service streamAll method
+        List<TestEntity> consumed = new ArrayList<>();
+        service.streamAll(consumed::add);
+
+        // Verify every entity was consumed and then detached
+        assertEquals(List.of(entity1, entity2), consumed, "Every entity should be consumed in order");
+        verify(entityManager, times(1)).detach(entity1);
+        verify(entityManager, times(1)).detach(entity2);
+    }
+
+    @Test
+    public void testMetrics() {
+        // Instrument the service
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ((TestServiceImpl) service).setMetricsFactory(new MicrometerCrudMetricsFactory(registry));
+        when(repository.findAll()).thenReturn(List.of(new TestEntity(1L, "Test Name", "Test Description")));
+
+        // Call the service findAll method
+        service.findAll();
+
+        // Verify the call and the number of rows were recorded
+        assertEquals(1, registry.get("crud.operation").tags("entity", "TestEntity", "layer", "service", "operation", "findAll").timer().count());
+        assertEquals(1, registry.get("crud.operation.rows").tag("operation", "findAll").summary().totalAmount());
+    }
+
     @Test
     public void testDeleteById() {
         // Call the service deleteById method
@@ -110,6 +512,31 @@ public class GenericServiceTest {
         verify(repository, times(1)).deleteById(1L);
     }
     
+    @Test
+    public void testDeleteIfExists() {
+        // Mock the repository deleteByIdReturningCount method
+        when(repository.deleteByIdReturningCount(1L)).thenReturn(1);
+        when(repository.deleteByIdReturningCount(2L)).thenReturn(0);
+
+        // Verify the deleted row count is reported
+        assertTrue(service.deleteIfExists(1L), "The existing entity should be deleted");
+        assertFalse(service.deleteIfExists(2L), "The missing entity should not be deleted");
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    public void testDeleteAllById() {
+        // Use a batch size of 2 for 3 ids
+        ((TestServiceImpl) service).setBatchSize(2);
+
+        // Call the service deleteAllById method
+        service.deleteAllById(List.of(1L, 2L, 3L));
+
+        // Verify one bulk delete was issued per batch
+        verify(repository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository, times(1)).deleteAllByIdInBatch(List.of(3L));
+    }
+
     @Test
     public void testDelete() {
         // Create a test entity
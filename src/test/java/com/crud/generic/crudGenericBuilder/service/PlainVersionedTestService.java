@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.PlainVersionedTestEntity;
+
+/**
+ * Test service interface for the plain versioned test entity.
+ * This is used for testing the version-checked single-statement update.
+ */
+public interface PlainVersionedTestService extends GenericService<PlainVersionedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
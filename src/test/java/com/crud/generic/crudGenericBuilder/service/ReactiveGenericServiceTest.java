@@ -0,0 +1,140 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+import com.crud.generic.crudGenericBuilder.service.impl.ReactiveTestServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ReactiveGenericServiceImpl class against the embedded R2DBC database.
+ */
+@DataR2dbcTest
+@Import(ReactiveTestServiceImpl.class)
+public class ReactiveGenericServiceTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveTestService service;
+
+    @BeforeEach
+    public void setUp() {
+        databaseClient.sql("drop table if exists reactive_test_entity").then()
+                .then(databaseClient.sql("create table reactive_test_entity "
+                        + "(id bigint auto_increment primary key, name varchar(255), description varchar(255))").then())
+                .block();
+    }
+
+    private ReactiveTestEntity saved(String name) {
+        return service.save(new ReactiveTestEntity(null, name, "Test Description")).block();
+    }
+
+    @Test
+    public void testSaveAndFindById() {
+        // Save a test entity
+        ReactiveTestEntity entity = saved("Test Name");
+
+        // Verify the entity can be read back
+        assertNotNull(entity.getId(), "The saved entity should have an id");
+        StepVerifier.create(service.findById(entity.getId()))
+                .assertNext(found -> assertEquals("Test Name", found.getName(), "The name should match"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFindAll_Backpressure() {
+        // Save test entities
+        List<ReactiveTestEntity> entities = IntStream.range(0, 10)
+                .mapToObj(i -> new ReactiveTestEntity(null, "Test Name " + i, "Test Description " + i))
+                .collect(Collectors.toList());
+        service.saveAll(entities).blockLast();
+
+        // Request the entities a few at a time
+        StepVerifier.create(service.findAll(), 3)
+                .expectNextCount(3)
+                .thenRequest(7)
+                .expectNextCount(7)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFindAllAfter() {
+        // Save test entities
+        Flux.range(0, 5).concatMap(i -> service.save(new ReactiveTestEntity(null, "Test Name " + i, null))).blockLast();
+
+        // Read the first page and follow its cursor
+        StepVerifier.create(service.findAllAfter(null, 3).flatMap(page -> {
+            assertEquals(3, page.getContent().size(), "The first page should be full");
+            assertNotNull(page.getNextCursor(), "The first page should have a cursor");
+            return service.findAllAfter(page.getNextCursor(), 3);
+        }))
+                .assertNext(page -> {
+                    assertEquals(2, page.getContent().size(), "The last page should hold the remaining entities");
+                    assertTrue(page.isLast(), "The last page should have no cursor");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testUpdateIfExists() {
+        // Save a test entity
+        ReactiveTestEntity entity = saved("Test Name");
+
+        // Update the entity
+        StepVerifier.create(service.updateIfExists(entity.getId(), new ReactiveTestEntity(null, "Updated Name", null)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Verify the entity was updated
+        assertEquals("Updated Name", service.findById(entity.getId()).block().getName(), "The name should be updated");
+    }
+
+    @Test
+    public void testUpdateIfExists_Missing() {
+        // Update an entity that does not exist
+        StepVerifier.create(service.updateIfExists(Long.MAX_VALUE, new ReactiveTestEntity(null, "Updated Name", null)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testUpdateIfExists_Deferred() {
+        // Save a test entity and prepare an update without subscribing to it
+        ReactiveTestEntity entity = saved("Test Name");
+        ReactiveTestEntity update = new ReactiveTestEntity(null, "Updated Name", null);
+        Mono<ReactiveTestEntity> updated = service.updateIfExists(entity.getId(), update);
+
+        // Verify nothing happens before the subscription
+        assertNull(update.getId(), "The id should not be set before the subscription");
+        assertEquals("Test Name", service.findById(entity.getId()).block().getName(), "The entity should not be updated yet");
+
+        // Verify the update runs on subscription
+        StepVerifier.create(updated)
+                .assertNext(result -> assertEquals(entity.getId(), result.getId(), "The updated entity should carry the id"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testDeleteIfExists() {
+        // Save a test entity
+        ReactiveTestEntity entity = saved("Test Name");
+
+        // Delete it twice
+        StepVerifier.create(service.deleteIfExists(entity.getId())).expectNext(true).verifyComplete();
+        StepVerifier.create(service.deleteIfExists(entity.getId())).expectNext(false).verifyComplete();
+        StepVerifier.create(service.count()).expectNext(0L).verifyComplete();
+    }
+}
@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+
+/**
+ * Test service interface that extends ReactiveGenericService.
+ * This is used for testing the reactive generic CRUD components.
+ */
+public interface ReactiveTestService extends ReactiveGenericService<ReactiveTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
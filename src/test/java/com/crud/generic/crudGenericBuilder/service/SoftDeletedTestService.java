@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.SoftDeletedTestEntity;
+
+/**
+ * Test service interface for the soft-deleted test entity.
+ * This is used for testing deletes that must go through the persistence context.
+ */
+public interface SoftDeletedTestService extends GenericService<SoftDeletedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
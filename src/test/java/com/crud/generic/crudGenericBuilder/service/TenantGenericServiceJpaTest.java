@@ -0,0 +1,167 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.cache.EntityCache;
+import com.crud.generic.crudGenericBuilder.model.TenantTestEntity;
+import com.crud.generic.crudGenericBuilder.service.impl.GenericServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.TenantGenericServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.TenantTestServiceImpl;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TenantGenericServiceImpl class against the embedded database.
+ */
+@DataJpaTest
+@Import(TenantTestServiceImpl.class)
+public class TenantGenericServiceJpaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TenantTestService service;
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContext.clear();
+    }
+
+    private TenantTestEntity saveAs(String tenantId, String name) {
+        return TenantContext.callAs(tenantId, () -> service.save(new TenantTestEntity(null, name)));
+    }
+
+    @Test
+    public void testSave_SetsTenant() {
+        // Save an entity as tenant a
+        TenantTestEntity saved = saveAs("a", "Alpha");
+
+        // Verify the row belongs to tenant a
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("a", entityManager.find(TenantTestEntity.class, saved.getId()).getTenantId());
+    }
+
+    @Test
+    public void testFind_RestrictedToTenant() {
+        // Save entities of two tenants
+        TenantTestEntity alpha = saveAs("a", "Alpha");
+        saveAs("a", "Another alpha");
+        TenantTestEntity beta = saveAs("b", "Beta");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Verify each tenant only sees its own rows
+        TenantContext.setTenantId("a");
+        assertEquals(2, service.findAll().size());
+        assertEquals(2, service.count());
+        assertEquals(2, service.findAll(PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(service.findById(alpha.getId()).isPresent());
+        assertFalse(service.findById(beta.getId()).isPresent(), "Another tenant's entity should be missing");
+        assertEquals(1, service.findAllById(List.of(alpha.getId(), beta.getId())).size());
+
+        TenantContext.setTenantId("b");
+        assertEquals(1, service.findAll().size());
+        assertEquals(1, service.count());
+        assertFalse(service.findById(alpha.getId()).isPresent(), "Another tenant's entity should be missing");
+    }
+
+    @Test
+    public void testWrite_ForeignIdIgnored() {
+        // Save an entity as tenant a
+        TenantTestEntity alpha = saveAs("a", "Alpha");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Update, patch and delete it as tenant b
+        TenantContext.setTenantId("b");
+        assertEquals(Optional.empty(), service.updateIfExists(alpha.getId(), new TenantTestEntity(null, "Stolen")));
+        assertFalse(service.patch(alpha.getId(), Map.of("name", "Stolen")));
+        assertFalse(service.deleteIfExists(alpha.getId()));
+        assertThrows(EmptyResultDataAccessException.class, () -> service.deleteById(alpha.getId()));
+        service.deleteAllById(List.of(alpha.getId()));
+        assertThrows(EntityNotFoundException.class, () -> service.save(new TenantTestEntity(alpha.getId(), "Stolen")));
+
+        // Verify the entity of tenant a is unchanged
+        entityManager.flush();
+        entityManager.clear();
+        TenantTestEntity found = entityManager.find(TenantTestEntity.class, alpha.getId());
+        assertEquals("Alpha", found.getName());
+        assertEquals("a", found.getTenantId());
+    }
+
+    @Test
+    public void testWrite_OwnId() {
+        // Save an entity as tenant a
+        TenantTestEntity alpha = saveAs("a", "Alpha");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Update, patch and delete it as tenant a
+        TenantContext.setTenantId("a");
+        assertTrue(service.updateIfExists(alpha.getId(), new TenantTestEntity(null, "Updated")).isPresent());
+        assertTrue(service.patch(alpha.getId(), Map.of("name", "Patched")));
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("Patched", service.findById(alpha.getId()).map(TenantTestEntity::getName).orElse(null));
+        service.deleteAllById(List.of(alpha.getId()));
+        assertEquals(0, service.count());
+    }
+
+    @Test
+    public void testEntityCache_PartitionedPerTenant() {
+        // Load an entity twice as its tenant, the second time from the cache
+        TenantTestEntity alpha = saveAs("a", "Alpha");
+        GenericServiceImpl<TenantTestEntity, Long> impl = (GenericServiceImpl<TenantTestEntity, Long>) service;
+        TenantContext.setTenantId("a");
+        EntityCache<Long, TenantTestEntity> cacheA = impl.getEntityCache();
+        service.findById(alpha.getId());
+        long hits = cacheA.stats().getHitCount();
+        assertTrue(service.findById(alpha.getId()).isPresent());
+        assertEquals(hits + 1, cacheA.stats().getHitCount());
+
+        // Verify another tenant has its own partition, which does not serve the entity
+        TenantContext.setTenantId("b");
+        EntityCache<Long, TenantTestEntity> cacheB = impl.getEntityCache();
+        assertNotSame(cacheA, cacheB);
+        long hitsB = cacheB.stats().getHitCount();
+        assertFalse(service.findById(alpha.getId()).isPresent());
+        assertEquals(hitsB, cacheB.stats().getHitCount());
+    }
+
+    @Test
+    public void testEntityCache_MaxTenants() {
+        // Allow no new partitions, the service being shared by the tests
+        TenantGenericServiceImpl<TenantTestEntity, Long> impl = (TenantGenericServiceImpl<TenantTestEntity, Long>) service;
+        impl.setMaxTenants(0);
+        try {
+            // Verify a new tenant is served without a cache
+            TenantTestEntity alpha = saveAs("overflow", "Alpha");
+            TenantContext.setTenantId("overflow");
+            assertSame(EntityCache.disabled(), impl.getEntityCache(), "A tenant beyond the limit should not be cached");
+            assertTrue(service.findById(alpha.getId()).isPresent(), "The tenant should still be served");
+        } finally {
+            impl.setMaxTenants(1000);
+        }
+    }
+
+    @Test
+    public void testWithoutTenant() {
+        // Verify every call requires a tenant
+        assertThrows(IllegalStateException.class, () -> service.findAll());
+        assertThrows(IllegalStateException.class, () -> service.save(new TenantTestEntity(null, "Alpha")));
+    }
+}
@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.TenantTestEntity;
+
+/**
+ * Test service interface for the tenant test entity.
+ * This is used for testing tenant isolation.
+ */
+public interface TenantTestService extends GenericService<TenantTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,11 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+
+/**
+ * Test service interface for the versioned test entity.
+ * This is used for testing conditional requests and optimistic locking.
+ */
+public interface VersionedTestService extends GenericService<VersionedTestEntity, Long> {
+    // No additional methods needed for basic testing
+}
@@ -0,0 +1,186 @@
+package com.crud.generic.crudGenericBuilder.service;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.repository.TestRepository;
+import com.crud.generic.crudGenericBuilder.service.impl.WriteBehindTestServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the WriteBehindGenericServiceImpl class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindGenericServiceTest {
+
+    @Mock
+    private TestRepository repository;
+
+    private WriteBehindTestServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new WriteBehindTestServiceImpl(repository);
+        // Keep the periodic flush out of the way of the tests
+        service.setFlushIntervalMillis(60_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        service.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSave_Coalesced() {
+        // Save the same entity several times
+        for (int i = 0; i < 3; i++) {
+            service.save(new TestEntity(1L, "Test Name " + i, "Test Description"));
+        }
+        service.save(new TestEntity(2L, "Other Name", "Test Description"));
+
+        // Verify nothing was written yet, and the buffered state is read back
+        verifyNoInteractions(repository);
+        assertEquals(2, service.getPendingCount(), "Saves of the same id should be coalesced");
+        assertEquals("Test Name 2", service.findById(1L).map(TestEntity::getName).orElse(null), "The latest save should be read back");
+
+        // Flush and verify only the latest state of each id was written in one batch
+        service.flush();
+        ArgumentCaptor<List<TestEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(batch.capture());
+        assertEquals(Set.of("Test Name 2", "Other Name"), batch.getValue().stream().map(TestEntity::getName).collect(Collectors.toSet()),
+                "Only the latest state of each id should be written");
+        assertEquals(0, service.getPendingCount(), "The buffer should be empty after the flush");
+    }
+
+    @Test
+    public void testSave_NewEntity() {
+        // Save an entity without id
+        TestEntity entity = new TestEntity(null, "Test Name", "Test Description");
+        when(repository.save(entity)).thenReturn(new TestEntity(1L, "Test Name", "Test Description"));
+
+        // Verify it was written immediately to get its id
+        assertEquals(1L, service.save(entity).getId(), "The generated id should be returned");
+        assertEquals(0, service.getPendingCount(), "New entities should not be buffered");
+    }
+
+    @Test
+    public void testSave_FlushSize() {
+        service.setFlushSize(2);
+
+        // Save as many ids as the flush size
+        service.save(new TestEntity(1L, "Test Name 1", "Test Description"));
+        service.save(new TestEntity(2L, "Test Name 2", "Test Description"));
+
+        // Verify a background flush was triggered
+        verify(repository, timeout(5000)).saveAll(anyList());
+    }
+
+    @Test
+    public void testSave_Backpressure() {
+        service.setMaxPending(2);
+
+        // Fill the buffer, then save one more id
+        service.save(new TestEntity(1L, "Test Name 1", "Test Description"));
+        service.save(new TestEntity(2L, "Test Name 2", "Test Description"));
+        service.save(new TestEntity(1L, "Test Name 1b", "Test Description"));
+        verifyNoInteractions(repository);
+        service.save(new TestEntity(3L, "Test Name 3", "Test Description"));
+
+        // Verify the caller flushed the full buffer before buffering the new id
+        verify(repository, times(1)).saveAll(anyList());
+        assertEquals(1, service.getPendingCount(), "Only the new id should be buffered");
+    }
+
+    @Test
+    public void testFlush_Failure() {
+        // Buffer an entity and let the write fail
+        service.save(new TestEntity(1L, "Test Name", "Test Description"));
+        when(repository.saveAll(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Verify the failure is reported and the entity stays buffered
+        assertThrows(QueryTimeoutException.class, service::flush);
+        assertEquals(1, service.getPendingCount(), "The failed entity should stay buffered");
+        assertEquals(Optional.of("Test Name"), service.findById(1L).map(TestEntity::getName));
+
+        // Let the final flush on shutdown succeed
+        reset(repository);
+    }
+
+    @Test
+    public void testFlush_FailingEntity() {
+        // Create a service that gives up on an entity after two failed writes
+        List<TestEntity> dropped = new ArrayList<>();
+        service = new WriteBehindTestServiceImpl(repository) {
+            @Override
+            protected void onWriteFailed(TestEntity entity, RuntimeException failure) {
+                dropped.add(entity);
+            }
+        };
+        service.setFlushIntervalMillis(60_000);
+        service.setMaxAttempts(2);
+
+        // Buffer two entities, one of which violates a constraint
+        TestEntity valid = new TestEntity(1L, "Test Name", "Test Description");
+        TestEntity invalid = new TestEntity(2L, null, "Test Description");
+        service.save(valid);
+        service.save(invalid);
+        when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("name is null"));
+        when(repository.save(valid)).thenReturn(valid);
+        when(repository.save(invalid)).thenThrow(new DataIntegrityViolationException("name is null"));
+
+        // Verify the first flush writes the valid entity on its own and keeps the failing one buffered
+        assertThrows(DataIntegrityViolationException.class, service::flush);
+        verify(repository, times(1)).save(valid);
+        assertEquals(1, service.getPendingCount(), "Only the failing entity should stay buffered");
+
+        // Verify the second failed attempt drops the entity from the buffer
+        service.flush();
+        assertEquals(List.of(invalid), dropped, "The failing entity should be handed over");
+        assertEquals(0, service.getPendingCount(), "The failing entity should no longer be buffered");
+    }
+
+    @Test
+    public void testDeleteById_DiscardsBuffered() {
+        // Buffer an entity, then delete it
+        service.save(new TestEntity(1L, "Test Name", "Test Description"));
+        service.deleteById(1L);
+
+        // Verify the buffered save was discarded
+        verify(repository, times(1)).deleteById(1L);
+        assertEquals(0, service.getPendingCount(), "The deleted entity should not be buffered");
+        service.flush();
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testDestroy() throws InterruptedException {
+        // Buffer an entity and shut the service down
+        service.save(new TestEntity(1L, "Test Name", "Test Description"));
+        service.destroy();
+
+        // Verify the buffer was flushed, and later saves are written immediately
+        verify(repository, times(1)).saveAll(anyList());
+        TestEntity entity = new TestEntity(2L, "Test Name 2", "Test Description");
+        when(repository.save(entity)).thenReturn(entity);
+        service.save(entity);
+        verify(repository, times(1)).save(entity);
+        assertEquals(0, service.getPendingCount(), "Saves after shutdown should not be buffered");
+    }
+}
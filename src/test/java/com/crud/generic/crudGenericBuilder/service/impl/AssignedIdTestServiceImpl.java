@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.AssignedIdTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.AssignedIdTestRepository;
+import com.crud.generic.crudGenericBuilder.service.AssignedIdTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation for the assigned id test entity.
+ * This is used for testing imports that keep the exported ids.
+ */
+@Service
+public class AssignedIdTestServiceImpl extends GenericServiceImpl<AssignedIdTestEntity, Long> implements AssignedIdTestService {
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param assignedIdTestRepository the repository to use
+     */
+    public AssignedIdTestServiceImpl(AssignedIdTestRepository assignedIdTestRepository) {
+        super(assignedIdTestRepository);
+    }
+}
@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.PlainVersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.PlainVersionedTestRepository;
+import com.crud.generic.crudGenericBuilder.service.PlainVersionedTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation for the plain versioned test entity.
+ * This is used for testing the version-checked single-statement update.
+ */
+@Service
+public class PlainVersionedTestServiceImpl extends GenericServiceImpl<PlainVersionedTestEntity, Long> implements PlainVersionedTestService {
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param plainVersionedTestRepository the repository to use
+     */
+    public PlainVersionedTestServiceImpl(PlainVersionedTestRepository plainVersionedTestRepository) {
+        super(plainVersionedTestRepository);
+    }
+}
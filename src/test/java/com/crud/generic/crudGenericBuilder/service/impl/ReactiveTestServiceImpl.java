@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.ReactiveTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.ReactiveTestRepository;
+import com.crud.generic.crudGenericBuilder.service.ReactiveTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation that extends ReactiveGenericServiceImpl.
+ * This is used for testing the reactive generic CRUD components.
+ */
+@Service
+public class ReactiveTestServiceImpl extends ReactiveGenericServiceImpl<ReactiveTestEntity, Long> implements ReactiveTestService {
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param reactiveTestRepository the repository to use
+     */
+    public ReactiveTestServiceImpl(ReactiveTestRepository reactiveTestRepository) {
+        super(reactiveTestRepository);
+    }
+}
@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.SoftDeletedTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.SoftDeletedTestRepository;
+import com.crud.generic.crudGenericBuilder.service.SoftDeletedTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation for the soft-deleted test entity.
+ * This is used for testing deletes that must go through the persistence context.
+ */
+@Service
+public class SoftDeletedTestServiceImpl extends GenericServiceImpl<SoftDeletedTestEntity, Long> implements SoftDeletedTestService {
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param softDeletedTestRepository the repository to use
+     */
+    public SoftDeletedTestServiceImpl(SoftDeletedTestRepository softDeletedTestRepository) {
+        super(softDeletedTestRepository);
+    }
+}
@@ -0,0 +1,25 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.cache.CacheEntities;
+import com.crud.generic.crudGenericBuilder.model.TenantTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.TenantTestRepository;
+import com.crud.generic.crudGenericBuilder.service.TenantTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation for the tenant test entity.
+ * This is used for testing tenant isolation.
+ */
+@Service
+@CacheEntities(maximumSize = 100, expireAfterWriteSeconds = 60)
+public class TenantTestServiceImpl extends TenantGenericServiceImpl<TenantTestEntity, Long> implements TenantTestService {
+
+    /**
+     * Constructor that takes a repository.
+     *
+     * @param tenantTestRepository the repository to use
+     */
+    public TenantTestServiceImpl(TenantTestRepository tenantTestRepository) {
+        super(tenantTestRepository);
+    }
+}
@@ -1,6 +1,7 @@
 package com.crud.generic.crudGenericBuilder.service.impl;
 
 import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.query.Filterable;
 import com.crud.generic.crudGenericBuilder.repository.TestRepository;
 import com.crud.generic.crudGenericBuilder.service.TestService;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
  * This is used for testing the generic CRUD components.
  */
 @Service
+@Filterable({"name", "description"})
 public class TestServiceImpl extends GenericServiceImpl<TestEntity, Long> implements TestService {
     
     private final TestRepository testRepository;
@@ -0,0 +1,23 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.VersionedTestEntity;
+import com.crud.generic.crudGenericBuilder.repository.VersionedTestRepository;
+import com.crud.generic.crudGenericBuilder.service.VersionedTestService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Test service implementation for the versioned test entity.
+ * This is used for testing conditional requests and optimistic locking.
+ */
+@Service
+public class VersionedTestServiceImpl extends GenericServiceImpl<VersionedTestEntity, Long> implements VersionedTestService {
+
+    /**
+     * Constructor that takes a repository.
+     * 
+     * @param versionedTestRepository the repository to use
+     */
+    public VersionedTestServiceImpl(VersionedTestRepository versionedTestRepository) {
+        super(versionedTestRepository);
+    }
+}
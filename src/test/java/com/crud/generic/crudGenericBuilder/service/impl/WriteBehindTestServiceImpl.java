@@ -0,0 +1,21 @@
+package com.crud.generic.crudGenericBuilder.service.impl;
+
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.repository.TestRepository;
+import com.crud.generic.crudGenericBuilder.service.TestService;
+
+/**
+ * Test service implementation that extends WriteBehindGenericServiceImpl.
+ * This is used for testing the write-behind buffer.
+ */
+public class WriteBehindTestServiceImpl extends WriteBehindGenericServiceImpl<TestEntity, Long> implements TestService {
+
+    /**
+     * Constructor that takes a repository.
+     *
+     * @param testRepository the repository to use
+     */
+    public WriteBehindTestServiceImpl(TestRepository testRepository) {
+        super(testRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CrudTenancyAutoConfiguration class.
+ */
+public class CrudTenancyAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(CrudTenancyAutoConfiguration.class, DataSourceAutoConfiguration.class));
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        // Verify nothing is configured without crud.generic.tenancy.enabled
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudTenancyAutoConfiguration.class))
+                .run(context -> assertFalse(context.containsBean("crudTenantFilter")));
+    }
+
+    @Test
+    public void testTenantFilter() {
+        // Verify the filter is registered on servlet applications
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CrudTenancyAutoConfiguration.class))
+                .withPropertyValues("crud.generic.tenancy.enabled=true", "crud.generic.tenancy.url-patterns=/api/*")
+                .run(context -> {
+                    FilterRegistrationBean<?> registration = context.getBean("crudTenantFilter", FilterRegistrationBean.class);
+                    assertInstanceOf(TenantFilter.class, registration.getFilter());
+                    assertTrue(registration.getUrlPatterns().contains("/api/*"));
+                });
+    }
+
+    @Test
+    public void testDataSourcePerTenant() {
+        // Configure a pool per tenant, each with its own database and size
+        contextRunner
+                .withPropertyValues("crud.generic.tenancy.enabled=true",
+                        "crud.generic.tenancy.mode=datasource",
+                        "crud.generic.tenancy.default-tenant=a",
+                        "crud.generic.tenancy.datasources.a.url=jdbc:h2:mem:tenancy-a",
+                        "crud.generic.tenancy.datasources.a.maximum-pool-size=3",
+                        "crud.generic.tenancy.datasources.b.url=jdbc:h2:mem:tenancy-b",
+                        "crud.generic.tenancy.datasources.b.maximum-pool-size=2")
+                .run(context -> {
+                    // Verify the DataSource routes each tenant to its own pool
+                    TenantRoutingDataSource dataSource = context.getBean(TenantRoutingDataSource.class);
+                    assertSame(dataSource, context.getBean(DataSource.class));
+                    HikariDataSource poolB = (HikariDataSource) dataSource.getResolvedDataSources().get("b");
+                    assertEquals("crud-tenant-b", poolB.getPoolName());
+                    assertEquals(2, poolB.getMaximumPoolSize());
+                    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                    assertEquals("TENANCY-A", jdbcTemplate.queryForObject("select database()", String.class));
+                    assertEquals("TENANCY-B", TenantContext.callAs("b", () -> jdbcTemplate.queryForObject("select database()", String.class)));
+                });
+    }
+
+    @Test
+    public void testDataSourcePerTenant_UnknownDefaultTenant() {
+        // Verify a default tenant without a DataSource fails the startup
+        contextRunner
+                .withPropertyValues("crud.generic.tenancy.enabled=true",
+                        "crud.generic.tenancy.mode=datasource",
+                        "crud.generic.tenancy.default-tenant=c",
+                        "crud.generic.tenancy.datasources.a.url=jdbc:h2:mem:tenancy-a")
+                .run(context -> assertNotNull(context.getStartupFailure()));
+    }
+
+    @Test
+    public void testConnectionLimit() {
+        // Verify the shared DataSource gets a connection limit per tenant
+        contextRunner
+                .withPropertyValues("crud.generic.tenancy.enabled=true",
+                        "crud.generic.tenancy.max-connections-per-tenant=4",
+                        "spring.datasource.url=jdbc:h2:mem:tenancy-shared")
+                .run(context -> {
+                    TenantLimitedDataSource dataSource = context.getBean(TenantLimitedDataSource.class);
+                    assertEquals(4, dataSource.getAvailableConnections("a"));
+                    assertInstanceOf(HikariDataSource.class, dataSource.getTargetDataSource());
+                });
+    }
+}
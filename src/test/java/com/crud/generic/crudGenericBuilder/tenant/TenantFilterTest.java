@@ -0,0 +1,94 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TenantFilter and TenantContext classes.
+ */
+public class TenantFilterTest {
+
+    private final AtomicReference<String> seenTenant = new AtomicReference<>();
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContext.clear();
+    }
+
+    private MockHttpServletResponse filter(TenantFilter filter, String tenantId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test");
+        if (tenantId != null) {
+            request.addHeader("X-Tenant-ID", tenantId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                seenTenant.set(TenantContext.getTenantId());
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    public void testTenantFromHeader() throws Exception {
+        // Filter a request with a tenant header
+        MockHttpServletResponse response = filter(new TenantFilter("X-Tenant-ID", true), "acme");
+
+        // Verify the request ran as the tenant, which is cleared afterwards
+        assertEquals(200, response.getStatus());
+        assertEquals("acme", seenTenant.get());
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    public void testMissingTenant() throws Exception {
+        // Verify a request without a tenant is rejected only when the tenant is required
+        assertEquals(400, filter(new TenantFilter("X-Tenant-ID", true), null).getStatus());
+        assertNull(seenTenant.get());
+        assertEquals(200, filter(new TenantFilter("X-Tenant-ID", false), null).getStatus());
+        assertNull(seenTenant.get());
+    }
+
+    @Test
+    public void testInvalidTenant() throws Exception {
+        // Verify a tenant id that could escape a schema or pool name is rejected
+        assertEquals(400, filter(new TenantFilter("X-Tenant-ID", false), "acme; drop table").getStatus());
+        assertEquals(400, filter(new TenantFilter("X-Tenant-ID", false), "").getStatus());
+        assertNull(seenTenant.get());
+    }
+
+    @Test
+    public void testUnknownTenant() throws Exception {
+        // Verify only the known tenants are accepted when they are configured
+        TenantFilter filter = new TenantFilter("X-Tenant-ID", true, Set.of("acme", "globex"));
+        assertEquals(400, filter(filter, "initech").getStatus());
+        assertNull(seenTenant.get());
+        assertEquals(200, filter(filter, "globex").getStatus());
+        assertEquals("globex", seenTenant.get());
+    }
+
+    @Test
+    public void testPropagate() {
+        // Wrap an operation as tenant a and run it as tenant b
+        TenantContext.setTenantId("a");
+        Runnable operation = TenantContext.propagate(() -> seenTenant.set(TenantContext.getTenantId()));
+        TenantContext.setTenantId("b");
+        operation.run();
+
+        // Verify the operation ran as tenant a and the tenant was restored
+        assertEquals("a", seenTenant.get());
+        assertEquals("b", TenantContext.getTenantId());
+    }
+}
@@ -0,0 +1,88 @@
+package com.crud.generic.crudGenericBuilder.tenant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TenantLimitedDataSource and TenantRoutingDataSource classes, with embedded H2 databases.
+ */
+public class TenantLimitedDataSourceTest {
+
+    private EmbeddedDatabase database;
+    private EmbeddedDatabase otherDatabase;
+
+    @BeforeEach
+    public void setUp() {
+        database = database("tenant-a");
+        otherDatabase = database("tenant-b");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        database.shutdown();
+        otherDatabase.shutdown();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName(name).build();
+        new JdbcTemplate(database).execute("create table node (name varchar(20)); insert into node values ('" + name + "')");
+        return database;
+    }
+
+    @Test
+    public void testLimitPerTenant() throws Exception {
+        TenantLimitedDataSource dataSource = new TenantLimitedDataSource(database, 2, Duration.ofMillis(50));
+
+        // Take every connection of tenant a
+        TenantContext.setTenantId("a");
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailableConnections("a"));
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        // Verify tenant b and calls without a tenant are not limited by tenant a
+        TenantContext.setTenantId("b");
+        dataSource.getConnection().close();
+        TenantContext.clear();
+        dataSource.getConnection().close();
+
+        // Verify closing a connection releases its permit once
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.getAvailableConnections("a"));
+        second.close();
+        assertEquals(2, dataSource.getAvailableConnections("a"));
+
+        // Verify tenants without connections are no longer tracked
+        assertEquals(0, dataSource.getActiveTenants());
+    }
+
+    @Test
+    public void testRouting() {
+        TenantRoutingDataSource dataSource = new TenantRoutingDataSource(Map.of("a", database, "b", otherDatabase), null);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Verify each tenant uses its own database
+        assertEquals("tenant-a", TenantContext.callAs("a", () -> jdbcTemplate.queryForObject("select name from node", String.class)));
+        assertEquals("tenant-b", TenantContext.callAs("b", () -> jdbcTemplate.queryForObject("select name from node", String.class)));
+
+        // Verify an unknown tenant and a missing tenant have no database
+        TenantContext.setTenantId("c");
+        assertThrows(IllegalStateException.class, dataSource::getConnection);
+        TenantContext.clear();
+        assertThrows(IllegalStateException.class, dataSource::getConnection);
+    }
+}
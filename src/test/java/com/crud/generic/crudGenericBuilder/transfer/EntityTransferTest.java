@@ -0,0 +1,301 @@
+package com.crud.generic.crudGenericBuilder.transfer;
+
+import com.crud.generic.crudGenericBuilder.model.AssignedIdTestEntity;
+import com.crud.generic.crudGenericBuilder.model.TestEntity;
+import com.crud.generic.crudGenericBuilder.repository.AssignedIdTestRepository;
+import com.crud.generic.crudGenericBuilder.repository.TestRepository;
+import com.crud.generic.crudGenericBuilder.service.AssignedIdTestService;
+import com.crud.generic.crudGenericBuilder.service.TestService;
+import com.crud.generic.crudGenericBuilder.service.impl.AssignedIdTestServiceImpl;
+import com.crud.generic.crudGenericBuilder.service.impl.TestServiceImpl;
+import com.crud.generic.crudGenericBuilder.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the EntityTransfer class against the embedded database.
+ * The tests run outside a transaction, so the worker threads see the committed entities.
+ */
+@DataJpaTest
+@Import({TestServiceImpl.class, AssignedIdTestServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EntityTransferTest {
+
+    @Autowired
+    private TestService service;
+
+    @Autowired
+    private TestRepository repository;
+
+    @Autowired
+    private AssignedIdTestService assignedIdService;
+
+    @Autowired
+    private AssignedIdTestRepository assignedIdRepository;
+
+    @TempDir
+    Path directory;
+
+    private EntityTransfer<TestEntity, Long> transfer;
+
+    @BeforeEach
+    public void setUp() {
+        repository.deleteAll();
+        service.saveAll(IntStream.range(0, 25)
+                .mapToObj(i -> new TestEntity(null, "Test Name " + i, i % 5 == 0 ? null : "Test Description " + i))
+                .collect(Collectors.toList()));
+        transfer = new EntityTransfer<>(service, TestEntity.class, new ObjectMapper());
+        transfer.setChunkSize(10);
+        transfer.setParallelism(2);
+        transfer.setAssignNewIds(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repository.deleteAll();
+        assignedIdRepository.deleteAll();
+    }
+
+    private List<String> names() {
+        return repository.findAll().stream().map(e -> e.getName() + "/" + e.getDescription()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testExportImport_Ndjson() throws IOException {
+        List<String> expected = names();
+
+        // Export the entities and report the progress
+        List<TransferProgress> reported = new ArrayList<>();
+        transfer.setProgressListener(reported::add);
+        TransferProgress exported = transfer.exportTo(directory, TransferFormat.NDJSON);
+
+        // Verify every chunk was written
+        assertEquals(3, exported.getTotalChunks(), "25 entities should be split into 3 chunks");
+        assertEquals(25, exported.getRows(), "Every entity should be exported");
+        assertEquals(3, reported.size(), "The progress should be reported after each chunk");
+        assertEquals(10, Files.readAllLines(directory.resolve("chunk-000000.ndjson")).size(), "The first chunk should hold one entity per line");
+        assertTrue(Files.readString(directory.resolve("chunk-000002.ndjson")).endsWith("}\n"), "Each line should end with a newline");
+
+        // Import the entities into the emptied table
+        repository.deleteAll();
+        TransferProgress imported = transfer.importFrom(directory, TransferFormat.NDJSON);
+
+        // Verify every entity was restored
+        assertEquals(25, imported.getRows(), "Every entity should be imported");
+        assertEquals(expected, names(), "The imported entities should match the exported ones");
+    }
+
+    @Test
+    public void testExportImport_Csv() throws IOException {
+        List<String> expected = names();
+
+        // Export the entities as CSV
+        transfer.exportTo(directory, TransferFormat.CSV);
+
+        // Verify each chunk has a header row
+        List<String> lines = Files.readAllLines(directory.resolve("chunk-000000.csv"));
+        assertEquals(11, lines.size(), "The chunk should hold a header and one row per entity");
+        assertTrue(lines.get(0).contains("name"), "The header should name the columns");
+
+        // Import the entities into the emptied table
+        repository.deleteAll();
+        transfer.importFrom(directory, TransferFormat.CSV);
+
+        // Verify every entity was restored, with its null values
+        assertEquals(expected, names(), "The imported entities should match the exported ones");
+    }
+
+    @Test
+    public void testExportImport_AssignedIds() throws IOException {
+        // Create entities with assigned ids and export them
+        assignedIdService.insertAll(IntStream.range(0, 25)
+                .mapToObj(i -> new AssignedIdTestEntity(1000L + i * 7, "Test Name " + i))
+                .collect(Collectors.toList()));
+        List<AssignedIdTestEntity> expected = assignedIdRepository.findAll(Sort.by("id"));
+        EntityTransfer<AssignedIdTestEntity, Long> assignedIdTransfer = new EntityTransfer<>(assignedIdService, AssignedIdTestEntity.class, new ObjectMapper());
+        assignedIdTransfer.setChunkSize(10);
+        assignedIdTransfer.setParallelism(2);
+        assignedIdTransfer.exportTo(directory, TransferFormat.NDJSON);
+
+        // Import the entities into the emptied table
+        assignedIdRepository.deleteAll();
+        assignedIdTransfer.importFrom(directory, TransferFormat.NDJSON);
+
+        // Verify the entities were restored with their ids
+        assertEquals(expected, assignedIdRepository.findAll(Sort.by("id")), "The imported entities should keep their ids");
+    }
+
+    @Test
+    public void testImport_GeneratedIds() throws IOException {
+        // Export the entities, whose ids are generated
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+        repository.deleteAll();
+
+        // Verify the import is rejected unless new ids may be assigned
+        transfer.setAssignNewIds(false);
+        assertThrows(IllegalArgumentException.class, () -> transfer.importFrom(directory, TransferFormat.NDJSON));
+        assertEquals(0, repository.count(), "No entity should be imported");
+    }
+
+    @Test
+    public void testExport_Resume() throws IOException {
+        // Export the entities, then lose one chunk as an interrupted run would
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+        Path chunk = directory.resolve("chunk-000001.ndjson");
+        String content = Files.readString(chunk);
+        Files.delete(chunk);
+
+        // Export again
+        TransferProgress progress = transfer.exportTo(directory, TransferFormat.NDJSON);
+
+        // Verify only the missing chunk was written
+        assertEquals(2, progress.getResumedChunks(), "The finished chunks should be skipped");
+        assertEquals(10, progress.getRows(), "Only the missing chunk should be exported");
+        assertEquals(content, Files.readString(chunk), "The chunk should be written again");
+        assertThrows(IllegalStateException.class, () -> transfer.exportTo(directory, TransferFormat.CSV),
+                "A directory should not mix formats");
+    }
+
+    @Test
+    public void testImport_Resume() throws IOException {
+        // Export the entities and import them with one chunk already marked as imported
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+        repository.deleteAll();
+        Files.createFile(directory.resolve("chunk-000000.ndjson" + EntityTransfer.IMPORTED_SUFFIX));
+        TransferProgress progress = transfer.importFrom(directory, TransferFormat.NDJSON);
+
+        // Verify the marked chunk was skipped and the others were marked
+        assertEquals(1, progress.getResumedChunks(), "The imported chunk should be skipped");
+        assertEquals(15, repository.count(), "Only the other chunks should be imported");
+        assertTrue(Files.exists(directory.resolve("chunk-000002.ndjson" + EntityTransfer.IMPORTED_SUFFIX)), "Imported chunks should be marked");
+        assertEquals(0, transfer.importFrom(directory, TransferFormat.NDJSON).getRows(), "A finished import should import nothing");
+    }
+
+    @Test
+    public void testImport_Failure() throws IOException {
+        // Export the entities and corrupt one chunk
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+        repository.deleteAll();
+        Files.writeString(directory.resolve("chunk-000001.ndjson"), "{\"name\": ");
+
+        // Verify the import fails without marking the corrupt chunk
+        assertThrows(IOException.class, () -> transfer.importFrom(directory, TransferFormat.NDJSON));
+        assertFalse(Files.exists(directory.resolve("chunk-000001.ndjson" + EntityTransfer.IMPORTED_SUFFIX)), "The failed chunk should not be marked");
+    }
+
+    @Test
+    public void testImport_FailureWaitsForRunningChunks() throws IOException {
+        // Export the entities
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+
+        // Import through a service that fails the second chunk while the first is saved, and whose save ignores interruption
+        CountDownLatch saving = new CountDownLatch(1);
+        AtomicBoolean saved = new AtomicBoolean();
+        TestService failingService = (TestService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{TestService.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("insertAll")) {
+                        return method.invoke(service, args);
+                    }
+                    Collection<?> entities = (Collection<?>) args[0];
+                    if (entities.stream().anyMatch(entity -> ((TestEntity) entity).getName().equals("Test Name 10"))) {
+                        saving.await(5, TimeUnit.SECONDS);
+                        throw new IllegalStateException("Save failed");
+                    }
+                    saving.countDown();
+                    sleepUninterruptibly(Duration.ofMillis(300));
+                    saved.set(true);
+                    return new ArrayList<>(entities);
+                });
+        EntityTransfer<TestEntity, Long> failingTransfer = new EntityTransfer<>(failingService, TestEntity.class, new ObjectMapper());
+        failingTransfer.setParallelism(2);
+
+        // Verify the failure is only thrown once the running save has finished
+        assertThrows(IllegalStateException.class, () -> failingTransfer.importFrom(directory, TransferFormat.NDJSON));
+        assertTrue(saved.get(), "The running chunk should have finished before the failure was thrown");
+    }
+
+    @Test
+    public void testExport_Tenant() throws IOException {
+        // Export through a service that records the tenants it streams as
+        Set<String> tenants = ConcurrentHashMap.newKeySet();
+        TestService recordingService = (TestService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{TestService.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("streamAll")) {
+                        tenants.add(String.valueOf(TenantContext.getTenantId()));
+                    }
+                    return method.invoke(service, args);
+                });
+        EntityTransfer<TestEntity, Long> recordingTransfer = new EntityTransfer<>(recordingService, TestEntity.class, new ObjectMapper());
+        recordingTransfer.setChunkSize(10);
+        recordingTransfer.setParallelism(2);
+        TenantContext.setTenantId("a");
+        try {
+            recordingTransfer.exportTo(directory, TransferFormat.NDJSON);
+        } finally {
+            TenantContext.clear();
+        }
+
+        // Verify every chunk was streamed as the tenant of the caller
+        assertEquals(Set.of("a"), tenants, "The workers should run as the tenant of the caller");
+    }
+
+    private static void sleepUninterruptibly(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        boolean interrupted = false;
+        for (long remaining = duration.toNanos(); remaining > 0; remaining = end - System.nanoTime()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testImport_Unfinished() throws IOException {
+        // Verify a directory without a finished export is rejected
+        assertThrows(IllegalStateException.class, () -> transfer.importFrom(directory, TransferFormat.NDJSON));
+        transfer.exportTo(directory, TransferFormat.NDJSON);
+        Files.delete(directory.resolve("chunk-000002.ndjson"));
+        assertThrows(IllegalStateException.class, () -> transfer.importFrom(directory, TransferFormat.NDJSON));
+    }
+
+    @Test
+    public void testExport_Empty() throws IOException {
+        // Verify an empty table exports no chunks
+        repository.deleteAll();
+        TransferProgress progress = transfer.exportTo(directory, TransferFormat.NDJSON);
+        assertEquals(0, progress.getTotalChunks(), "An empty table should have no chunks");
+        assertEquals(0, transfer.importFrom(directory, TransferFormat.NDJSON).getRows(), "An empty export should import nothing");
+    }
+}